@@ -0,0 +1,47 @@
+package com.pyj.focusbank.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리포트/목표 기간 계산 비용.
+ * 서비스마다 요청 시 "오늘(KST)"을 구하고 기간 시작일을 계산하므로 두 단계를 나눠 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DateWindowBenchmark {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    /** 월말/연말 경계를 포함하도록 고정 */
+    private final LocalDate today = LocalDate.of(2025, 12, 31);
+
+    @Benchmark
+    public LocalDate todayKst() {
+        return LocalDate.now(KST);
+    }
+
+    @Benchmark
+    public LocalDate reportWeeklyFrom() {
+        return ReportServiceImpl.weeklyFrom(today, 12);
+    }
+
+    @Benchmark
+    public LocalDate reportMonthlyFrom() {
+        return ReportServiceImpl.monthlyFrom(today, 6);
+    }
+
+    @Benchmark
+    public LocalDate goalWeeklyStart() {
+        return GoalServiceImpl.periodStart("WEEKLY", today);
+    }
+
+    @Benchmark
+    public LocalDate goalMonthlyStart() {
+        return GoalServiceImpl.periodStart("MONTHLY", today);
+    }
+}
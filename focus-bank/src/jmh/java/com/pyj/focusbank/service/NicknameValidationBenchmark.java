@@ -0,0 +1,41 @@
+package com.pyj.focusbank.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 닉네임 유효성 검사 비용.
+ * String.matches(호출마다 정규식 컴파일)와 현재 구현(미리 컴파일한 Pattern 재사용)을 같은 입력으로 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class NicknameValidationBenchmark {
+
+    /** ProfileServiceImpl 과 같은 정책 (비교용) */
+    private static final String NICKNAME_REGEX = "^[A-Za-z0-9가-힣_]{2,16}$";
+
+    /** 유효/무효(문자셋, 길이) 혼합 입력 */
+    private final String[] inputs = {
+            "집중장인", "focus_bank_01", "닉네임!", "a", "가나다라마바사아자차카타파하가나다", "Study_Hard"
+    };
+
+    /** isValidNickname 은 매퍼/색인/할당기를 쓰지 않으므로 의존성 없이 생성 */
+    private final ProfileServiceImpl profileService = new ProfileServiceImpl(null, null, null, null);
+
+    @Benchmark
+    public void current(Blackhole bh) {
+        for (String s : inputs) {
+            bh.consume(profileService.isValidNickname(s));
+        }
+    }
+
+    @Benchmark
+    public void stringMatches(Blackhole bh) {
+        for (String s : inputs) {
+            bh.consume(s.length() >= 2 && s.length() <= 16 && s.matches(NICKNAME_REGEX));
+        }
+    }
+}
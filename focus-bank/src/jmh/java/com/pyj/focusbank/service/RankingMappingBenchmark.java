@@ -0,0 +1,54 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import com.pyj.focusbank.dto.RankingDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 랭킹 조회 결과(Map 행) → RankingDto 변환 비용.
+ * 행 수는 컨트롤러 limit 범위(10 / 100)로 측정하고, 절반은 닉네임 없는 사용자(anon-XXXX 마스킹)로 둔다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RankingMappingBenchmark {
+
+    @Param({"10", "100"})
+    int rows;
+
+    private final AnonIdTypeHandler anonIdTypeHandler = new AnonIdTypeHandler(AnonIdTypeHandler.Storage.CHAR);
+    private List<Map<String, Object>> resultRows;
+    private String anonId;
+
+    @Setup
+    public void setUp() {
+        resultRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("anon_id", String.format("01HW%022d", i));
+            row.put("total_seconds", 360_000L - i * 60L);
+            if (i % 2 == 0) {
+                row.put("nickname", "집중장인" + i);
+                row.put("nickname_tag", String.format("%04d", i + 1));
+            }
+            resultRows.add(row);
+        }
+        anonId = "01HW8Z3K5Q7R9T1V3X5Z7B9D1F";
+    }
+
+    @Benchmark
+    public List<RankingDto> mapToRankingDto() {
+        return RankingServiceImpl.mapToRankingDto(resultRows, anonIdTypeHandler);
+    }
+
+    @Benchmark
+    public String maskAnon() {
+        return RankingServiceImpl.maskAnon(anonId);
+    }
+}
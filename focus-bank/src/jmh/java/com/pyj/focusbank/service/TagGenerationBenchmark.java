@@ -0,0 +1,50 @@
+package com.pyj.focusbank.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 닉네임 태그 생성 비용.
+ * 무작위 태그(Math.random + String.format("%04d"), 할당기 적재 실패 시 대체용), 직접 0 패딩,
+ * 그리고 절반쯤 찬 닉네임에서 비트맵 할당기의 선점/반납을 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TagGenerationBenchmark {
+
+    private NicknameTagAllocator.TagSet halfFull;
+
+    @Setup
+    public void setUp() {
+        halfFull = new NicknameTagAllocator.TagSet();
+        for (int tag = 1; tag <= 5000; tag++) {
+            halfFull.mark(tag);
+        }
+    }
+
+    @Benchmark
+    public String randomFormat() {
+        return ProfileServiceImpl.generateTag();
+    }
+
+    @Benchmark
+    public String manualPadding() {
+        int num = ThreadLocalRandom.current().nextInt(1, 10000);
+        char[] buf = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            buf[i] = (char) ('0' + num % 10);
+            num /= 10;
+        }
+        return new String(buf);
+    }
+
+    @Benchmark
+    public String bitmapAllocator() {
+        int tag = halfFull.markLowestFree();
+        halfFull.clear(tag);
+        return NicknameTagAllocator.format(tag);
+    }
+}
@@ -0,0 +1,58 @@
+package com.pyj.focusbank.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+
+/**
+ * anon_id BINARY 저장 모드의 요청 경계 검사 ({@code focusbank.anon-id.storage=binary}).
+ *
+ * <p>BINARY 모드에서는 anonId 가 26자 Crockford Base32(대문자)여야 DB 값으로 바꿀 수 있다.
+ * 형식이 틀린 값이 매퍼까지 가면 TypeHandler 의 IllegalArgumentException 을 MyBatis 가 감싸 500 이 되므로,
+ * 헤더 {@code X-ANON-ID} / 파라미터 {@code anonId} 를 컨트롤러 진입 전에 검사해 400 으로 응답한다.
+ * (컨트롤러마다 예외 처리기가 달라 예외 대신 응답을 직접 쓴다. CHAR 모드는 기존처럼 검사하지 않는다)</p>
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AnonIdValidationConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final AnonIdTypeHandler anonIdTypeHandler;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (anonIdTypeHandler.storage() != AnonIdTypeHandler.Storage.BINARY) return;
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws IOException {
+                return valid(request.getHeader("X-ANON-ID"), response)
+                        && valid(request.getParameter("anonId"), response);
+            }
+        }).addPathPatterns("/api/**");
+    }
+
+    /** 값이 없으면 통과 (필수 여부는 컨트롤러가 판단), 형식이 틀리면 400 응답 후 false */
+    private boolean valid(String anonId, HttpServletResponse response) throws IOException {
+        if (anonId == null || anonId.isBlank() || AnonIdTypeHandler.isValid(anonId.trim())) return true;
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                "anonId 는 " + AnonIdTypeHandler.LENGTH + "자 Crockford Base32(대문자 ULID) 형식이어야 합니다.");
+        pd.setTitle("Bad Request");
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), pd);
+        return false;
+    }
+}
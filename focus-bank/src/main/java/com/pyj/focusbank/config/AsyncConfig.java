@@ -0,0 +1,49 @@
+package com.pyj.focusbank.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 요청 내부 병렬 처리용 실행기.
+ *
+ * <p>dashboardExecutor: /api/dashboard 가 여러 서비스를 동시에 호출할 때 사용.
+ * <ul>
+ *   <li>기본(플랫폼 스레드): 고정 크기 풀. 각 작업이 DB 커넥션을 잡으므로 Hikari 풀(10)을 넘지 않게 둔다.</li>
+ *   <li>가상 스레드({@code spring.threads.virtual.enabled=true}, Java 21+): 작업마다 가상 스레드,
+ *       동시 실행 수는 concurrency-limit 로 제한 (커넥션 대기는 DataSource bulkhead 가 담당)</li>
+ * </ul>
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(name = "dashboardExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor dashboardExecutor(
+            @Value("${focusbank.dashboard.pool-size:8}") int poolSize,
+            @Value("${focusbank.dashboard.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        return executor;
+    }
+
+    @Bean(name = "dashboardExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualDashboardExecutor(
+            @Value("${focusbank.dashboard.concurrency-limit:1000}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+}
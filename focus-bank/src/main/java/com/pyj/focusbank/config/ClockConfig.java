@@ -0,0 +1,21 @@
+package com.pyj.focusbank.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * 서비스가 "오늘"을 계산할 때 쓰는 시계 (KST).
+ *
+ * <p>테스트는 {@link Clock#fixed}로 바꿔 끼워 월말/주 경계 날짜를 재현한다.</p>
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.system(ZoneId.of("Asia/Seoul"));
+    }
+}
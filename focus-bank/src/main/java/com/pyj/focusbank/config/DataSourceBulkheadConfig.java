@@ -0,0 +1,40 @@
+package com.pyj.focusbank.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource bulkhead 적용 ({@code focusbank.datasource.bulkhead.enabled=true}, vt 프로필 기본).
+ *
+ * <p>허가 수 기본값은 Hikari 최대 풀 크기와 같다.</p>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "focusbank.datasource.bulkhead", name = "enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment env) {
+        int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int permits = env.getProperty("focusbank.datasource.bulkhead.permits", Integer.class, poolSize);
+        long timeoutMs = env.getProperty("focusbank.datasource.bulkhead.acquire-timeout-ms", Long.class, 30_000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof BulkheadDataSource)) {
+                    log.info("DataSource '{}' wrapped with bulkhead (permits={}, acquireTimeout={}ms)",
+                            beanName, permits, timeoutMs);
+                    return new BulkheadDataSource(ds, permits, timeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.pyj.focusbank.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 매핑 구문별 DB 메트릭 ({@code focusbank.db-metrics.enabled}, 기본 true).
+ *
+ * <p>Interceptor 빈은 mybatis-spring-boot 자동 설정이 SqlSessionFactory 에 등록한다.
+ * 조회: {@code /actuator/metrics/focusbank.db.statement?tag=statement:SessionMapper.insertSession}</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "focusbank.db-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MyBatisMetricsConfig {
+
+    @Bean
+    public StatementMetricsInterceptor statementMetricsInterceptor(
+            MeterRegistry registry,
+            @Value("${focusbank.db-metrics.slow-statement-ms:200}") long slowStatementMs) {
+        return new StatementMetricsInterceptor(registry, slowStatementMs);
+    }
+}
@@ -0,0 +1,32 @@
+package com.pyj.focusbank.config;
+
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.mybatis.spring.boot.autoconfigure.ConfigurationCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * anon_id 저장 형식 ({@code focusbank.anon-id.storage}: char | binary, 기본 char).
+ *
+ * <p>저장 형식을 가진 {@link AnonIdTypeHandler} 빈을 만들고, 매퍼 XML 파싱 전에 그 인스턴스와 별칭 {@code AnonId}를
+ * 등록한다. map 결과의 anon_id 를 읽는 서비스도 이 빈을 주입받는다. binary 는 {@code sql/migration/V4__binary_anon_id.sql} 적용 후에만 켠다.</p>
+ */
+@Slf4j
+@Configuration
+public class MyBatisTypeConfig {
+
+    @Bean
+    public AnonIdTypeHandler anonIdTypeHandler(@Value("${focusbank.anon-id.storage:char}") String storage) {
+        return new AnonIdTypeHandler(AnonIdTypeHandler.Storage.from(storage));
+    }
+
+    @Bean
+    public ConfigurationCustomizer anonIdTypeCustomizer(AnonIdTypeHandler anonIdTypeHandler) {
+        return configuration -> {
+            anonIdTypeHandler.registerTo(configuration);
+            log.info("anon_id storage: {}", anonIdTypeHandler.storage());
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.pyj.focusbank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Scheduled} 작업 활성화 (랭킹 주간 롤오버 등).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
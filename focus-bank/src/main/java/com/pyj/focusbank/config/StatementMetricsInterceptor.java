@@ -0,0 +1,183 @@
+package com.pyj.focusbank.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 매핑 구문(statement id)별 실행 시간/행 수 측정 MyBatis 플러그인.
+ *
+ * <p>{@link Executor}의 query / queryCursor / update 를 가로채 기록한다.
+ * <ul>
+ *   <li>{@code focusbank.db.statement{statement, type, outcome}} — 실행 시간 (퍼센타일 히스토그램 + p50/p95/p99)</li>
+ *   <li>{@code focusbank.db.statement.rows{statement, type}} — 조회 행 수 / 변경 행 수
+ *       (커서 조회와 BATCH 실행기의 update 는 실행 시점에 행 수를 알 수 없어 제외)</li>
+ * </ul>
+ * statement 태그는 {@code 매퍼명.메서드명} (예: {@code SessionMapper.insertSession}).
+ *
+ * <p>느린 구문 로그: 임계값 이상이면 바인딩 파라미터와 함께 WARN 으로 남긴다.
+ * 사용자 식별자(anonId 파라미터, ULID 형태 값)는 마스킹한다.</p>
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    static final String TIMER = "focusbank.db.statement";
+    static final String ROWS = "focusbank.db.statement.rows";
+
+    /** ULID(Crockford Base32 26자) 형태 값 */
+    private static final Pattern ULID = Pattern.compile("^[0-9A-HJKMNP-TV-Z]{26}$");
+
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+
+    /** (statement|type|outcome) → Timer, (statement|type) → 행 수 요약 (매 호출 빌더 생성 방지) */
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry        Micrometer 레지스트리
+     * @param slowThresholdMs 느린 구문 로그 임계값(ms), 0 이하면 로그 안 함
+     */
+    public StatementMetricsInterceptor(MeterRegistry registry, long slowThresholdMs) {
+        this.registry = registry;
+        this.slowThresholdNanos = slowThresholdMs > 0 ? slowThresholdMs * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Object parameter = args[1];
+        String method = invocation.getMethod().getName();
+
+        String statement = shortId(ms.getId());
+        String type = ms.getSqlCommandType().name().toLowerCase(Locale.ROOT);
+        String outcome = "error";
+        Object result = null;
+
+        long t0 = System.nanoTime();
+        try {
+            result = invocation.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - t0;
+            timer(statement, type, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+
+            long count = "queryCursor".equals(method) ? -1 : rowCount(result);
+            if (count >= 0) {
+                rows(statement, type).record(count);
+            }
+            if (elapsed >= slowThresholdNanos) {
+                log.warn("Slow statement {} ({}) took {} ms, rows={}, params={}",
+                        statement, outcome, elapsed / 1_000_000, count >= 0 ? count : "n/a",
+                        boundParameters(ms, parameter, args));
+            }
+        }
+    }
+
+    private Timer timer(String statement, String type, String outcome) {
+        return timers.computeIfAbsent(statement + '|' + type + '|' + outcome, k -> Timer.builder(TIMER)
+                .description("MyBatis mapped statement execution time")
+                .tag("statement", statement)
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+
+    private DistributionSummary rows(String statement, String type) {
+        return rows.computeIfAbsent(statement + '|' + type, k -> DistributionSummary.builder(ROWS)
+                .description("Rows returned (select) or affected (insert/update/delete)")
+                .tag("statement", statement)
+                .tag("type", type)
+                .register(registry));
+    }
+
+    /** 조회 결과 건수 / 변경 행 수, 알 수 없으면 -1 */
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> c) return c.size();
+        // BATCH 실행기는 flush 전까지 실제 행 수 대신 상수를 돌려준다
+        if (result instanceof Integer n && n != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) return Math.max(n, 0);
+        return -1;
+    }
+
+    /** com.pyj.focusbank.dao.SessionMapper.insertSession → SessionMapper.insertSession */
+    static String shortId(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return type >= 0 ? id.substring(type + 1) : id;
+    }
+
+    /** 느린 구문 로그용 바인딩 파라미터 (DefaultParameterHandler 와 같은 방식으로 값 조회) */
+    private static List<String> boundParameters(MappedStatement ms, Object parameter, Object[] args) {
+        try {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+            Configuration configuration = ms.getConfiguration();
+            List<String> values = new ArrayList<>();
+            for (ParameterMapping pm : boundSql.getParameterMappings()) {
+                if (pm.getMode() == ParameterMode.OUT) continue;
+                String property = pm.getProperty();
+                Object value;
+                if (boundSql.hasAdditionalParameter(property)) {
+                    value = boundSql.getAdditionalParameter(property);
+                } else if (parameter == null) {
+                    value = null;
+                } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                    value = parameter;
+                } else {
+                    value = configuration.newMetaObject(parameter).getValue(property);
+                }
+                values.add(property + "=" + redact(property, value));
+            }
+            return values;
+        } catch (RuntimeException e) {
+            return List.of("<unavailable: " + e.getClass().getSimpleName() + ">");
+        }
+    }
+
+    /** anonId 파라미터 또는 ULID 형태 값은 마스킹 */
+    static Object redact(String property, Object value) {
+        if (value == null) return null;
+        String lower = property.toLowerCase(Locale.ROOT);
+        if (lower.contains("anonid") || lower.contains("anon_id")
+                || (value instanceof String s && ULID.matcher(s).matches())) {
+            return "<redacted>";
+        }
+        return value;
+    }
+}
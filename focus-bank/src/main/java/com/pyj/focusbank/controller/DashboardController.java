@@ -0,0 +1,37 @@
+package com.pyj.focusbank.controller;
+
+import com.pyj.focusbank.dto.DashboardDto;
+import com.pyj.focusbank.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 첫 화면 묶음 조회 API
+ * - GET /api/dashboard : 프로필/진행 중 세션/오늘 세션/오늘·주·월 누적/목표 진행률/랭킹을 한 번에
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * 대시보드 조회
+     * 헤더: X-ANON-ID
+     *
+     * @param goalPeriod 목표 진행률 기간 (미지정 시 daily)
+     * @param limit      랭킹 TOP N (미지정 시 10, 1~100)
+     * @return 200 OK + DashboardDto (일부 항목 실패 시 해당 항목 null + errors 에 사유)
+     */
+    @GetMapping
+    public ResponseEntity<DashboardDto> dashboard(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestParam(value = "goalPeriod", defaultValue = "daily") String goalPeriod,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        int safeLimit = Math.min(Math.max(limit, 1), 100);
+        return ResponseEntity.ok(dashboardService.getDashboard(anonId, goalPeriod, safeLimit));
+    }
+}
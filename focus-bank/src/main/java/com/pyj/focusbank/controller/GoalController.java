@@ -1,18 +1,32 @@
 package com.pyj.focusbank.controller;
 
 import com.pyj.focusbank.dto.GoalProgressDto;
+import com.pyj.focusbank.dto.GoalResultDto;
 import com.pyj.focusbank.dto.GoalSaveRequest;
+import com.pyj.focusbank.dto.GoalStreakDto;
 import com.pyj.focusbank.dto.UserGoalDto;
+import com.pyj.focusbank.service.DataVersions;
 import com.pyj.focusbank.service.GoalService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 목표 관리 API
  * - POST   /api/goals           : 목표 설정(업서트)
  * - GET    /api/goals/current   : 오늘 기준 활성 목표 조회
  * - GET    /api/goals/progress  : 목표 진행률 조회
+ * - GET    /api/goals/progress/all : 일/주/월 목표 진행률 한 번에 조회
+ * - GET    /api/goals/history   : 마감된 기간의 달성 이력
+ * - GET    /api/goals/streak    : 연속 달성 횟수
+ * current/progress 는 ETag 를 내려주고, If-None-Match 가 같으면 조회 없이 304 로 응답한다.
+ * (history/streak 은 자정 이후 평가 시점에 바뀌므로 ETag 를 쓰지 않음)
  */
 @RestController
 @RequestMapping("/api/goals")
@@ -20,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 public class GoalController {
 
     private final GoalService goalService;
+    private final DataVersions dataVersions;
 
     /**
      * 목표 설정(업서트)
@@ -39,8 +54,10 @@ public class GoalController {
     @GetMapping("/current")
     public ResponseEntity<UserGoalDto> getCurrentGoal(
             @RequestHeader("X-ANON-ID") String anonId,
-            @RequestParam("period") String periodType) {
+            @RequestParam("period") String periodType,
+            WebRequest request) {
 
+        if (request.checkNotModified(dataVersions.userEtag(anonId.trim()))) return null;
         return ResponseEntity.ok(goalService.getActiveGoal(anonId, periodType));
     }
 
@@ -48,8 +65,44 @@ public class GoalController {
     @GetMapping("/progress")
     public ResponseEntity<GoalProgressDto> getProgress(
             @RequestHeader("X-ANON-ID") String anonId,
-            @RequestParam("period") String periodType) {
+            @RequestParam("period") String periodType,
+            WebRequest request) {
 
+        if (request.checkNotModified(dataVersions.userEtag(anonId.trim()))) return null;
         return ResponseEntity.ok(goalService.getProgress(anonId, periodType));
     }
+
+    /** 일/주/월 목표 진행률 한 번에 조회 ({"daily": {...}, "weekly": {...}, "monthly": {...}}) */
+    @GetMapping("/progress/all")
+    public ResponseEntity<Map<String, GoalProgressDto>> getAllProgress(
+            @RequestHeader("X-ANON-ID") String anonId,
+            WebRequest request) {
+
+        if (request.checkNotModified(dataVersions.userEtag(anonId.trim()))) return null;
+        return ResponseEntity.ok(goalService.getAllProgress(anonId));
+    }
+
+    /**
+     * 목표 달성 이력 (마감된 기간, 최신부터)
+     * - before: 이 날짜 이전에 시작한 기간만 (직전 응답의 마지막 periodStart 를 넘기면 다음 페이지)
+     * - limit: 기본 30, 최대 100
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<GoalResultDto>> getHistory(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestParam("period") String periodType,
+            @RequestParam(value = "before", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(value = "limit", defaultValue = "30") int limit) {
+
+        return ResponseEntity.ok(goalService.getHistory(anonId, periodType, before, limit));
+    }
+
+    /** 연속 달성 횟수 (현재/최장) */
+    @GetMapping("/streak")
+    public ResponseEntity<GoalStreakDto> getStreak(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestParam("period") String periodType) {
+
+        return ResponseEntity.ok(goalService.getStreak(anonId, periodType));
+    }
 }
\ No newline at end of file
@@ -74,14 +74,17 @@ public class ProfileController {
      *
      * <p>프론트엔드에서 실시간 중복/유효성 체크할 때 사용합니다.</p>
      *
-     * @param nickname 검사할 닉네임 (쿼리 파라미터)
+     * @param nickname    검사할 닉네임 (쿼리 파라미터)
+     * @param suggestions 중복일 때 함께 받을 대안 닉네임 수 (0~10, 기본 0)
      * @return JSON 형태의 응답 맵
      *   - available: true/false
      *   - reason: "invalid-format" | "duplicate" (실패 시에만 포함)
+     *   - suggestions: 사용 가능한 대안 닉네임 목록 (duplicate 이고 suggestions > 0 일 때만 포함)
      */
     @GetMapping("/check")
     public Map<String, Object> checkNickname(
-            @RequestParam("nickname") String nickname
+            @RequestParam("nickname") String nickname,
+            @RequestParam(value = "suggestions", defaultValue = "0") int suggestions
     ) {
         // 1) 입력 정규화: null 방지 + 앞뒤 공백 제거
         String normalized = nickname == null ? "" : nickname.trim();
@@ -97,7 +100,14 @@ public class ProfileController {
 
         // 3) 중복 검사: 이미 다른 사용자가 동일 닉네임을 쓰고 있는지 확인
         if (!profileService.isNicknameAvailable(normalized)) {
-            // 중복된 경우 → 사용 불가 + 사유코드 "duplicate"
+            // 중복된 경우 → 사용 불가 + 사유코드 "duplicate" (+ 요청 시 대안 닉네임)
+            if (suggestions > 0) {
+                return Map.of(
+                        "available", false,
+                        "reason", "duplicate",
+                        "suggestions", profileService.suggestNicknames(normalized, Math.min(suggestions, 10))
+                );
+            }
             return Map.of(
                     "available", false,
                     "reason", "duplicate"
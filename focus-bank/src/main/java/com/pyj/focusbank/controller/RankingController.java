@@ -1,12 +1,16 @@
 package com.pyj.focusbank.controller;
 
-import com.pyj.focusbank.dto.RankingDto;
+import com.pyj.focusbank.dto.MyRankingDto;
+import com.pyj.focusbank.dto.RankingPeriod;
+import com.pyj.focusbank.service.DataVersions;
 import com.pyj.focusbank.service.RankingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/rankings")
@@ -14,29 +18,65 @@ import java.util.List;
 public class RankingController {
 
     private final RankingService rankingService;
+    private final DataVersions dataVersions;
 
     /**
      * 이번 주(월~오늘) 랭킹 TOP N을 반환한다.
      *
      * @param limit 상위 N명 (미지정 시 10)
-     * @return 정렬된 랭킹 리스트(JSON)
+     * @return 정렬된 랭킹 리스트(JSON, 캐시된 직렬화 결과), 변경 없으면 304
      */
     @GetMapping("/weekly")
-    public ResponseEntity<List<RankingDto>> weekly(@RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<byte[]> weekly(@RequestParam(defaultValue = "10") int limit, WebRequest request) {
+        if (request.checkNotModified(dataVersions.rankingEtag())) return null;
         // 간단한 방어: 1~100 사이만 허용 (필요 시 조정)
         int safeLimit = Math.min(Math.max(limit, 1), 100);
-        return ResponseEntity.ok(rankingService.getWeeklyRanking(safeLimit));
+        return json(rankingService.getRankingJson(RankingPeriod.WEEKLY, safeLimit));
     }
 
     /**
      * 전체 누적 랭킹 TOP N을 반환한다.
      *
      * @param limit 상위 N명 (미지정 시 10)
-     * @return 정렬된 랭킹 리스트(JSON)
+     * @return 정렬된 랭킹 리스트(JSON, 캐시된 직렬화 결과), 변경 없으면 304
      */
     @GetMapping("/overall")
-    public ResponseEntity<List<RankingDto>> overall(@RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<byte[]> overall(@RequestParam(defaultValue = "10") int limit, WebRequest request) {
+        if (request.checkNotModified(dataVersions.rankingEtag())) return null;
         int safeLimit = Math.min(Math.max(limit, 1), 100);
-        return ResponseEntity.ok(rankingService.getOverallRanking(safeLimit));
+        return json(rankingService.getRankingJson(RankingPeriod.OVERALL, safeLimit));
+    }
+
+    /**
+     * 내 순위 + 위/아래 이웃 k명을 반환한다. (TOP 100 밖이어도 정확한 순위)
+     * GET /api/rankings/{weekly|overall}/me?k=5
+     * 헤더: X-ANON-ID
+     *
+     * @param period weekly | overall
+     * @param k      위/아래 이웃 수 (미지정 시 5, 0~50)
+     * @return 200 OK + MyRankingDto (기록이 없으면 me=null)
+     *         400 (알 수 없는 period), 503 (랭킹 엔진 준비 전)
+     */
+    @GetMapping("/{period}/me")
+    public ResponseEntity<MyRankingDto> myRank(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @PathVariable("period") String period,
+            @RequestParam(defaultValue = "5") int k,
+            WebRequest request) {
+
+        if (request.checkNotModified(dataVersions.rankingEtag(anonId.trim()))) return null;
+        int safeK = Math.min(Math.max(k, 0), 50);
+        try {
+            return ResponseEntity.ok(rankingService.getMyRanking(RankingPeriod.from(period), anonId, safeK));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    /** 이미 직렬화된 JSON 바이트를 그대로 응답 */
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,12 @@ package com.pyj.focusbank.controller;
 
 import com.pyj.focusbank.dto.DailySummaryDto;
 import com.pyj.focusbank.dto.FocusAggDto;
+import com.pyj.focusbank.service.DataVersions;
 import com.pyj.focusbank.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,15 +17,19 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final DataVersions dataVersions;
 
     /**
      * 일별 집중 시간 요약 조회
      * GET /api/reports/summary?date=YYYY-MM-DD
      * 헤더: X-ANON-ID
+     * 조건부 GET: If-None-Match 가 현재 ETag 와 같으면 조회 없이 304
      */
     @GetMapping("/summary")
     public ResponseEntity<DailySummaryDto> getSummary( @RequestHeader("X-ANON-ID") String anonId,
-                                                       @RequestParam("date") String date) {
+                                                       @RequestParam("date") String date,
+                                                       WebRequest request) {
+        if (request.checkNotModified(dataVersions.userEtag(anonId.trim()))) return null;
         DailySummaryDto dto = reportService.getDailySummary(anonId, date);
         return ResponseEntity.ok(dto);
     }
@@ -42,7 +48,10 @@ public class ReportController {
     @GetMapping("/weekly")
     public ResponseEntity<List<FocusAggDto>> getWeekly(
             @RequestHeader("X-ANON-ID") String anonId,
-            @RequestParam(value = "weeks", defaultValue = "12") int weeks) {
+            @RequestParam(value = "weeks", defaultValue = "12") int weeks,
+            WebRequest request) {
+
+        if (request.checkNotModified(dataVersions.userEtag(anonId.trim()))) return null;
 
         List<FocusAggDto> report = reportService.getWeeklyReport(anonId, weeks);
         return ResponseEntity.ok(report);
@@ -62,7 +71,10 @@ public class ReportController {
     @GetMapping("/monthly")
     public ResponseEntity<List<FocusAggDto>> getMonthly(
             @RequestHeader("X-ANON-ID") String anonId,
-            @RequestParam(value = "months", defaultValue = "12") int months) {
+            @RequestParam(value = "months", defaultValue = "12") int months,
+            WebRequest request) {
+
+        if (request.checkNotModified(dataVersions.userEtag(anonId.trim()))) return null;
 
         List<FocusAggDto> report = reportService.getMonthlyReport(anonId, months);
         return ResponseEntity.ok(report);
@@ -1,6 +1,11 @@
 package com.pyj.focusbank.controller;
 
 import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.OfflineSessionDto;
+import com.pyj.focusbank.dto.SessionHistoryDto;
+import com.pyj.focusbank.service.IdempotencyGuard;
+import com.pyj.focusbank.service.SessionBatchIngestor;
+import com.pyj.focusbank.service.SessionExporter;
 import com.pyj.focusbank.service.SessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -10,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.time.LocalDate;
@@ -22,6 +28,9 @@ import java.util.Map;
 public class SessionController {
 
     private final SessionService sessionService;
+    private final SessionExporter sessionExporter;
+    private final SessionBatchIngestor sessionBatchIngestor;
+    private final IdempotencyGuard idempotencyGuard;
 
 
     /**
@@ -62,44 +71,132 @@ public class SessionController {
         return sessionService.getSessionsForDate(anonId, date);
     }
 
+    /**
+     * 세션 이력 조회 (커서 페이지)
+     * - 시작 시각 기준 [from, to) 구간, (startedAt, sessionId) 오름차순
+     * - 응답의 nextCursor 를 cursor 로 넘기면 다음 페이지 (null 이면 마지막)
+     * @param anonId 익명 사용자 ID (헤더)
+     * @param from   시작 날짜 (포함, 생략 시 to 30일 전)
+     * @param to     끝 날짜 (제외, 생략 시 내일 → 오늘까지)
+     * @param cursor 직전 응답의 nextCursor
+     * @param limit  페이지 크기 (기본 20, 최대 100)
+     * @return 세션 목록 + 다음 페이지 커서
+     */
+    @GetMapping("/history")
+    public SessionHistoryDto history(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        return sessionService.getHistory(anonId, from, to, cursor, limit);
+    }
+
+    /**
+     * 전체 세션 이력 내보내기 (파일 다운로드)
+     * - DB 커서로 한 행씩 읽어 바로 응답에 쓰므로 이력 길이와 관계없이 메모리 일정
+     * @param anonId 익명 사용자 ID (헤더)
+     * @param format ndjson(기본) | csv
+     * @return 스트리밍 응답 (Content-Disposition: attachment)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format
+    ) {
+        // 1. 응답을 시작하기 전에 검증 (스트리밍 중에는 상태 코드를 바꿀 수 없음)
+        if (anonId == null || anonId.trim().isEmpty()) {
+            throw new IllegalArgumentException("anonId 값이 비어있습니다.");
+        }
+        SessionExporter.Format f = SessionExporter.Format.from(format);
+        String id = anonId.trim();
+
+        // 2. 본문은 컨트롤러 반환 후 비동기 스레드에서 기록
+        StreamingResponseBody body = out -> sessionExporter.export(id, f, out);
+        return ResponseEntity.ok()
+                .contentType(f.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"focus-sessions." + f.extension() + "\"")
+                .body(body);
+    }
+
     /**
      * 집중 시작(입금)
      * 헤더: X-ANON-ID: <ULID or anon-****>
+     * 헤더(선택): Idempotency-Key — 같은 키로 재시도하면 새 세션을 만들지 않고 최초 응답을 그대로 반환
      */
     @PostMapping("/deposit")
-    public ResponseEntity<FocusSessionDto> deposit(@RequestHeader("X-ANON-ID") String anonId) {
+    public ResponseEntity<FocusSessionDto> deposit(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
         // 1. 방어 로직: anonId가 null이거나 공백이면 400 Bad Request 응답
         if (anonId == null || anonId.trim().isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        // 2. 서비스 호출 → 새로운 세션 시작
-        FocusSessionDto session = sessionService.startFocus(anonId);
+        // 2. 서비스 호출 → 새로운 세션 시작 (같은 키의 재시도는 저장된 응답)
+        IdempotencyGuard.Result result = idempotencyGuard.execute(idempotencyKey, "deposit", anonId.trim(),
+                () -> IdempotencyGuard.Result.of(HttpStatus.CREATED.value(), sessionService.startFocus(anonId)));
 
         // 3. 201 Created 상태 코드 + Location 헤더 설정
-        HttpHeaders headers = new HttpHeaders();
-        headers.setLocation(URI.create("/api/sessions/" + session.getSessionId()));
+        HttpHeaders headers = replayHeaders(result);
+        headers.setLocation(URI.create("/api/sessions/" + result.body().getSessionId()));
 
         // 4. 생성된 세션 정보를 응답 본문으로 반환
-        return new ResponseEntity<>(session, headers, HttpStatus.CREATED);
+        return new ResponseEntity<>(result.body(), headers, HttpStatus.CREATED);
+    }
+
+    /**
+     * 오프라인 기록 일괄 등록
+     * 헤더: X-ANON-ID
+     * 바디: [ { "startedAt": "2025-09-10T09:00:00", "endedAt": "2025-09-10T09:50:00" }, ... ]
+     * - 400: 형식/범위 오류, 요청 안에서 시간 겹침
+     * - 409: 이미 기록된 세션과 시간 겹침 (같은 배치 재전송 포함)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<FocusSessionDto>> batch(
+            @RequestHeader("X-ANON-ID") String anonId,
+            @RequestBody List<OfflineSessionDto> sessions
+    ) {
+        // 등록된 세션(시작 시각 오름차순) 반환, 201 Created
+        return ResponseEntity.status(HttpStatus.CREATED).body(sessionBatchIngestor.ingest(anonId, sessions));
     }
 
     /**
      * 집중 종료(정산)
      * 쿼리파라미터: sessionId
+     * 헤더(선택): Idempotency-Key — 같은 키로 재시도하면 409 대신 최초 정산 응답(200)을 그대로 반환
      */
     @PostMapping("/settle")
-    public ResponseEntity<FocusSessionDto> settle(@RequestParam("sessionId") Long sessionId) {
+    public ResponseEntity<FocusSessionDto> settle(
+            @RequestParam("sessionId") Long sessionId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
         // 1. 서비스 호출 → 세션 종료 시도
-        FocusSessionDto session = sessionService.endFocus(sessionId);
-
-        // 2. 종료 결과가 null이면 이미 종료됐거나 없는 세션 → 409 Conflict
-        if (session == null) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        //    종료 결과가 null이면 이미 종료됐거나 없는 세션 → 409 Conflict (기억하지 않음)
+        IdempotencyGuard.Result result = idempotencyGuard.execute(idempotencyKey, "settle", String.valueOf(sessionId), () -> {
+            FocusSessionDto session = sessionService.endFocus(sessionId);
+            return session == null
+                    ? IdempotencyGuard.Result.of(HttpStatus.CONFLICT.value(), null)
+                    : IdempotencyGuard.Result.of(HttpStatus.OK.value(), session);
+        });
+
+        if (result.body() == null) {
+            return ResponseEntity.status(result.status()).build();
         }
 
-        // 3. 정상적으로 종료된 세션 정보 반환 (200 OK)
-        return ResponseEntity.ok(session);
+        // 2. 정상적으로 종료된 세션 정보 반환 (200 OK)
+        return new ResponseEntity<>(result.body(), replayHeaders(result), HttpStatus.OK);
+    }
+
+    /** 저장된 응답을 돌려준 경우 Idempotent-Replayed: true */
+    private HttpHeaders replayHeaders(IdempotencyGuard.Result result) {
+        HttpHeaders headers = new HttpHeaders();
+        if (result.replayed()) {
+            headers.set("Idempotent-Replayed", "true");
+        }
+        return headers;
     }
 
 
@@ -0,0 +1,43 @@
+package com.pyj.focusbank.controller;
+
+import com.pyj.focusbank.service.SseHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 실시간 스트림 API (Server-Sent Events)
+ * - GET /api/stream : leaderboard / today / goal 이벤트 구독
+ */
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class StreamController {
+
+    private final SseHub sseHub;
+
+    /**
+     * 이벤트 스트림 구독.
+     * 브라우저 EventSource 는 헤더를 붙일 수 없으므로 쿼리 파라미터 anonId 도 허용한다.
+     *
+     * @return text/event-stream (400: anonId 없음, 503: 구독자 수 상한 초과)
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "X-ANON-ID", required = false) String headerAnonId,
+            @RequestParam(value = "anonId", required = false) String paramAnonId) {
+
+        String anonId = (headerAnonId != null && !headerAnonId.isBlank()) ? headerAnonId : paramAnonId;
+        if (anonId == null || anonId.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "X-ANON-ID header or anonId parameter required");
+        }
+        try {
+            return sseHub.subscribe(anonId.trim());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
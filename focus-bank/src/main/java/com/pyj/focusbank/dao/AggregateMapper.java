@@ -0,0 +1,103 @@
+package com.pyj.focusbank.dao;
+
+import com.pyj.focusbank.dto.AggregateKeyDto;
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.dto.PeriodAggregateDeltaDto;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Mapper
+public interface AggregateMapper {
+
+    /**
+     * daily_aggregate 다건 업서트 (multi-row INSERT ... ON DUPLICATE KEY UPDATE).
+     * 같은 키의 증분은 호출 전에 병합되어 있어야 한다.
+     *
+     * @param deltas (target_date, anon_id, +seconds) 목록 (1건 이상)
+     * @return 영향받은 행 수
+     */
+    int upsertDailyAggregates(@Param("deltas") List<DailyAggregateDeltaDto> deltas);
+
+    /**
+     * user_total(사용자별 누적) 다건 업서트.
+     * anon_id별로 병합된 증분을 더한다 (targetDate는 사용하지 않음).
+     *
+     * @param deltas (anon_id, +seconds) 목록 (1건 이상)
+     * @return 영향받은 행 수
+     */
+    int upsertUserTotals(@Param("deltas") List<DailyAggregateDeltaDto> deltas);
+
+    /**
+     * user_total 백필: daily_aggregate 전체 합계로 다시 계산해 덮어쓴다.
+     *
+     * @return 영향받은 행 수
+     */
+    int backfillUserTotals();
+
+    /**
+     * 주어진 (target_date, anon_id) 키의 현재 daily_aggregate 합계 (잠금 없는 읽기).
+     * 같은 트랜잭션에서 업서트한 직후 호출하면 이번 증분까지 반영된 값이 보인다.
+     *
+     * @param keys 조회할 키 (seconds 는 사용하지 않음, 1건 이상)
+     * @return 존재하는 키의 (targetDate, anonId, seconds = 현재 total_seconds)
+     */
+    List<DailyAggregateDeltaDto> selectDailyTotals(@Param("keys") List<DailyAggregateDeltaDto> keys);
+
+    /**
+     * weekly_aggregate 다건 업서트: (주 월요일, 사용자)별 증분의 초/기록일 수를 더한다.
+     *
+     * @param deltas PK(anon_id, week_start) 순서로 정렬된 증분 (1건 이상)
+     * @return 영향받은 행 수
+     */
+    int upsertWeeklyAggregates(@Param("deltas") List<PeriodAggregateDeltaDto> deltas);
+
+    /**
+     * monthly_aggregate 다건 업서트: (월 1일, 사용자)별 증분의 초/기록일 수를 더한다.
+     *
+     * @param deltas PK(anon_id, month_start) 순서로 정렬된 증분 (1건 이상)
+     * @return 영향받은 행 수
+     */
+    int upsertMonthlyAggregates(@Param("deltas") List<PeriodAggregateDeltaDto> deltas);
+
+    /**
+     * weekly_aggregate 재계산: 주어진 (사용자, 주) 키의 daily_aggregate 행(최대 7개)으로 덮어쓴다.
+     * 원본 행에 공유 락을 잡으므로 정합성 복구에만 사용한다.
+     *
+     * @param keys (anonId, 주 월요일) 목록 (1건 이상)
+     * @return 영향받은 행 수
+     */
+    int refreshWeeklyAggregates(@Param("keys") List<AggregateKeyDto> keys);
+
+    /**
+     * monthly_aggregate 재계산: 주어진 (사용자, 월) 키의 daily_aggregate 행(최대 31개)으로 덮어쓴다.
+     * 원본 행에 공유 락을 잡으므로 정합성 복구에만 사용한다.
+     *
+     * @param keys (anonId, 월 1일) 목록 (1건 이상)
+     * @return 영향받은 행 수
+     */
+    int refreshMonthlyAggregates(@Param("keys") List<AggregateKeyDto> keys);
+
+    /** weekly_aggregate 전체 백필 (daily_aggregate 기준) */
+    int backfillWeeklyAggregates();
+
+    /** monthly_aggregate 전체 백필 (daily_aggregate 기준) */
+    int backfillMonthlyAggregates();
+
+    /**
+     * 정합성 검사: fromDate(주 월요일) 이후 daily_aggregate 로 계산한 주간 값과 weekly_aggregate 가 다른 행.
+     *
+     * @return anon_id, period_start, expected_seconds, expected_days, actual_seconds, actual_days
+     */
+    List<Map<String, Object>> selectWeeklyMismatches(@Param("fromDate") LocalDate fromDate);
+
+    /**
+     * 정합성 검사: fromDate(월 1일) 이후 daily_aggregate 로 계산한 월간 값과 monthly_aggregate 가 다른 행.
+     *
+     * @return anon_id, period_start, expected_seconds, expected_days, actual_seconds, actual_days
+     */
+    List<Map<String, Object>> selectMonthlyMismatches(@Param("fromDate") LocalDate fromDate);
+}
@@ -1,10 +1,12 @@
 package com.pyj.focusbank.dao;
 
+import com.pyj.focusbank.dto.DailySummaryDto;
 import com.pyj.focusbank.dto.UserGoalDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Mapper
 public interface GoalMapper {
@@ -18,6 +20,20 @@ public interface GoalMapper {
                                  @Param("periodType") String periodType,
                                  @Param("today") LocalDate today);
 
+    /**
+     * 오늘 기준 기간별 활성 목표 (DAILY/WEEKLY/MONTHLY 각 최대 1건)
+     * - 기간마다 effective_from <= today 중 최신
+     */
+    List<UserGoalDto> selectActiveGoals(@Param("anonId") String anonId,
+                                        @Param("today") LocalDate today);
+
+    /**
+     * daily_aggregate에서 기간(from~to) 일별 합계 (기록 있는 날만, 날짜 오름차순)
+     */
+    List<DailySummaryDto> selectDailyTotalsBetween(@Param("anonId") String anonId,
+                                                   @Param("fromDate") LocalDate fromDate,
+                                                   @Param("toDate") LocalDate toDate);
+
     /**
      * daily_aggregate에서 기간(from~to) 합계(초)
      */
@@ -0,0 +1,49 @@
+package com.pyj.focusbank.dao;
+
+import com.pyj.focusbank.dto.GoalResultDto;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface GoalResultMapper {
+
+    /**
+     * 마감된 기간의 사용자별 (목표, 기간 합계) 커서 — 전체 사용자 1회 스캔.
+     * - 목표: 기간 마지막 날 기준 활성 목표 (effective_from &lt;= periodEnd 중 최신)
+     * - 합계: daily_aggregate [periodStart, periodEnd] (기록이 없으면 0)
+     * - anon_id 오름차순, 열린 SqlSession(트랜잭션) 안에서만 순회 가능
+     *
+     * @return anonId, targetSeconds, achievedSeconds 만 채운 행
+     */
+    Cursor<GoalResultDto> streamPeriodTotals(@Param("periodType") String periodType,
+                                             @Param("periodStart") LocalDate periodStart,
+                                             @Param("periodEnd") LocalDate periodEnd);
+
+    /**
+     * 평가 결과 다건 업서트 (같은 기간을 다시 평가하면 덮어씀 → 재실행 안전).
+     *
+     * @return 영향받은 행 수
+     */
+    int upsertResults(@Param("results") List<GoalResultDto> results);
+
+    /**
+     * 사용자 목표 이력 (최신 기간부터).
+     *
+     * @param before 이 날짜 이전에 시작한 기간만 (페이지 이어보기)
+     * @param limit  최대 건수
+     */
+    List<GoalResultDto> selectHistory(@Param("anonId") String anonId,
+                                      @Param("periodType") String periodType,
+                                      @Param("before") LocalDate before,
+                                      @Param("limit") int limit);
+
+    /**
+     * 연속 달성 계산용 (periodStart, periodEnd, achieved) 전체, 오래된 기간부터.
+     */
+    List<GoalResultDto> selectAchievements(@Param("anonId") String anonId,
+                                           @Param("periodType") String periodType);
+}
@@ -0,0 +1,50 @@
+package com.pyj.focusbank.dao;
+
+import com.pyj.focusbank.dto.IdempotencyRecordDto;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface IdempotencyMapper {
+
+    /**
+     * 보존 기간 안의 멱등 키 기록 조회.
+     *
+     * @param idemKey   Idempotency-Key
+     * @param operation deposit | settle
+     * @param since     이 시각 이후 저장된 것만
+     * @return 기록 (없으면 null)
+     */
+    IdempotencyRecordDto find(@Param("idemKey") String idemKey,
+                              @Param("operation") String operation,
+                              @Param("since") LocalDateTime since);
+
+    /**
+     * 보존 기간이 지난 같은 키 기록 삭제 (정리 작업 전에 키가 재사용된 경우, 새 기록 저장 전에 호출).
+     *
+     * @param idemKey   Idempotency-Key
+     * @param operation deposit | settle
+     * @param before    이 시각 이전에 저장된 것만
+     * @return 삭제된 행 수
+     */
+    int deleteExpired(@Param("idemKey") String idemKey,
+                      @Param("operation") String operation,
+                      @Param("before") LocalDateTime before);
+
+    /**
+     * 멱등 키 기록 저장 (본 작업과 같은 트랜잭션).
+     * 같은 키가 이미 있으면 DuplicateKeyException (다른 인스턴스가 먼저 처리).
+     *
+     * @return 삽입된 행 수
+     */
+    int insert(IdempotencyRecordDto record);
+
+    /**
+     * 보존 기간이 지난 기록 삭제 (idx_idem_created 범위, 한 번에 limit 건).
+     *
+     * @return 삭제된 행 수
+     */
+    int deleteOlderThan(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -11,16 +11,14 @@ import java.util.Map;
 public interface RankingMapper {
 
     /**
-     * 이번 주(월~오늘) 랭킹 TOP N 조회.
+     * 이번 주(월~오늘) 랭킹 TOP N 조회 (weekly_aggregate 롤업 기준).
      *
      * @param monday 이번 주 월요일
-     * @param today  오늘 날짜
      * @param limit  상위 N명
      * @return SELECT 결과 (컬럼명 → 값) Map 리스트
      */
     List<Map<String, Object>> selectWeeklyRanking(
             @Param("monday") LocalDate monday,
-            @Param("today") LocalDate today,
             @Param("limit") int limit
     );
 
@@ -31,4 +29,19 @@ public interface RankingMapper {
      * @return SELECT 결과 (컬럼명 → 값) Map 리스트
      */
     List<Map<String, Object>> selectOverallRanking(@Param("limit") int limit);
-}
\ No newline at end of file
+
+    /**
+     * 이번 주 사용자별 합계 전체 조회 (랭킹 엔진 초기 적재용, LIMIT 없음).
+     *
+     * @param monday 이번 주 월요일
+     * @return anon_id, nickname, nickname_tag, total_seconds Map 리스트
+     */
+    List<Map<String, Object>> selectWeeklyTotals(@Param("monday") LocalDate monday);
+
+    /**
+     * 전체 누적 사용자별 합계 전체 조회 (랭킹 엔진 초기 적재용, LIMIT 없음).
+     *
+     * @return anon_id, nickname, nickname_tag, total_seconds Map 리스트
+     */
+    List<Map<String, Object>> selectOverallTotals();
+}
@@ -26,13 +26,13 @@ public interface ReportMapper {
      * 주간(ISO 기준: 월요일 시작) 단위 집계 결과를 반환합니다.
      *
      * @param anonId   익명 사용자 식별자 (ULID 26자리)
-     * @param fromDate 집계 시작일(포함). daily_aggregate.target_date 기준
-     * @param toDate   집계 종료일(포함). daily_aggregate.target_date 기준
+     * @param fromDate 집계 시작 주의 월요일(포함). weekly_aggregate.week_start 기준
+     * @param toDate   집계 종료일(포함). weekly_aggregate.week_start 기준
      * @return 기간 내 각 주(period="YYYY-Www")별 합계/평균 등의 정보 목록
      *
      * <주의>
-     * - SQL에서는 YEARWEEK(target_date, 3)를 사용하여 ISO 주차로 그룹핑.
-     * - daily_aggregate에 없는 날짜는 결과에 나타나지 않으므로, 프론트에서 0 보간이 필요할 수 있음.
+     * - weekly_aggregate(정산 시 갱신되는 주간 롤업)를 읽으며, 라벨은 YEARWEEK(week_start, 3) ISO 주차.
+     * - 기록이 없는 주는 결과에 나타나지 않으므로, 프론트에서 0 보간이 필요할 수 있음.
      */
     List<FocusAggDto> selectWeeklyAgg(@Param("anonId") String anonId,
                                       @Param("fromDate") LocalDate fromDate,
@@ -43,12 +43,12 @@ public interface ReportMapper {
      * 월 단위 집계 결과를 반환합니다.
      *
      * @param anonId   익명 사용자 식별자
-     * @param fromDate 집계 시작일(포함)
+     * @param fromDate 집계 시작 월의 1일(포함). monthly_aggregate.month_start 기준
      * @param toDate   집계 종료일(포함)
      * @return 기간 내 각 월(period="YYYY-MM")별 합계/평균 등의 정보 목록
      *
      * <주의>
-     * - SQL에서는 DATE_FORMAT(target_date, '%Y-%m')으로 월 라벨을 생성/그룹핑합니다.
+     * - monthly_aggregate(정산 시 갱신되는 월간 롤업)를 읽으며, 라벨은 DATE_FORMAT(month_start, '%Y-%m').
      */
     List<FocusAggDto> selectMonthlyAgg(@Param("anonId") String anonId,
                                        @Param("fromDate") LocalDate fromDate,
@@ -3,8 +3,9 @@ package com.pyj.focusbank.dao;
 import com.pyj.focusbank.dto.FocusSessionDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -19,20 +20,40 @@ public interface SessionMapper {
     FocusSessionDto findActiveSession(@Param("anonId") String anonId);
 
     /**
-     * 특정 날짜의 세션 목록 조회
-     * @param anonId 익명 사용자 ID
-     * @param date 조회할 날짜 (yyyy-MM-dd)
-     * @return 해당 날짜의 세션 목록
+     * 모든 사용자의 진행 중인 세션 조회 (부팅 시 레지스트리 적재용).
+     * @return 열린 세션 목록 (started_at 오름차순)
+     */
+    List<FocusSessionDto> findAllActiveSessions();
+
+    /**
+     * 사용자 세션 이력 조회 (started_at 반열린 구간 + keyset 페이지).
+     * - idx_fs_user_started(anon_id, started_at [, session_id]) 범위를 순서대로 읽고 LIMIT 에서 멈춘다 (OFFSET 없음)
+     * - afterStartedAt/afterSessionId 가 있으면 그 행 다음부터
+     *
+     * @param anonId         익명 사용자 ID
+     * @param from           시작 시각 (포함)
+     * @param to             끝 시각 (제외)
+     * @param afterStartedAt 직전 페이지 마지막 행의 started_at (첫 페이지면 null)
+     * @param afterSessionId 직전 페이지 마지막 행의 session_id (첫 페이지면 null)
+     * @param limit          최대 행 수 (null 이면 제한 없음)
+     * @return (started_at, session_id) 오름차순 세션 목록
      */
-    List<FocusSessionDto> findByAnonAndDate(@Param("anonId") String anonId,
-                                            @Param("date") LocalDate date);
+    List<FocusSessionDto> findHistory(@Param("anonId") String anonId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("afterStartedAt") LocalDateTime afterStartedAt,
+                                      @Param("afterSessionId") Long afterSessionId,
+                                      @Param("limit") Integer limit);
 
     /**
-     * 열린(종료되지 않은) 세션 조회
+     * 사용자의 전체 세션을 한 행씩 읽는 커서 (내보내기용).
+     * - 드라이버가 fetchSize 단위로 나눠 받으므로 전체 목록을 메모리에 올리지 않는다
+     * - 열린 SqlSession(트랜잭션) 안에서만 순회 가능, 다 쓰면 close
+     *
      * @param anonId 익명 사용자 ID
-     * @return FocusSessionDto (없으면 null)
+     * @return (started_at, session_id) 오름차순 세션 커서
      */
-    FocusSessionDto findOpenByAnon(@Param("anonId") String anonId);
+    Cursor<FocusSessionDto> streamByAnon(@Param("anonId") String anonId);
 
     /**
      * 익명 사용자 보장 (없으면 삽입, 있으면 무시)
@@ -43,24 +64,31 @@ public interface SessionMapper {
 
     /**
      * 집중 시작 (세션 생성)
-     * @param anonId 익명 사용자 ID
+     * - 생성된 session_id는 useGeneratedKeys로 session.sessionId에 채워진다
+     * @param session anonId, startedAt, createdAt이 채워진 세션
      * @return 삽입된 행 수
      */
-    int startFocus(@Param("anonId") String anonId);
+    int insertSession(FocusSessionDto session);
 
     /**
-     * 집중 종료 (세션 종료 처리)
-     * @param sessionId 세션 ID
-     * @return 업데이트된 행 수 (없으면 이미 종료된 세션)
+     * 완료된 세션 등록 (오프라인 기록 일괄 등록용, BATCH 실행기에서 호출)
+     * - 생성된 session_id는 flush 후 session.sessionId에 채워진다
+     * @param session anonId, startedAt, endedAt, durationSec, createdAt이 채워진 세션
+     * @return 삽입된 행 수 (BATCH 실행기에서는 flush 전까지 의미 없음)
      */
-    int endFocus(@Param("sessionId") Long sessionId);
+    int insertCompletedSession(FocusSessionDto session);
 
     /**
-     * 종료된 세션을 기반으로 일일 집계 반영
-     * @param sessionId 세션 ID
-     * @return 업데이트된 행 수
+     * 집중 종료 (세션 종료 처리)
+     * - 아직 열린 세션(ended_at IS NULL)일 때만 갱신된다
+     * @param sessionId   세션 ID
+     * @param endedAt     종료 시각
+     * @param durationSec 집중 시간(초)
+     * @return 업데이트된 행 수 (0이면 이미 종료됐거나 없는 세션)
      */
-    int updateDailyAggregate(@Param("sessionId") Long sessionId);
+    int closeSession(@Param("sessionId") Long sessionId,
+                     @Param("endedAt") LocalDateTime endedAt,
+                     @Param("durationSec") int durationSec);
 
     /**
      * ID로 세션 단건 조회
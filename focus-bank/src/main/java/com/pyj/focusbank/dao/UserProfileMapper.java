@@ -5,6 +5,9 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
+
 @Mapper
 public interface UserProfileMapper {
 
@@ -22,6 +25,18 @@ public interface UserProfileMapper {
      */
     ProfileDto findByNickname(@Param("nickname") String nickname);
 
+    /**
+     * 사용 중인 닉네임 전체 (인메모리 닉네임 색인 적재용).
+     * @return 닉네임 목록 (닉네임이 없는 사용자 제외)
+     */
+    List<String> selectAllNicknames();
+
+    /**
+     * 사용 중인 (닉네임, 태그) 전체 (태그 할당기 적재용).
+     * @return nickname, nickname_tag 컬럼 맵 목록 (둘 중 하나라도 없는 사용자 제외)
+     */
+    List<Map<String, Object>> selectNicknameTags();
+
     /**
      * 새 프로필 생성.
      * @param anonId 익명 식별자(필수)
@@ -35,13 +50,16 @@ public interface UserProfileMapper {
 
 
     /**
-     * 기존 사용자의 닉네임만 수정.
-     * 태그는 시스템이 자동 부여하므로 변경 불가.
+     * 기존 사용자의 닉네임 수정.
+     * 태그는 시스템이 부여한다. (새 닉네임에서 기존 태그가 비어 있으면 그대로, 아니면 할당기가 새로 부여)
      *
      * @param anonId 대상 사용자 anonId
      * @param nickname 새 닉네임
+     * @param nicknameTag 새 닉네임에서 쓸 태그
      * @return 변경된 행 수 (정상 1, 없으면 0)
      */
-    int updateNickname(@Param("anonId") String anonId, @Param("nickname") String nickname);
+    int updateNickname(@Param("anonId") String anonId,
+                       @Param("nickname") String nickname,
+                       @Param("nicknameTag") String nicknameTag);
 
 }
\ No newline at end of file
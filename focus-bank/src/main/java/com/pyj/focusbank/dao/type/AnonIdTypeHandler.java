@@ -0,0 +1,174 @@
+package com.pyj.focusbank.dao.type;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * anon_id 컬럼 저장 형식 변환 TypeHandler (매퍼 XML 별칭: {@code AnonId}).
+ *
+ * <p>API/서비스에서는 항상 26자 Crockford Base32 문자열(ULID)을 쓰고, DB 저장 형식만
+ * {@code focusbank.anon-id.storage} 로 고른다.
+ * <ul>
+ *   <li>{@code char}(기본): CHAR(26) 그대로 저장</li>
+ *   <li>{@code binary}: 26자(130비트)를 BINARY(17)로 압축 저장 — 첫 바이트에 상위 2비트, 나머지 16바이트에 128비트
+ *       ({@code sql/migration/V4__binary_anon_id.sql} 적용 후 사용)</li>
+ * </ul>
+ *
+ * <p>저장 형식은 인스턴스마다 정한다. {@link com.pyj.focusbank.config.MyBatisTypeConfig}가 설정값으로 만든 빈을
+ * {@link #registerTo}로 MyBatis 설정에 등록하고, resultType="map" 결과를 읽는 서비스도 같은 빈의
+ * {@link #fromColumn}을 쓴다. (같은 JVM 의 다른 SqlSessionFactory 는 다른 형식을 쓸 수 있다)</p>
+ */
+public class AnonIdTypeHandler extends BaseTypeHandler<String> {
+
+    /** 저장 형식 */
+    public enum Storage {
+        CHAR, BINARY;
+
+        public static Storage from(String value) {
+            return "binary".equalsIgnoreCase(value) ? BINARY : CHAR;
+        }
+    }
+
+    /** ULID 길이 / 압축 길이 */
+    public static final int LENGTH = 26;
+    public static final int BINARY_LENGTH = 17;
+
+    /** 17바이트(136비트) 중 앞쪽 미사용 비트 수 */
+    private static final int PADDING_BITS = BINARY_LENGTH * 8 - LENGTH * 5;
+
+    private static final char[] ENCODING = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DECODING = new byte[128];
+
+    static {
+        Arrays.fill(DECODING, (byte) -1);
+        for (int i = 0; i < ENCODING.length; i++) {
+            DECODING[ENCODING[i]] = (byte) i;
+        }
+    }
+
+    private final Storage storage;
+
+    public AnonIdTypeHandler(Storage storage) {
+        this.storage = storage;
+    }
+
+    public Storage storage() {
+        return storage;
+    }
+
+    /**
+     * MyBatis 설정에 별칭 {@code AnonId}와 이 인스턴스를 등록한다 (매퍼 XML 파싱 전에 호출).
+     * {@code typeHandler=AnonId} 는 새로 생성하지 않고 등록된 인스턴스로 해석된다.
+     * 자바 타입 없이 등록하므로 String 의 기본 핸들러는 바뀌지 않는다.
+     */
+    public void registerTo(Configuration configuration) {
+        configuration.getTypeAliasRegistry().registerAlias("AnonId", AnonIdTypeHandler.class);
+        configuration.getTypeHandlerRegistry().register((Class<String>) null, this);
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String anonId, JdbcType jdbcType) throws SQLException {
+        if (storage == Storage.BINARY) {
+            ps.setBytes(i, toBytes(anonId));
+        } else {
+            ps.setString(i, anonId);
+        }
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return storage == Storage.BINARY ? fromBytes(rs.getBytes(columnName)) : rs.getString(columnName);
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return storage == Storage.BINARY ? fromBytes(rs.getBytes(columnIndex)) : rs.getString(columnIndex);
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return storage == Storage.BINARY ? fromBytes(cs.getBytes(columnIndex)) : cs.getString(columnIndex);
+    }
+
+    /**
+     * resultType="map" 조회 결과의 anon_id 값 → 문자열.
+     * (map 결과에는 TypeHandler 를 지정할 수 없어 BINARY 저장 시 byte[] 로 들어온다)
+     */
+    public String fromColumn(Object value) {
+        if (value == null) return null;
+        if (value instanceof byte[] bytes) {
+            return storage == Storage.BINARY ? fromBytes(bytes) : new String(bytes, StandardCharsets.US_ASCII);
+        }
+        return value.toString();
+    }
+
+    /**
+     * BINARY 저장이 가능한 형식인지 (26자, Crockford Base32 대문자).
+     * 요청 경계에서 미리 걸러 400 으로 응답하기 위한 검사 ({@link #toBytes}와 같은 규칙).
+     */
+    public static boolean isValid(String anonId) {
+        if (anonId == null || anonId.length() != LENGTH) return false;
+        for (int c = 0; c < LENGTH; c++) {
+            char ch = anonId.charAt(c);
+            if (ch >= 128 || DECODING[ch] < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 26자 Crockford Base32 → 17바이트 (big-endian 136비트, 앞 6비트는 0).
+     *
+     * @throws IllegalArgumentException 길이가 26이 아니거나 Crockford 대문자 외의 문자가 있으면
+     *         (I/L/O/U 등을 다른 문자로 바꿔 읽으면 다시 문자열로 만들 때 원래 ID와 달라지므로 거부)
+     */
+    public static byte[] toBytes(String anonId) {
+        if (anonId.length() != LENGTH) {
+            throw new IllegalArgumentException("anonId must be " + LENGTH + " Crockford Base32 characters");
+        }
+        byte[] out = new byte[BINARY_LENGTH];
+        for (int c = 0; c < LENGTH; c++) {
+            int v = digit(anonId.charAt(c));
+            for (int j = 0; j < 5; j++) {
+                if ((v >>> (4 - j) & 1) != 0) {
+                    int bit = PADDING_BITS + c * 5 + j;
+                    out[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+                }
+            }
+        }
+        return out;
+    }
+
+    /** 17바이트 → 26자 Crockford Base32 */
+    public static String fromBytes(byte[] bytes) {
+        if (bytes == null) return null;
+        if (bytes.length != BINARY_LENGTH) {
+            throw new IllegalArgumentException("binary anonId must be " + BINARY_LENGTH + " bytes");
+        }
+        char[] out = new char[LENGTH];
+        for (int c = 0; c < LENGTH; c++) {
+            int v = 0;
+            for (int j = 0; j < 5; j++) {
+                int bit = PADDING_BITS + c * 5 + j;
+                v = v << 1 | ((bytes[bit >>> 3] & (0x80 >>> (bit & 7))) != 0 ? 1 : 0);
+            }
+            out[c] = ENCODING[v];
+        }
+        return new String(out);
+    }
+
+    private static int digit(char ch) {
+        int v = ch < 128 ? DECODING[ch] : -1;
+        if (v < 0) {
+            throw new IllegalArgumentException("anonId contains a non-Crockford character: '" + ch + "'");
+        }
+        return v;
+    }
+}
@@ -0,0 +1,19 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 기간 롤업(weekly/monthly_aggregate) 키 DTO
+ * - periodStart: 주간이면 ISO 주 월요일, 월간이면 해당 월 1일
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateKeyDto {
+    private String anonId;          // 사용자 ID
+    private LocalDate periodStart;  // 기간 시작일
+}
@@ -0,0 +1,20 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * daily_aggregate 증분 DTO
+ * - (targetDate, anonId) 키에 seconds 만큼 더한다
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyAggregateDeltaDto {
+    private LocalDate targetDate;  // 집계 대상 날짜
+    private String anonId;         // 사용자 ID
+    private int seconds;           // 더할 집중 시간(초)
+}
@@ -0,0 +1,27 @@
+package com.pyj.focusbank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 첫 화면 묶음 응답 DTO (GET /api/dashboard)
+ * - 각 항목은 독립적으로 조회되며, 실패/시간 초과한 항목은 null 로 두고 errors 에 사유를 남긴다
+ */
+@Data
+@NoArgsConstructor
+public class DashboardDto {
+    private ProfileDto profile;                  // 프로필 (없으면 null)
+    private FocusSessionDto activeSession;       // 진행 중 세션 (없으면 null)
+    private List<FocusSessionDto> todaySessions; // 오늘 시작한 세션 목록
+    private DailySummaryDto today;               // 오늘 누적
+    private FocusAggDto thisWeek;                // 이번 주 누적 (기록 없으면 null)
+    private FocusAggDto thisMonth;               // 이번 달 누적 (기록 없으면 null)
+    private GoalProgressDto goal;                // 목표 진행률 (goalPeriod 기준)
+    private Map<String, GoalProgressDto> goals;  // 일/주/월 목표 진행률 ("daily" | "weekly" | "monthly")
+    private List<RankingDto> weeklyRanking;      // 주간 랭킹 TOP N
+    private List<RankingDto> overallRanking;     // 전체 랭킹 TOP N
+    private Map<String, String> errors;          // 항목명 → "timeout" | "error" (모두 성공이면 빈 맵)
+}
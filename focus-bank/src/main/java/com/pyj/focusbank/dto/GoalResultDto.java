@@ -0,0 +1,26 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * goal_result 행 DTO (마감된 기간의 목표 달성 기록)
+ * - 목표 이력 응답으로 그대로 사용
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalResultDto {
+    private String anonId;           // 사용자 ULID
+    private String periodType;       // DAILY / WEEKLY / MONTHLY
+    private LocalDate periodStart;   // 기간 시작일
+    private LocalDate periodEnd;     // 기간 마지막 날 (포함)
+    private Integer targetSeconds;   // 마감 시점의 목표(초)
+    private Integer achievedSeconds; // 기간 합계(초)
+    private Boolean achieved;        // 달성 여부
+    private LocalDateTime evaluatedAt; // 평가 시각
+}
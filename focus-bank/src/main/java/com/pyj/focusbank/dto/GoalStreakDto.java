@@ -0,0 +1,19 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 목표 연속 달성 응답 DTO
+ * - current: 가장 최근 마감된 기간부터 거슬러 올라간 연속 달성 횟수 (직전 기간 미달성/미평가면 0)
+ * - best: 기록 전체에서 가장 긴 연속 달성 횟수
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalStreakDto {
+    private String periodType; // DAILY / WEEKLY / MONTHLY
+    private int current;       // 현재 연속 달성
+    private int best;          // 최장 연속 달성
+}
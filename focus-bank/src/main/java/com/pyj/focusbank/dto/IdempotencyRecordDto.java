@@ -0,0 +1,23 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * idempotency_key 행 DTO
+ * - 같은 (idemKey, operation) 재시도에는 statusCode/responseBody 를 그대로 돌려준다
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecordDto {
+    private String idemKey;          // Idempotency-Key 헤더 값
+    private String operation;        // deposit | settle
+    private String fingerprint;      // 요청 식별값 (다른 요청에 같은 키를 쓰면 거부)
+    private int statusCode;          // 최초 응답 상태 코드
+    private String responseBody;     // 최초 응답 본문 (JSON)
+    private LocalDateTime createdAt; // 저장 시각
+}
@@ -0,0 +1,19 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 실시간 스트림(SSE) "leaderboard" 이벤트 페이로드
+ * - 정산한 사용자 1명의 새 순위/점수 (점수는 증가만 하므로 클라이언트가 목록에 끼워 넣으면 됨)
+ * - weekly/overall: 랭킹 엔진 준비 전이면 null → 클라이언트가 다시 조회
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDeltaDto {
+    private String anonId;       // 정산한 사용자
+    private RankingDto weekly;   // 이번 주 순위 (null = 알 수 없음)
+    private RankingDto overall;  // 전체 누적 순위 (null = 알 수 없음)
+}
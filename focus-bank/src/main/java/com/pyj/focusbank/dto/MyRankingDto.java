@@ -0,0 +1,24 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 내 순위 + 주변 사용자 응답 DTO
+ * - me    : 내 순위 (기록이 없으면 null)
+ * - above : 바로 위 k명 (순위 오름차순)
+ * - below : 바로 아래 k명 (순위 오름차순)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MyRankingDto {
+    private String period;           // weekly | overall
+    private int totalRanked;         // 해당 기간 랭킹에 포함된 전체 사용자 수
+    private RankingDto me;           // 내 순위 (null = 기록 없음)
+    private List<RankingDto> above;  // 위쪽 이웃
+    private List<RankingDto> below;  // 아래쪽 이웃
+}
@@ -0,0 +1,20 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오프라인에서 기록한 완료 세션 (POST /api/sessions/batch 요청 배열의 원소)
+ * - 시각은 KST 로컬 시각 (yyyy-MM-dd'T'HH:mm:ss), 초 미만은 버림
+ * - 집중 시간은 서버가 endedAt - startedAt 으로 계산
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfflineSessionDto {
+    private LocalDateTime startedAt; // 세션 시작 시각
+    private LocalDateTime endedAt;   // 세션 종료 시각
+}
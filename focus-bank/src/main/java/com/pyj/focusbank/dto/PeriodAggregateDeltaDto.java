@@ -0,0 +1,21 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 기간 롤업(weekly/monthly_aggregate) 증분 DTO
+ * - (periodStart, anonId) 키에 seconds 와 새 기록일 수(days) 만큼 더한다
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodAggregateDeltaDto {
+    private LocalDate periodStart;  // 주 월요일 / 월 1일
+    private String anonId;          // 사용자 ID
+    private long seconds;           // 더할 집중 시간(초)
+    private int days;               // 더할 기록일 수 (이번에 합계가 0 → 양수가 된 날)
+}
@@ -0,0 +1,25 @@
+package com.pyj.focusbank.dto;
+
+/**
+ * 랭킹 기간 구분
+ * - WEEKLY  : 이번 주(월요일 00:00 KST ~ 현재)
+ * - OVERALL : 전체 누적
+ */
+public enum RankingPeriod {
+    WEEKLY,
+    OVERALL;
+
+    /**
+     * 경로/쿼리 값("weekly", "overall", 대소문자 무관) → enum
+     *
+     * @throws IllegalArgumentException 알 수 없는 값
+     */
+    public static RankingPeriod from(String value) {
+        if (value != null) {
+            for (RankingPeriod p : values()) {
+                if (p.name().equalsIgnoreCase(value.trim())) return p;
+            }
+        }
+        throw new IllegalArgumentException("period must be weekly|overall");
+    }
+}
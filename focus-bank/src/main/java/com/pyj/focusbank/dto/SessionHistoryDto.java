@@ -0,0 +1,20 @@
+package com.pyj.focusbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 세션 이력 한 페이지 응답 DTO (GET /api/sessions/history)
+ * - items 는 (startedAt, sessionId) 오름차순
+ * - nextCursor 를 다음 요청의 cursor 로 넘기면 이어서 조회 (마지막 페이지면 null)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionHistoryDto {
+    private List<FocusSessionDto> items; // 이번 페이지 세션 목록
+    private String nextCursor;           // 다음 페이지 커서 (없으면 null)
+}
@@ -0,0 +1,19 @@
+package com.pyj.focusbank.event;
+
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * write-behind 버퍼의 증분이 daily_aggregate 에 반영(커밋)된 이벤트.
+ * 정산 시점에는 아직 반영되지 않았던 본인 상태(오늘 누적/목표 진행률)를 이때 다시 밀어준다.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class DailyAggregatesFlushedEvent {
+    private final List<DailyAggregateDeltaDto> deltas; // 반영된 (target_date, anon_id)별 병합 증분
+}
@@ -0,0 +1,24 @@
+package com.pyj.focusbank.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * 집중 세션 정산(종료) 이벤트.
+ *
+ * <p>정산 트랜잭션 안에서 발행되며, 리스너는 {@code @TransactionalEventListener}로
+ * 커밋이 확정된 뒤에만 인메모리 상태(랭킹 등)를 갱신한다.</p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class FocusSettledEvent {
+    private final String anonId;       // 정산한 사용자
+    private final Long sessionId;      // 종료된 세션 ID (오프라인 일괄 등록이면 null, 날짜별로 합산해 1건)
+    private final LocalDate targetDate; // 집계 대상 날짜 (세션 시작일, KST)
+    private final int seconds;         // 이번 정산으로 더해진 집중 시간(초)
+    private final boolean aggregated;  // 커밋 시점에 daily_aggregate 반영 여부 (write-behind 대기 중이면 false)
+}
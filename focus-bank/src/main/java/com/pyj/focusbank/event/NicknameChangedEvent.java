@@ -0,0 +1,18 @@
+package com.pyj.focusbank.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 닉네임 생성/변경 이벤트.
+ * 랭킹 표시 이름(닉네임#태그)을 메모리에 들고 있는 컴포넌트가 구독한다.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class NicknameChangedEvent {
+    private final String anonId;      // 사용자
+    private final String nickname;    // 새 닉네임
+    private final String nicknameTag; // 태그 (4자리)
+}
@@ -0,0 +1,138 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 진행 중(ended_at IS NULL) 세션 인메모리 레지스트리.
+ *
+ * <p>동작:
+ * <ul>
+ *   <li>부팅 시 focus_session의 열린 세션 전체를 읽어 anonId → 열린 세션들(시작 시각 순)로 적재</li>
+ *   <li>입금(startFocus)/정산(endFocus) 커밋 후 갱신</li>
+ *   <li>GET /api/sessions/active 는 DB 대신 이 맵을 조회 (커넥션 미사용)</li>
+ * </ul>
+ *
+ * <p>부팅 시 DB 적재에 실패하면 {@link #isReady()}가 false로 남고,
+ * 서비스는 기존처럼 DB 조회로 대체한다.
+ * 단일 인스턴스 배포를 전제로 한다(다중 인스턴스면 인스턴스 간 상태가 공유되지 않음).</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveSessionRegistry {
+
+    private final SessionMapper sessionMapper;
+
+    /** 같은 사용자의 열린 세션 순서 (findActiveSession 과 같은 started_at, 동률이면 session_id) */
+    private static final Comparator<FocusSessionDto> OPEN_ORDER =
+            Comparator.comparing(FocusSessionDto::getStartedAt).thenComparing(FocusSessionDto::getSessionId);
+
+    /**
+     * anonId → 진행 중 세션 전체 (사용자당 여러 건 가능, 조회는 가장 최근 시작 세션).
+     * 하나를 정산해도 남은 열린 세션이 조회되도록 모두 보관한다. 갱신은 compute 로 키 단위 원자 처리.
+     */
+    private final ConcurrentHashMap<String, NavigableSet<FocusSessionDto>> byAnon = new ConcurrentHashMap<>();
+
+    /** sessionId → 진행 중 세션 (정산 시 started_at 재조회 생략용, 사용자당 여러 건 가능) */
+    private final ConcurrentHashMap<Long, FocusSessionDto> byId = new ConcurrentHashMap<>();
+
+    /** 부팅 적재 성공 여부 */
+    private volatile boolean ready = false;
+
+    /** 부팅 시 열린 세션 전체 적재 (같은 사용자의 열린 세션이 여러 건이면 모두) */
+    @PostConstruct
+    public void load() {
+        try {
+            List<FocusSessionDto> open = sessionMapper.findAllActiveSessions();
+            for (FocusSessionDto s : open) {
+                register(s);
+            }
+            ready = true;
+            log.info("ActiveSessionRegistry loaded: {} open sessions", byId.size());
+        } catch (DataAccessException e) {
+            log.warn("ActiveSessionRegistry load failed, falling back to DB reads: {}", e.getMessage());
+        }
+    }
+
+    /** 부팅 적재가 끝나 조회를 맡길 수 있는지 여부 */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 진행 중 세션 조회 (해시 조회 1회). 열린 세션이 여러 건이면 가장 최근 시작 세션.
+     *
+     * @param anonId 익명 사용자 ID
+     * @return 진행 중 세션 Optional
+     */
+    public Optional<FocusSessionDto> find(String anonId) {
+        if (anonId == null) return Optional.empty();
+        NavigableSet<FocusSessionDto> open = byAnon.get(anonId);
+        if (open == null) return Optional.empty();
+        try {
+            return Optional.of(open.last());
+        } catch (NoSuchElementException e) {
+            return Optional.empty(); // 마지막 세션이 방금 제거됨
+        }
+    }
+
+    /**
+     * 세션 ID로 진행 중 세션 조회 (정산 시 시작 시각 확보용).
+     *
+     * @param sessionId 세션 ID
+     * @return 진행 중 세션 Optional (레지스트리 미준비/미등록이면 empty)
+     */
+    public Optional<FocusSessionDto> findBySessionId(Long sessionId) {
+        if (sessionId == null) return Optional.empty();
+        return Optional.ofNullable(byId.get(sessionId));
+    }
+
+    /**
+     * 새로 열린 세션 등록 (입금 커밋 후 호출).
+     *
+     * @param session 열린 세션
+     */
+    public void register(FocusSessionDto session) {
+        if (session == null || session.getAnonId() == null) return;
+        byAnon.compute(session.getAnonId(), (k, open) -> {
+            NavigableSet<FocusSessionDto> set = open != null ? open : new ConcurrentSkipListSet<>(OPEN_ORDER);
+            set.add(session);
+            return set;
+        });
+        byId.put(session.getSessionId(), session);
+    }
+
+    /**
+     * 종료된 세션 제거 (정산 커밋 후 호출).
+     * 같은 사용자의 다른 열린 세션은 그대로 남아 계속 조회된다.
+     *
+     * @param anonId    익명 사용자 ID
+     * @param sessionId 종료된 세션 ID
+     */
+    public void unregister(String anonId, Long sessionId) {
+        if (anonId == null || sessionId == null) return;
+        FocusSessionDto closed = byId.remove(sessionId);
+        byAnon.computeIfPresent(anonId, (k, open) -> {
+            if (closed != null) {
+                open.remove(closed);
+            } else {
+                open.removeIf(s -> sessionId.equals(s.getSessionId()));
+            }
+            return open.isEmpty() ? null : open;
+        });
+    }
+}
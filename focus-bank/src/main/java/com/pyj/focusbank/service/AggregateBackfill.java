@@ -0,0 +1,61 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.AggregateMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 집계 파생 테이블 백필.
+ *
+ * <p>user_total, weekly_aggregate, monthly_aggregate 를 daily_aggregate 로 다시 계산한다 (멱등).
+ * {@code focusbank.aggregate.backfill-on-startup=true} 이면 부팅 시 1회 실행되며,
+ * 랭킹 엔진은 이 빈 이후에 초기화되어 백필된 값으로 적재된다.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AggregateBackfill {
+
+    private final AggregateMapper aggregateMapper;
+
+    @Value("${focusbank.aggregate.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @PostConstruct
+    void runOnStartup() {
+        if (!backfillOnStartup) return;
+        try {
+            backfillUserTotals();
+            backfillPeriodRollups();
+        } catch (DataAccessException e) {
+            log.warn("aggregate backfill on startup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * user_total 백필.
+     *
+     * @return 영향받은 행 수
+     */
+    public int backfillUserTotals() {
+        int rows = aggregateMapper.backfillUserTotals();
+        log.info("user_total backfilled ({} rows affected)", rows);
+        return rows;
+    }
+
+    /**
+     * weekly_aggregate / monthly_aggregate 백필.
+     *
+     * @return 영향받은 행 수 합계
+     */
+    public int backfillPeriodRollups() {
+        int weekly = aggregateMapper.backfillWeeklyAggregates();
+        int monthly = aggregateMapper.backfillMonthlyAggregates();
+        log.info("period rollups backfilled (weekly={}, monthly={} rows affected)", weekly, monthly);
+        return weekly + monthly;
+    }
+}
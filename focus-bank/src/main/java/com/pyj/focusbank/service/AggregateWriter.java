@@ -0,0 +1,131 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.AggregateMapper;
+import com.pyj.focusbank.dto.AggregateKeyDto;
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.dto.PeriodAggregateDeltaDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 정산 증분을 집계 테이블들에 반영하는 단일 진입점.
+ *
+ * <p>daily_aggregate, user_total(사용자별 누적), weekly/monthly_aggregate(기간 롤업)를
+ * 같은 트랜잭션에서 갱신한다. 모두 키별 증분 업서트라 원본 daily_aggregate 를 다시 합산하며
+ * 공유 락을 잡지 않고, 어느 경로든 같은 순서(테이블 → PK)로 행 락을 잡는다.
+ * 동기 정산 경로에서는 정산 트랜잭션에 합류하고,
+ * write-behind flusher에서는 청크마다 새 트랜잭션으로 실행된다.</p>
+ *
+ * <p>기록일(day_count)은 total_seconds &gt; 0 인 daily_aggregate 행 수다 (백필/정합성 검사와 같은 정의).
+ * 이번 양수 증분으로 그날 합계가 0(행 없음 또는 0초 행)에서 양수가 됐으면, 즉 업서트 직후 합계 = 이번 증분이면
+ * 기록일을 1 늘린다. 0초 증분은 daily_aggregate 에는 쓰지만 롤업은 바꾸지 않는다.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AggregateWriter {
+
+    private final AggregateMapper aggregateMapper;
+    private final DataVersions dataVersions;
+
+    /**
+     * 증분 반영.
+     *
+     * @param deltas (target_date, anon_id)별로 병합된 증분 (비어 있으면 무시)
+     */
+    @Transactional
+    public void apply(List<DailyAggregateDeltaDto> deltas) {
+        apply(deltas, aggregateMapper);
+    }
+
+    /**
+     * 증분 반영 (지정한 매퍼 사용).
+     * 한 트랜잭션 안에서는 실행기 종류를 바꿀 수 없으므로, BATCH 실행기로 시작한 트랜잭션
+     * ({@link SessionBatchIngestor})은 같은 실행기에서 얻은 매퍼를 넘긴다.
+     *
+     * @param deltas (target_date, anon_id)별로 병합된 증분 (비어 있으면 무시)
+     * @param aggregateMapper 현재 트랜잭션의 실행기에 맞는 매퍼
+     */
+    @Transactional
+    public void apply(List<DailyAggregateDeltaDto> deltas, AggregateMapper aggregateMapper) {
+        if (deltas.isEmpty()) return;
+
+        // 1. 일별 집계
+        aggregateMapper.upsertDailyAggregates(deltas);
+
+        // 2. 사용자별 누적 (anon_id 기준으로 다시 병합, PK 순서로 정렬해 락 순서 고정)
+        Map<String, DailyAggregateDeltaDto> perUser = new TreeMap<>();
+        for (DailyAggregateDeltaDto d : deltas) {
+            perUser.merge(d.getAnonId(), d,
+                    (a, b) -> new DailyAggregateDeltaDto(null, a.getAnonId(), a.getSeconds() + b.getSeconds()));
+        }
+        aggregateMapper.upsertUserTotals(new ArrayList<>(perUser.values()));
+
+        // 3. 주간/월간 롤업 (양수 증분만, 키별 증분 + 0 → 양수가 된 날만 day_count 증가)
+        List<DailyAggregateDeltaDto> positive = new ArrayList<>(deltas.size());
+        for (DailyAggregateDeltaDto d : deltas) {
+            if (d.getSeconds() > 0) positive.add(d);
+        }
+        if (!positive.isEmpty()) {
+            Set<String> newDays = newDays(positive, aggregateMapper);
+            aggregateMapper.upsertWeeklyAggregates(periodDeltas(positive, newDays, d -> d.with(DayOfWeek.MONDAY)));
+            aggregateMapper.upsertMonthlyAggregates(periodDeltas(positive, newDays, d -> d.withDayOfMonth(1)));
+        }
+
+        // 4. 커밋 후 ETag 버전 증가 (write-behind 모드에서는 이 시점에 리포트가 바뀜)
+        TransactionHooks.afterCommit(() -> {
+            perUser.keySet().forEach(dataVersions::bumpUser);
+            dataVersions.bumpRanking();
+        });
+    }
+
+    /** 이번 양수 증분으로 합계가 0 에서 양수가 된 키 (업서트 후 합계 = 이번 증분) */
+    private static Set<String> newDays(List<DailyAggregateDeltaDto> rows, AggregateMapper aggregateMapper) {
+        Map<String, Integer> applied = new HashMap<>();
+        for (DailyAggregateDeltaDto d : rows) {
+            applied.put(dayKey(d), d.getSeconds());
+        }
+        Set<String> created = new HashSet<>();
+        for (DailyAggregateDeltaDto total : aggregateMapper.selectDailyTotals(rows)) {
+            String key = dayKey(total);
+            if (applied.containsKey(key) && applied.get(key) == total.getSeconds()) {
+                created.add(key);
+            }
+        }
+        return created;
+    }
+
+    /** (사용자, 기간 시작일)별 증분 — PK(anon_id, period_start) 순서 */
+    private static List<PeriodAggregateDeltaDto> periodDeltas(List<DailyAggregateDeltaDto> rows, Set<String> newDays,
+                                                              UnaryOperator<LocalDate> periodStart) {
+        Map<AggregateKeyDto, PeriodAggregateDeltaDto> merged = new TreeMap<>(KEY_ORDER);
+        for (DailyAggregateDeltaDto d : rows) {
+            LocalDate start = periodStart.apply(d.getTargetDate());
+            PeriodAggregateDeltaDto p = merged.computeIfAbsent(new AggregateKeyDto(d.getAnonId(), start),
+                    k -> new PeriodAggregateDeltaDto(start, d.getAnonId(), 0, 0));
+            p.setSeconds(p.getSeconds() + d.getSeconds());
+            if (newDays.contains(dayKey(d))) p.setDays(p.getDays() + 1);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static String dayKey(DailyAggregateDeltaDto d) {
+        return d.getTargetDate() + "|" + d.getAnonId();
+    }
+
+    private static final Comparator<AggregateKeyDto> KEY_ORDER =
+            Comparator.comparing(AggregateKeyDto::getAnonId)
+                    .thenComparing(AggregateKeyDto::getPeriodStart);
+}
@@ -0,0 +1,224 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.event.DailyAggregatesFlushedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * daily_aggregate 쓰기 지연(write-behind) 버퍼.
+ *
+ * <p>opt-in 모드({@code focusbank.aggregate.write-behind.enabled=true})에서만 사용된다.
+ * <ul>
+ *   <li>정산 커밋 후 (target_date, anon_id, +seconds) 증분을 bounded 큐에 적재</li>
+ *   <li>큐가 batch-size 이상 쌓이거나 flush-interval 마다 flusher가 비움</li>
+ *   <li>같은 키의 증분은 합쳐서 multi-row 업서트로 반영 (청크 단위 트랜잭션, user_total 포함)</li>
+ *   <li>청크가 커밋되면 {@link DailyAggregatesFlushedEvent} 발행 (SSE 본인 상태 푸시)</li>
+ *   <li>종료(@PreDestroy) 시 남은 증분을 동기로 모두 반영</li>
+ * </ul>
+ *
+ * <p>DB 쓰기는 flusher 스레드(또는 종료/명시적 {@link #flush()} 호출)에서만 일어난다.
+ * {@link #enqueue}는 이미 끝난 정산 트랜잭션의 afterCommit 에서 불리므로 여기서 쓰면
+ * 커밋 후 훅(ETag 버전 증가)이 실행되지 않는다. 큐가 가득 차면 flusher 를 깨우고 enqueue-wait-ms 만큼
+ * 기다리며(back-pressure), 그래도 자리가 없으면 증분을 버리고 dropped 카운터를 올린다.</p>
+ *
+ * <p>리포트/랭킹은 최대 flush-interval 만큼 늦게 반영될 수 있다.
+ * 반영 실패한 증분은 버리지 않고 다음 flush 때 다시 시도한다. 재시도 목록은 capacity 를 넘지 않도록
+ * 그만큼만 큐에서 꺼내므로, DB 장애가 길어지면 큐가 차서 back-pressure 로 이어진다.
+ * 대기 증분 수(큐 + 재시도)는 {@code focusbank.aggregate.write-behind.backlog} 게이지로 노출한다.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyAggregateWriteBehind {
+
+    private final AggregateWriter aggregateWriter;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${focusbank.aggregate.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${focusbank.aggregate.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${focusbank.aggregate.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${focusbank.aggregate.write-behind.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${focusbank.aggregate.write-behind.enqueue-wait-ms:200}")
+    private long enqueueWaitMs;
+
+    /** 증분 큐 (가득 차면 enqueue 가 flusher 를 깨우고 잠시 대기) */
+    private BlockingQueue<DailyAggregateDeltaDto> queue;
+
+    /** 반영 실패로 다음 flush 때 재시도할 병합 증분 (flush 락 안에서만 접근, 최대 capacity 건) */
+    private final Map<String, DailyAggregateDeltaDto> retry = new LinkedHashMap<>();
+
+    /** retry 크기 (게이지용, flush 락 밖에서 읽음) */
+    private volatile int retrySize;
+
+    private ScheduledExecutorService flusher;
+
+    private Counter dropped;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        queue = new LinkedBlockingQueue<>(capacity);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "daily-agg-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("focusbank.aggregate.write-behind.backlog", this, DailyAggregateWriteBehind::backlog)
+                .description("daily_aggregate deltas waiting to be written (queue + retry)")
+                .register(meterRegistry);
+        dropped = meterRegistry.counter("focusbank.aggregate.write-behind.dropped");
+        log.info("daily_aggregate write-behind enabled (capacity={}, batchSize={}, interval={}ms)",
+                capacity, batchSize, flushIntervalMs);
+    }
+
+    /** write-behind 모드 여부 */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 반영 대기 중인 증분 수 (큐 + 재시도) */
+    public int backlog() {
+        return queue == null ? 0 : queue.size() + retrySize;
+    }
+
+    /**
+     * 증분 적재. 정산 트랜잭션 커밋 후 호출해야 한다. 이 메서드는 DB 에 쓰지 않는다.
+     * - 큐가 batch-size 이상이거나 가득 차면 flusher에 즉시 flush 요청
+     * - 가득 차 있으면 enqueue-wait-ms 동안 자리를 기다리고, 끝내 자리가 없으면 버림 (dropped 카운터)
+     *
+     * @param targetDate 집계 대상 날짜
+     * @param anonId     사용자 ID
+     * @param seconds    더할 집중 시간(초)
+     */
+    public void enqueue(LocalDate targetDate, String anonId, int seconds) {
+        DailyAggregateDeltaDto delta = new DailyAggregateDeltaDto(targetDate, anonId, seconds);
+        if (!queue.offer(delta)) {
+            flusher.execute(this::flushQuietly);
+            boolean accepted;
+            try {
+                accepted = queue.offer(delta, enqueueWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+            if (!accepted) {
+                dropped.increment();
+                log.error("daily_aggregate write-behind queue full, delta dropped: {}", delta);
+            }
+            return;
+        }
+        if (queue.size() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 큐를 비우고 키별로 병합해 daily_aggregate에 반영한다.
+     * 동시에 하나의 flush만 수행된다. 재시도분이 남아 있으면 capacity 를 넘지 않을 만큼만 큐에서 꺼낸다.
+     */
+    public synchronized void flush() {
+        if (queue == null) return;
+        List<DailyAggregateDeltaDto> drained = new ArrayList<>();
+        queue.drainTo(drained, Math.max(0, capacity - retry.size()));
+        if (drained.isEmpty() && retry.isEmpty()) return;
+
+        // 1. 재시도분 + 새 증분을 (target_date, anon_id) 키로 병합
+        Map<String, DailyAggregateDeltaDto> merged = new LinkedHashMap<>(retry);
+        retry.clear();
+        for (DailyAggregateDeltaDto d : drained) {
+            merged.merge(d.getTargetDate() + "|" + d.getAnonId(), d,
+                    (a, b) -> new DailyAggregateDeltaDto(a.getTargetDate(), a.getAnonId(), a.getSeconds() + b.getSeconds()));
+        }
+
+        // 2. PK 순서로 정렬해 동기 정산 경로와의 락 순서를 맞춤 (데드락 예방)
+        List<DailyAggregateDeltaDto> rows = new ArrayList<>(merged.values());
+        rows.sort(Comparator.comparing(DailyAggregateDeltaDto::getTargetDate)
+                .thenComparing(DailyAggregateDeltaDto::getAnonId));
+
+        // 3. batch-size 단위로 multi-row 업서트, 실패분은 재시도 목록에 보관
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            List<DailyAggregateDeltaDto> chunk = rows.subList(i, Math.min(i + batchSize, rows.size()));
+            try {
+                aggregateWriter.apply(chunk);
+            } catch (RuntimeException e) {
+                log.error("daily_aggregate flush failed ({} rows), will retry: {}", chunk.size(), e.getMessage());
+                for (DailyAggregateDeltaDto d : chunk) {
+                    retry.put(d.getTargetDate() + "|" + d.getAnonId(), d);
+                }
+                continue;
+            }
+            eventPublisher.publishEvent(new DailyAggregatesFlushedEvent(List.copyOf(chunk)));
+        }
+        retrySize = retry.size();
+    }
+
+    /**
+     * 지금까지 적재된 증분을 동기로 반영한다 (daily_aggregate 를 읽는 배치 작업 직전에 호출).
+     * 한 번의 flush 는 재시도분이 있으면 큐를 다 꺼내지 못할 수 있으므로 두 번 실행한다.
+     *
+     * @return 반영하지 못해 재시도 목록에 남은 증분 수 (0 이면 호출 시점까지의 증분이 모두 반영됨)
+     */
+    public synchronized int flushPending() {
+        if (queue == null) return 0;
+        flush();
+        if (!retry.isEmpty()) return retry.size(); // DB 실패 → 다시 시도해도 같은 결과
+        flush();
+        return retry.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("daily_aggregate flush error", e);
+        }
+    }
+
+    /** 종료 시 남은 증분을 동기로 모두 반영 */
+    @PreDestroy
+    void shutdown() {
+        if (!enabled) return;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!retry.isEmpty() || !queue.isEmpty()) {
+            log.error("daily_aggregate write-behind shut down with {} unflushed rows: {}",
+                    retry.size() + queue.size(), retry.values());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dto.DashboardDto;
+
+public interface DashboardService {
+
+    /**
+     * 첫 화면에 필요한 데이터를 한 번에 조회한다.
+     * 항목별로 병렬 조회하며, 실패/시간 초과한 항목은 비워 두고 errors 에 기록한다.
+     *
+     * @param anonId       사용자 ID
+     * @param goalPeriod   목표 진행률 기간 (daily|weekly|monthly)
+     * @param rankingLimit 랭킹 TOP N
+     * @return 묶음 응답
+     */
+    DashboardDto getDashboard(String anonId, String goalPeriod, int rankingLimit);
+}
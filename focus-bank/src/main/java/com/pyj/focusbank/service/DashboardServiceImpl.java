@@ -0,0 +1,128 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dto.DashboardDto;
+import com.pyj.focusbank.dto.FocusAggDto;
+import com.pyj.focusbank.dto.GoalProgressDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 대시보드 묶음 조회.
+ *
+ * <p>각 서비스 호출을 dashboardExecutor 에서 동시에 실행하고,
+ * 항목마다 part-timeout 을 적용한다. 전체 응답 시간은 가장 느린 항목(최대 part-timeout)으로 제한된다.
+ * 시간 초과한 작업은 결과만 버리며 실행 중인 쿼리를 중단하지는 않는다.
+ * 실행기 큐가 가득 차 작업을 넣지 못한 항목도 시간 초과와 같이 null + errors("timeout") 로 응답한다.</p>
+ */
+@Slf4j
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private final ProfileService profileService;
+    private final SessionService sessionService;
+    private final ReportService reportService;
+    private final GoalService goalService;
+    private final RankingService rankingService;
+    private final Executor executor;
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @Value("${focusbank.dashboard.part-timeout-ms:1500}")
+    private long partTimeoutMs;
+
+    public DashboardServiceImpl(ProfileService profileService,
+                                SessionService sessionService,
+                                ReportService reportService,
+                                GoalService goalService,
+                                RankingService rankingService,
+                                @Qualifier("dashboardExecutor") Executor executor) {
+        this.profileService = profileService;
+        this.sessionService = sessionService;
+        this.reportService = reportService;
+        this.goalService = goalService;
+        this.rankingService = rankingService;
+        this.executor = executor;
+    }
+
+    @Override
+    public DashboardDto getDashboard(String anonId, String goalPeriod, int rankingLimit) {
+        final String id = Objects.requireNonNull(anonId, "anonId required").trim();
+        final LocalDate today = LocalDate.now(KST);
+
+        DashboardDto dto = new DashboardDto();
+        Map<String, String> errors = new ConcurrentHashMap<>();
+
+        CompletableFuture.allOf(
+                part("profile", () -> profileService.findByAnonId(id).orElse(null), dto::setProfile, errors),
+                part("activeSession", () -> sessionService.getActiveSession(id).orElse(null), dto::setActiveSession, errors),
+                part("todaySessions", () -> sessionService.getSessionsForDate(id, today), dto::setTodaySessions, errors),
+                part("today", () -> reportService.getDailySummary(id, today.toString()), dto::setToday, errors),
+                part("thisWeek", () -> first(reportService.getWeeklyReport(id, 1)), dto::setThisWeek, errors),
+                part("thisMonth", () -> first(reportService.getMonthlyReport(id, 1)), dto::setThisMonth, errors),
+                part("goal", () -> goalService.getAllProgress(id), goals -> setGoals(dto, goals, goalPeriod), errors),
+                part("weeklyRanking", () -> rankingService.getWeeklyRanking(rankingLimit), dto::setWeeklyRanking, errors),
+                part("overallRanking", () -> rankingService.getOverallRanking(rankingLimit), dto::setOverallRanking, errors)
+        ).join();
+
+        dto.setErrors(new TreeMap<>(errors));
+        return dto;
+    }
+
+    /** 일/주/월 진행률 전체 + goalPeriod 기간 (알 수 없는 기간은 daily) */
+    private static void setGoals(DashboardDto dto, Map<String, GoalProgressDto> goals, String goalPeriod) {
+        String key = goalPeriod == null ? "daily" : goalPeriod.trim().toLowerCase(Locale.ROOT);
+        dto.setGoals(goals);
+        dto.setGoal(goals.getOrDefault(key, goals.get("daily")));
+    }
+
+    /** 항목 1개: 비동기 실행 + 시간 제한, 실패해도 예외를 밖으로 내보내지 않음 */
+    private <T> CompletableFuture<Void> part(String name, Supplier<T> supplier, Consumer<T> setter,
+                                             Map<String, String> errors) {
+        CompletableFuture<T> task;
+        try {
+            task = CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            // 실행기 포화 (supplyAsync 가 호출 스레드에서 바로 던짐) → 시간 초과와 같이 처리
+            errors.put(name, "timeout");
+            log.warn("dashboard part '{}' rejected: executor saturated", name);
+            return CompletableFuture.completedFuture(null);
+        }
+        return task
+                .orTimeout(partTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((value, ex) -> {
+                    if (ex == null) {
+                        setter.accept(value);
+                    } else {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        boolean timeout = cause instanceof TimeoutException;
+                        errors.put(name, timeout ? "timeout" : "error");
+                        log.warn("dashboard part '{}' failed: {}", name, timeout ? "timeout" : cause.toString());
+                    }
+                    return null;
+                });
+    }
+
+    private static FocusAggDto first(List<FocusAggDto> list) {
+        return list == null || list.isEmpty() ? null : list.get(0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.event.FocusSettledEvent;
+import com.pyj.focusbank.event.NicknameChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 조건부 GET(ETag / If-None-Match) 용 데이터 버전.
+ *
+ * <p>응답 본문을 만들지 않고도 "바뀌었는지"를 판단하기 위한 값이다.
+ * <ul>
+ *   <li>사용자 버전: 정산(집계 반영 포함)·목표 저장 커밋 후 증가 → 리포트/목표 응답</li>
+ *   <li>랭킹 버전: 누구든 정산하거나 닉네임을 바꾸면 증가 → 랭킹 응답</li>
+ * </ul>
+ * ETag 에는 부팅 시각(epoch)과 오늘 날짜(KST)도 넣는다.
+ * 재시작하면 카운터가 0부터 다시 시작하고, 날짜가 바뀌면 "최근 N주"·"오늘" 같은 범위가 달라지기 때문이다.</p>
+ *
+ * <p>사용자 버전 맵이 max-size 를 넘으면 비우고 epoch 를 바꿔 모든 ETag 를 무효화한다.</p>
+ */
+@Component
+public class DataVersions {
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @Value("${focusbank.etag.max-tracked-users:200000}")
+    private int maxTrackedUsers;
+
+    private volatile long epoch = System.currentTimeMillis();
+    private final ConcurrentHashMap<String, AtomicLong> userVersions = new ConcurrentHashMap<>();
+    private final AtomicLong rankingVersion = new AtomicLong();
+
+    /** 사용자 데이터(리포트/목표) 변경 기록. 커밋 후 호출해야 한다. */
+    public void bumpUser(String anonId) {
+        if (userVersions.size() >= maxTrackedUsers && !userVersions.containsKey(anonId)) {
+            userVersions.clear();
+            epoch = System.currentTimeMillis();
+        }
+        userVersions.computeIfAbsent(anonId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** 랭킹 변경 기록. 커밋 후 호출해야 한다. */
+    public void bumpRanking() {
+        rankingVersion.incrementAndGet();
+    }
+
+    /**
+     * 사용자 데이터 응답용 strong ETag.
+     * 같은 브라우저에서 다른 anonId 로 바꿔도 섞이지 않도록 anonId 를 포함한다.
+     */
+    public String userEtag(String anonId) {
+        AtomicLong v = userVersions.get(anonId);
+        return "\"u-" + anonId + "-" + Long.toString(epoch, 36) + "-" + (v == null ? 0 : v.get()) + "-" + today() + "\"";
+    }
+
+    /** 랭킹 TOP N 응답용 strong ETag (모든 사용자 공통) */
+    public String rankingEtag() {
+        return "\"r-" + Long.toString(epoch, 36) + "-" + rankingVersion.get() + "-" + today() + "\"";
+    }
+
+    /** 내 순위 응답용 strong ETag (랭킹 버전 + anonId) */
+    public String rankingEtag(String anonId) {
+        return "\"r-" + anonId + "-" + Long.toString(epoch, 36) + "-" + rankingVersion.get() + "-" + today() + "\"";
+    }
+
+    /** 정산 커밋 후 (write-behind 모드에서도 랭킹 엔진은 이 시점에 바뀜) */
+    @TransactionalEventListener
+    public void onSettled(FocusSettledEvent event) {
+        bumpUser(event.getAnonId());
+        bumpRanking();
+    }
+
+    /** 닉네임 변경 커밋 후 (랭킹 표시 이름 변경) */
+    @TransactionalEventListener
+    public void onNicknameChanged(NicknameChangedEvent event) {
+        bumpRanking();
+    }
+
+    private static String today() {
+        return LocalDate.now(KST).toString();
+    }
+}
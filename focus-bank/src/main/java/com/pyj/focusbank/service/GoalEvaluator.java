@@ -0,0 +1,159 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.GoalResultMapper;
+import com.pyj.focusbank.dto.GoalResultDto;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기간 마감 목표 평가 (goal_result 기록).
+ *
+ * <p>매일 00:05(KST)에 어제로 끝난 기간을 평가한다.
+ * <ul>
+ *   <li>DAILY: 매일 (어제)</li>
+ *   <li>WEEKLY: 월요일 (지난 ISO 주)</li>
+ *   <li>MONTHLY: 1일 (지난달)</li>
+ * </ul>
+ *
+ * <p>기간마다 user_goal + daily_aggregate 를 anon_id 순서로 한 번 스캔하는 커서
+ * ({@link GoalResultMapper#streamPeriodTotals})를 읽으며 달성 여부를 계산하고,
+ * chunk-size 건씩 goal_result 에 다건 업서트한다. 사용자 수와 관계없이 메모리는 청크 크기 수준이다.</p>
+ *
+ * <p>커서를 연 커넥션에서 다른 문장을 실행하면 드라이버가 남은 결과를 모두 받아 버리므로,
+ * 청크 기록은 별도 트랜잭션(REQUIRES_NEW, 다른 커넥션)으로 바로 커밋한다.
+ * 업서트라 중간에 실패해도 같은 날짜로 다시 실행하면 된다 ({@link #evaluateClosedBefore}).</p>
+ *
+ * <p>write-behind 모드에서는 자정 직전 정산분이 아직 버퍼에 있을 수 있으므로 스캔 전에
+ * {@link DailyAggregateWriteBehind#flushPending()}으로 먼저 반영한다. 반영에 실패하면 경고를 남기고 그대로 평가하며,
+ * 그 기간은 DB 복구 후 같은 날짜로 다시 평가하면 바로잡힌다.</p>
+ */
+@Slf4j
+@Component
+public class GoalEvaluator {
+
+    /** 평가 대상 기간 */
+    private static final String[] PERIOD_TYPES = {"DAILY", "WEEKLY", "MONTHLY"};
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final GoalResultMapper goalResultMapper;
+    private final DailyAggregateWriteBehind dailyAggregateWriteBehind;
+    private final TransactionTemplate scanTx;
+    private final TransactionTemplate chunkTx;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public GoalEvaluator(GoalResultMapper goalResultMapper,
+                         DailyAggregateWriteBehind dailyAggregateWriteBehind,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${focusbank.goal-evaluation.enabled:true}") boolean enabled,
+                         @Value("${focusbank.goal-evaluation.chunk-size:500}") int chunkSize) {
+        this.goalResultMapper = goalResultMapper;
+        this.dailyAggregateWriteBehind = dailyAggregateWriteBehind;
+        this.scanTx = new TransactionTemplate(transactionManager);
+        this.scanTx.setReadOnly(true);
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /** 매일 00:05(KST) 어제로 끝난 기간 평가 */
+    @Scheduled(cron = "${focusbank.goal-evaluation.cron:0 5 0 * * *}", zone = "Asia/Seoul")
+    void scheduledEvaluate() {
+        if (!enabled) return;
+        try {
+            evaluateClosedBefore(LocalDate.now(KST));
+        } catch (DataAccessException e) {
+            log.warn("goal evaluation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * today 전날로 끝난 기간(DAILY 는 항상, WEEKLY 는 today 가 월요일, MONTHLY 는 1일)을 평가한다.
+     * 지난 날짜를 넘기면 그날 기준으로 다시 평가 (누락/실패 복구용).
+     * write-behind 버퍼에 남은 증분은 스캔 전에 먼저 반영한다.
+     *
+     * @param today 기준일 (이 날짜 직전에 끝난 기간이 대상)
+     * @return 기록한 행 수 합계
+     */
+    public int evaluateClosedBefore(LocalDate today) {
+        LocalDate yesterday = today.minusDays(1);
+        flushPendingAggregates(yesterday);
+        int total = 0;
+        for (String periodType : PERIOD_TYPES) {
+            LocalDate start = GoalServiceImpl.periodStart(periodType, yesterday);
+            // 오늘이 새 기간의 첫날일 때만 어제가 속한 기간이 마감됨
+            if (!GoalServiceImpl.periodStart(periodType, today).equals(start)) {
+                total += evaluate(periodType, start, yesterday);
+            }
+        }
+        return total;
+    }
+
+    /** write-behind 모드면 버퍼의 daily_aggregate 증분을 먼저 반영 (남으면 해당 기간 합계가 모자랄 수 있음) */
+    private void flushPendingAggregates(LocalDate yesterday) {
+        if (!dailyAggregateWriteBehind.isEnabled()) return;
+        int unflushed = dailyAggregateWriteBehind.flushPending();
+        if (unflushed > 0) {
+            log.warn("goal evaluation up to {} runs with {} unflushed daily_aggregate deltas; "
+                    + "re-run evaluateClosedBefore({}) after the write-behind recovers", yesterday, unflushed, yesterday.plusDays(1));
+        }
+    }
+
+    /**
+     * 한 기간을 전체 사용자에 대해 평가한다 (기간 목표가 있는 사용자만 기록).
+     *
+     * @return 기록한 행 수
+     */
+    public int evaluate(String periodType, LocalDate periodStart, LocalDate periodEnd) {
+        long startedAt = System.nanoTime();
+        Integer written = scanTx.execute(status -> {
+            int count = 0;
+            List<GoalResultDto> chunk = new ArrayList<>(chunkSize);
+            try (Cursor<GoalResultDto> rows = goalResultMapper.streamPeriodTotals(periodType, periodStart, periodEnd)) {
+                for (GoalResultDto row : rows) {
+                    row.setPeriodType(periodType);
+                    row.setPeriodStart(periodStart);
+                    row.setPeriodEnd(periodEnd);
+                    row.setAchieved(row.getAchievedSeconds() >= row.getTargetSeconds());
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        count += flush(chunk);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count + flush(chunk);
+        });
+        int count = written == null ? 0 : written;
+        log.info("goal results evaluated: {} {}~{} ({} users, {} ms)",
+                periodType, periodStart, periodEnd, count, (System.nanoTime() - startedAt) / 1_000_000);
+        return count;
+    }
+
+    /** 청크 기록 (별도 트랜잭션으로 바로 커밋) */
+    private int flush(List<GoalResultDto> chunk) {
+        if (chunk.isEmpty()) return 0;
+        int size = chunk.size();
+        chunkTx.executeWithoutResult(status -> goalResultMapper.upsertResults(chunk));
+        chunk.clear();
+        return size;
+    }
+}
@@ -1,9 +1,15 @@
 package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dto.GoalProgressDto;
+import com.pyj.focusbank.dto.GoalResultDto;
 import com.pyj.focusbank.dto.GoalSaveRequest;
+import com.pyj.focusbank.dto.GoalStreakDto;
 import com.pyj.focusbank.dto.UserGoalDto;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 목표 관리 서비스
  */
@@ -16,6 +22,13 @@ public interface GoalService {
      */
     GoalProgressDto getProgress(String anonId, String periodType);
 
+    /**
+     * 일/주/월 목표 진행률 한 번에 조회 (목표 1회 + 일별 합계 1회 조회)
+     * @param anonId ULID 26자
+     * @return "daily" | "weekly" | "monthly" → 진행률 (순서 유지)
+     */
+    Map<String, GoalProgressDto> getAllProgress(String anonId);
+
     /**
      * 목표 저장(업서트)
      * @param anonId ULID 26자
@@ -28,4 +41,16 @@ public interface GoalService {
      * 오늘 기준 활성 목표 조회 (프리필용)
      */
     UserGoalDto getActiveGoal(String anonId, String periodType);
+
+    /**
+     * 마감된 기간의 목표 달성 이력 (최신 기간부터, goal_result 조회)
+     * @param before 이 날짜 이전에 시작한 기간만 (null 이면 최신부터)
+     * @param limit  최대 건수 (1~100으로 보정)
+     */
+    List<GoalResultDto> getHistory(String anonId, String periodType, LocalDate before, int limit);
+
+    /**
+     * 연속 달성 횟수 (현재/최장, goal_result 조회)
+     */
+    GoalStreakDto getStreak(String anonId, String periodType);
 }
\ No newline at end of file
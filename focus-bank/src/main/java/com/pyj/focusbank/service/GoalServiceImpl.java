@@ -1,22 +1,29 @@
 package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dao.GoalMapper;
+import com.pyj.focusbank.dao.GoalResultMapper;
+import com.pyj.focusbank.dto.DailySummaryDto;
 import com.pyj.focusbank.dto.GoalProgressDto;
+import com.pyj.focusbank.dto.GoalResultDto;
 import com.pyj.focusbank.dto.GoalSaveRequest;
+import com.pyj.focusbank.dto.GoalStreakDto;
 import com.pyj.focusbank.dto.UserGoalDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * 목표 진행률 계산 + 목표 저장 서비스
- * - 기간 계산은 KST 기준
+ * - 기간 계산은 주입된 Clock(KST) 의 오늘 기준
  * - 주차 계산은 ISO 기준(월요일 시작)
  */
 @Service
@@ -24,7 +31,12 @@ import java.util.Objects;
 public class GoalServiceImpl implements GoalService {
 
     private final GoalMapper goalMapper;
-    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private final GoalResultMapper goalResultMapper;
+    private final DataVersions dataVersions;
+    private final Clock clock;
+
+    /** 목표 이력 1회 최대 건수 */
+    private static final int MAX_HISTORY = 100;
 
     @Transactional(readOnly = true)
     @Override
@@ -32,24 +44,13 @@ public class GoalServiceImpl implements GoalService {
         anonId = Objects.requireNonNull(anonId, "anonId required").trim();
         periodType = Objects.requireNonNull(periodType, "periodType required").trim().toUpperCase();
 
-        final LocalDate today = LocalDate.now(KST);
+        final LocalDate today = LocalDate.now(clock);
+
+        // 알 수 없는 기간은 DAILY 로 취급
+        periodType = normalizePeriod(periodType);
 
         // 기간 from/to 계산
-        LocalDate from;
-        switch (periodType) {
-            case "DAILY":
-                from = today;
-                break;
-            case "WEEKLY":
-                from = today.with(DayOfWeek.MONDAY);
-                break;
-            case "MONTHLY":
-                from = today.withDayOfMonth(1);
-                break;
-            default:
-                periodType = "DAILY";
-                from = today;
-        }
+        LocalDate from = periodStart(periodType, today);
         LocalDate to = today;
 
         // 목표 조회
@@ -58,6 +59,54 @@ public class GoalServiceImpl implements GoalService {
         // 달성치 합계
         int achieved = goalMapper.sumTotalSecondsBetween(anonId, from, to);
 
+        return toProgress(goal, achieved);
+    }
+
+    /**
+     * 일/주/월 진행률을 한 번에 계산
+     * - 목표: 기간별 활성 목표를 1회 조회
+     * - 달성치: min(이번 주 월요일, 이번 달 1일) ~ 오늘의 일별 합계를 1회 조회해 세 기간 합계를 함께 계산
+     *   (ISO 주가 지난달에서 시작하는 경우도 포함)
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, GoalProgressDto> getAllProgress(String anonId) {
+        anonId = Objects.requireNonNull(anonId, "anonId required").trim();
+        final LocalDate today = LocalDate.now(clock);
+
+        LocalDate weekStart = periodStart("WEEKLY", today);
+        LocalDate monthStart = periodStart("MONTHLY", today);
+        LocalDate from = weekStart.isBefore(monthStart) ? weekStart : monthStart;
+
+        // 목표 조회 (기간별 최대 1건)
+        UserGoalDto daily = null, weekly = null, monthly = null;
+        for (UserGoalDto goal : goalMapper.selectActiveGoals(anonId, today)) {
+            switch (goal.getPeriodType()) {
+                case "DAILY" -> daily = goal;
+                case "WEEKLY" -> weekly = goal;
+                case "MONTHLY" -> monthly = goal;
+            }
+        }
+
+        // 일별 합계 1회 스캔 → 기간별 합계 (from 이 지난달일 수 있으므로 날짜로 비교)
+        int daySum = 0, weekSum = 0, monthSum = 0;
+        for (DailySummaryDto row : goalMapper.selectDailyTotalsBetween(anonId, from, today)) {
+            int sec = row.getTotalSec() == null ? 0 : row.getTotalSec().intValue();
+            LocalDate date = LocalDate.parse(row.getTargetDate());
+            if (!date.isBefore(monthStart)) monthSum += sec;
+            if (!date.isBefore(weekStart)) weekSum += sec;
+            if (date.equals(today)) daySum += sec;
+        }
+
+        Map<String, GoalProgressDto> result = new LinkedHashMap<>();
+        result.put("daily", toProgress(daily, daySum));
+        result.put("weekly", toProgress(weekly, weekSum));
+        result.put("monthly", toProgress(monthly, monthSum));
+        return result;
+    }
+
+    /** 목표 + 달성치 → 진행률 (목표 없으면 미설정) */
+    private static GoalProgressDto toProgress(UserGoalDto goal, int achieved) {
         if (goal == null) {
             // 목표 미설정
             return new GoalProgressDto(null, achieved, null);
@@ -71,6 +120,26 @@ public class GoalServiceImpl implements GoalService {
         return new GoalProgressDto(goal.getTargetSeconds(), achieved, progress);
     }
 
+    /** 알 수 없는 기간은 DAILY 로 취급 */
+    static String normalizePeriod(String periodType) {
+        return periodType.equals("WEEKLY") || periodType.equals("MONTHLY") ? periodType : "DAILY";
+    }
+
+    /**
+     * 목표 기간 시작일 (KST 오늘 기준)
+     * - DAILY: 오늘 / WEEKLY: 이번 주 월요일(ISO) / MONTHLY: 이번 달 1일
+     */
+    static LocalDate periodStart(String periodType, LocalDate today) {
+        switch (periodType) {
+            case "WEEKLY":
+                return today.with(DayOfWeek.MONDAY);
+            case "MONTHLY":
+                return today.withDayOfMonth(1);
+            default:
+                return today;
+        }
+    }
+
     @Transactional
     @Override
     public UserGoalDto saveGoal(String anonId, GoalSaveRequest req) {
@@ -90,7 +159,7 @@ public class GoalServiceImpl implements GoalService {
         }
 
         // effectiveFrom 기본값 = 오늘(KST)
-        final LocalDate today = LocalDate.now(KST);
+        final LocalDate today = LocalDate.now(clock);
         String effectiveFrom = (req.getEffectiveFrom() == null || req.getEffectiveFrom().isBlank())
                 ? today.toString()
                 : req.getEffectiveFrom().trim();
@@ -112,6 +181,10 @@ public class GoalServiceImpl implements GoalService {
             goalMapper.upsertGoal(goal);
         }
 
+        // 커밋 후 목표/진행률 ETag 무효화
+        final String owner = anonId;
+        TransactionHooks.afterCommit(() -> dataVersions.bumpUser(owner));
+
         // 저장/갱신 후 최신 목표 반환
         return goalMapper.selectActiveGoal(anonId, periodType, today);
     }
@@ -121,7 +194,42 @@ public class GoalServiceImpl implements GoalService {
     public UserGoalDto getActiveGoal(String anonId, String periodType) {
         anonId = Objects.requireNonNull(anonId, "anonId required").trim();
         periodType = Objects.requireNonNull(periodType, "periodType required").trim().toUpperCase();
-        final LocalDate today = LocalDate.now(KST);
+        final LocalDate today = LocalDate.now(clock);
         return goalMapper.selectActiveGoal(anonId, periodType, today);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<GoalResultDto> getHistory(String anonId, String periodType, LocalDate before, int limit) {
+        anonId = Objects.requireNonNull(anonId, "anonId required").trim();
+        periodType = normalizePeriod(Objects.requireNonNull(periodType, "periodType required").trim().toUpperCase());
+        return goalResultMapper.selectHistory(anonId, periodType, before, Math.min(Math.max(limit, 1), MAX_HISTORY));
+    }
+
+    /**
+     * 연속 달성 (goal_result 를 오래된 기간부터 한 번 훑음)
+     * - 기간이 끊기거나(목표 미설정 등으로 평가 행 없음) 미달성이면 연속이 끊김
+     * - 현재 연속은 가장 최근 마감 기간(어제/지난주/지난달)까지 이어질 때만 인정
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public GoalStreakDto getStreak(String anonId, String periodType) {
+        anonId = Objects.requireNonNull(anonId, "anonId required").trim();
+        periodType = normalizePeriod(Objects.requireNonNull(periodType, "periodType required").trim().toUpperCase());
+
+        int run = 0;
+        int best = 0;
+        LocalDate lastEnd = null;
+        for (GoalResultDto r : goalResultMapper.selectAchievements(anonId, periodType)) {
+            boolean contiguous = lastEnd != null && r.getPeriodStart().equals(lastEnd.plusDays(1));
+            run = Boolean.TRUE.equals(r.getAchieved()) ? (contiguous ? run + 1 : 1) : 0;
+            best = Math.max(best, run);
+            lastEnd = r.getPeriodEnd();
+        }
+
+        // 마지막 기록이 직전 마감 기간이 아니면 현재 연속은 0
+        LocalDate lastClosedEnd = periodStart(periodType, LocalDate.now(clock)).minusDays(1);
+        int current = lastClosedEnd.equals(lastEnd) ? run : 0;
+        return new GoalStreakDto(periodType, current, best);
+    }
 }
\ No newline at end of file
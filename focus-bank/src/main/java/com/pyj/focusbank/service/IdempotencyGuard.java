@@ -0,0 +1,275 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyj.focusbank.dao.IdempotencyMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.IdempotencyRecordDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Idempotency-Key 처리 (입금/정산 재시도 중복 방지).
+ *
+ * <p>동작:
+ * <ul>
+ *   <li>메모리: (operation, key) → 처리 중/완료 결과. 완료된 재시도는 DB 없이 바로 응답,
+ *       처리 중인 같은 키는 먼저 온 요청의 결과를 기다렸다가 같은 응답을 돌려준다</li>
+ *   <li>DB(idempotency_key): 본 작업과 같은 트랜잭션에서 성공 응답을 저장 →
+ *       재시작·다른 인스턴스에서도 같은 키는 다시 실행되지 않는다</li>
+ *   <li>같은 키를 다른 요청(다른 anonId/sessionId)에 쓰면 거부</li>
+ *   <li>성공(2xx) 응답만 기억한다. 실패 응답/예외는 기억하지 않으므로 같은 키로 다시 시도할 수 있다</li>
+ *   <li>보존 기간(retention-hours)이 지난 기록은 없는 것으로 본다. 정리 작업(매시) 전에 같은 키가 다시 오면
+ *       만료 기록을 지우고 새로 실행한다</li>
+ * </ul>
+ *
+ * <p>메모리 항목은 모두 같은 TTL 이라 넣은 순서 = 만료 순서 → 큐 앞에서부터 정리하고,
+ * 상한을 넘으면 가장 오래된 항목부터 버린다 (버려진 키는 DB 기록으로 응답).</p>
+ */
+@Slf4j
+@Component
+public class IdempotencyGuard {
+
+    /** 결과 (status: HTTP 상태 코드, body: 응답 본문, replayed: 저장된 응답을 돌려준 경우 true) */
+    public record Result(int status, FocusSessionDto body, boolean replayed) {
+
+        public static Result of(int status, FocusSessionDto body) {
+            return new Result(status, body, false);
+        }
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        Result asReplay() {
+            return new Result(status, body, true);
+        }
+    }
+
+    /** 키 형식: 1~64자 영숫자/-/_/:/. (UUID, ULID 등) */
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[A-Za-z0-9_\\-:.]{1,64}$");
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    /** 만료 기록 정리 시 한 번에 지우는 행 수 */
+    private static final int PURGE_CHUNK = 1000;
+
+    private final IdempotencyMapper idempotencyMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long waitMs;
+    private final int retentionHours;
+
+    /** (operation:key) → 항목 */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** 넣은 순서 (만료/상한 정리용) */
+    private final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyGuard(IdempotencyMapper idempotencyMapper,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${focusbank.idempotency.ttl-ms:600000}") long ttlMs,
+                            @Value("${focusbank.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${focusbank.idempotency.wait-ms:5000}") long waitMs,
+                            @Value("${focusbank.idempotency.retention-hours:24}") int retentionHours) {
+        this.idempotencyMapper = idempotencyMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.waitMs = waitMs;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * 키가 있으면 한 번만 실행하고 같은 키의 재시도에는 같은 응답을 돌려준다.
+     *
+     * @param key         Idempotency-Key 헤더 (null/빈 값이면 그냥 실행)
+     * @param operation   deposit | settle
+     * @param fingerprint 요청 식별값 (deposit: anonId, settle: sessionId)
+     * @param action      실제 처리 (트랜잭션 안에서 실행, 서비스 트랜잭션은 여기에 합류)
+     * @return 처리 결과 또는 저장된 결과
+     * @throws IllegalArgumentException 키 형식 오류
+     * @throws IllegalStateException    같은 키를 다른 요청에 사용, 또는 먼저 온 같은 요청이 아직 끝나지 않음
+     */
+    public Result execute(String key, String operation, String fingerprint, Supplier<Result> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Idempotency-Key 는 1~64자의 영문/숫자/-/_/:/. 만 사용할 수 있습니다.");
+        }
+        String cacheKey = operation + ':' + key;
+
+        while (true) {
+            long now = System.nanoTime();
+            Entry existing = entries.get(cacheKey);
+            if (existing != null && now - existing.createdAt < ttlNanos) {
+                Result replay = await(existing, fingerprint);
+                if (replay != null) return replay;
+                continue; // 먼저 온 요청이 실패 → 다시 경쟁
+            }
+
+            Entry mine = new Entry(fingerprint, now);
+            boolean claimed = existing == null
+                    ? entries.putIfAbsent(cacheKey, mine) == null
+                    : entries.replace(cacheKey, existing, mine);
+            if (!claimed) continue;
+
+            order.add(cacheKey);
+            evictExpired(now);
+            return runOnce(cacheKey, mine, key, operation, fingerprint, action);
+        }
+    }
+
+    /** 이 키의 첫 요청: DB 기록 확인 → (만료 기록 삭제) → 실행 → 같은 트랜잭션에서 기록 저장 */
+    private Result runOnce(String cacheKey, Entry mine, String key, String operation, String fingerprint,
+                           Supplier<Result> action) {
+        LocalDateTime since = LocalDateTime.now(KST).minusHours(retentionHours);
+        Result result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                // 재시작 전/다른 인스턴스에서 이미 처리한 키
+                Result stored = loadStored(key, operation, fingerprint, since);
+                if (stored != null) return stored;
+
+                // 보존 기간이 지났지만 아직 정리되지 않은 기록 → 남겨 두면 저장 시 PK 충돌로 작업 전체가 롤백됨
+                idempotencyMapper.deleteExpired(key, operation, since);
+
+                Result fresh = action.get();
+                if (fresh.isSuccess()) {
+                    idempotencyMapper.insert(new IdempotencyRecordDto(key, operation, fingerprint,
+                            fresh.status(), toJson(fresh.body()), LocalDateTime.now(KST).truncatedTo(ChronoUnit.SECONDS)));
+                }
+                return fresh;
+            });
+        } catch (DuplicateKeyException e) {
+            // 다른 인스턴스가 같은 키를 먼저 커밋 → 이번 작업은 롤백됨, 저장된 응답으로 대답
+            result = loadStored(key, operation, fingerprint, since);
+            if (result == null) {
+                fail(cacheKey, mine, e);
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            fail(cacheKey, mine, e);
+            throw e;
+        }
+
+        mine.future.complete(result);
+        if (!result.isSuccess()) {
+            entries.remove(cacheKey, mine); // 실패 응답은 기억하지 않음
+        }
+        return result;
+    }
+
+    /** 처리 중/완료 항목의 결과 (먼저 온 요청이 실패했으면 null) */
+    private Result await(Entry entry, String fingerprint) {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IllegalStateException("Idempotency-Key 가 다른 요청에 이미 사용되었습니다.");
+        }
+        try {
+            Result result = entry.future.get(waitMs, TimeUnit.MILLISECONDS);
+            return result.isSuccess() ? result.asReplay() : null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("같은 Idempotency-Key 요청을 처리하고 있습니다. 잠시 후 다시 시도하세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("요청 처리가 중단되었습니다.");
+        }
+    }
+
+    private Result loadStored(String key, String operation, String fingerprint, LocalDateTime since) {
+        IdempotencyRecordDto record = idempotencyMapper.find(key, operation, since);
+        if (record == null) return null;
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IllegalStateException("Idempotency-Key 가 다른 요청에 이미 사용되었습니다.");
+        }
+        return new Result(record.getStatusCode(), fromJson(record.getResponseBody()), true);
+    }
+
+    private void fail(String cacheKey, Entry mine, RuntimeException e) {
+        entries.remove(cacheKey, mine);
+        mine.future.completeExceptionally(e);
+    }
+
+    /** 만료 항목 정리 + 상한 초과 시 오래된 항목부터 제거 (처리 중인 항목도 제거될 수 있으나 DB 기록이 남음) */
+    private void evictExpired(long now) {
+        String head;
+        while ((head = order.peek()) != null) {
+            Entry e = entries.get(head);
+            boolean expired = e == null || now - e.createdAt >= ttlNanos;
+            if (!expired && entries.size() <= maxEntries) break;
+            if (order.remove(head) && e != null) {
+                entries.remove(head, e);
+            }
+        }
+    }
+
+    /** 보존 기간이 지난 DB 기록 정리 (매시 15분) */
+    @Scheduled(cron = "${focusbank.idempotency.purge-cron:0 15 * * * *}", zone = "Asia/Seoul")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now(KST).minusHours(retentionHours);
+        try {
+            int deleted;
+            long total = 0;
+            do {
+                deleted = idempotencyMapper.deleteOlderThan(before, PURGE_CHUNK);
+                total += deleted;
+            } while (deleted == PURGE_CHUNK);
+            if (total > 0) log.info("Idempotency keys purged: {}", total);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    private String toJson(FocusSessionDto body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답 저장 실패", e);
+        }
+    }
+
+    private FocusSessionDto fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, FocusSessionDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 응답을 읽을 수 없습니다.", e);
+        }
+    }
+
+    /** 처리 중(미완료 future) 또는 완료된 요청 */
+    private static final class Entry {
+        final String fingerprint;
+        final long createdAt;
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+
+        Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
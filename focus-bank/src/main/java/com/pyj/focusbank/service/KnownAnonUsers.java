@@ -0,0 +1,44 @@
+package com.pyj.focusbank.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * anonymous_user에 이미 존재한다고 확인된 anonId 집합.
+ *
+ * <p>입금 시 재방문 사용자는 ensureAnonUser(부모 행 보장)를 건너뛰어
+ * 세션 INSERT 1문장만 실행하도록 하기 위한 용도.
+ * anonymous_user 행은 삭제되지 않으므로(FK ON DELETE RESTRICT) 한 번 확인된 값은 계속 유효하다.
+ * 만일 어긋나더라도 FK 위반 시 제거 후 재보장하므로 정확성에는 영향이 없다.</p>
+ *
+ * <p>메모리 상한(max-size)을 넘으면 전체를 비우고 다시 채운다.</p>
+ */
+@Component
+public class KnownAnonUsers {
+
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    @Value("${focusbank.known-users.max-size:200000}")
+    private int maxSize;
+
+    /** 이미 존재가 확인된 사용자인지 여부 */
+    public boolean contains(String anonId) {
+        return known.contains(anonId);
+    }
+
+    /** 존재 확인된 사용자 기록 (커밋 후 호출) */
+    public void add(String anonId) {
+        if (known.size() >= maxSize) {
+            known.clear();
+        }
+        known.add(anonId);
+    }
+
+    /** 잘못 기억된 사용자 제거 */
+    public void evict(String anonId) {
+        known.remove(anonId);
+    }
+}
@@ -0,0 +1,297 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.RankingMapper;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import com.pyj.focusbank.dto.MyRankingDto;
+import com.pyj.focusbank.dto.RankingDto;
+import com.pyj.focusbank.dto.RankingPeriod;
+import com.pyj.focusbank.event.FocusSettledEvent;
+import com.pyj.focusbank.event.NicknameChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 인메모리 랭킹 엔진 (주간 / 전체 누적).
+ *
+ * <p>동작:
+ * <ul>
+ *   <li>부팅 시 사용자별 점수(초)를 적재 (주간: weekly_aggregate, 전체: user_total)</li>
+ *   <li>정산 커밋 후({@link FocusSettledEvent}) 해당 사용자 점수만 증분 갱신 — O(log n)</li>
+ *   <li>TOP N 조회는 순위 트리 앞에서 N개만 읽음 — O(log n + N), 테이블 스캔 없음</li>
+ *   <li>내 순위 + 위/아래 이웃 조회 — O(log n + k)</li>
+ *   <li>주간 보드는 월요일 00:00(KST)에 비움 (스케줄 + 조회/갱신 시 지연 확인)</li>
+ * </ul>
+ *
+ * <p>부팅 적재에 실패하면 {@link #isReady()}가 false로 남고
+ * {@link RankingServiceImpl}은 기존 SQL 집계로 대체한다.</p>
+ */
+@Slf4j
+@Component
+@DependsOn("aggregateBackfill")
+@RequiredArgsConstructor
+public class LeaderboardEngine {
+
+    private final RankingMapper rankingMapper;
+    private final AnonIdTypeHandler anonIdTypeHandler;
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final Board weekly = new Board();
+    private final Board overall = new Board();
+
+    /** anonId → 표시 이름(닉네임#태그). 없으면 anon-XXXX 마스킹 */
+    private final ConcurrentHashMap<String, String> displayNames = new ConcurrentHashMap<>();
+
+    /** 주간 보드가 집계 중인 주의 월요일 */
+    private volatile LocalDate weekStart;
+
+    /** 부팅 적재 성공 여부 */
+    private volatile boolean ready = false;
+
+    /** 부팅 시 주간/전체 합계 적재 */
+    @PostConstruct
+    public void load() {
+        LocalDate monday = LocalDate.now(KST).with(DayOfWeek.MONDAY);
+        try {
+            List<Map<String, Object>> weeklyRows = rankingMapper.selectWeeklyTotals(monday);
+            List<Map<String, Object>> overallRows = rankingMapper.selectOverallTotals();
+            weekStart = monday;
+            seed(weekly, weeklyRows);
+            seed(overall, overallRows);
+            ready = true;
+            log.info("LeaderboardEngine loaded: weekly={} overall={}", weekly.size(), overall.size());
+        } catch (DataAccessException e) {
+            log.warn("LeaderboardEngine load failed, falling back to SQL rankings: {}", e.getMessage());
+        }
+    }
+
+    private void seed(Board board, List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            String anonId = anonIdTypeHandler.fromColumn(row.get("anon_id"));
+            Number secNum = (Number) row.get("total_seconds");
+            board.add(anonId, secNum != null ? secNum.longValue() : 0L);
+
+            String nickname = (String) row.get("nickname");
+            String tag = (String) row.get("nickname_tag");
+            if (nickname != null && tag != null) {
+                displayNames.put(anonId, nickname + "#" + tag);
+            }
+        }
+    }
+
+    /** 인메모리 랭킹으로 응답할 수 있는지 여부 */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * TOP N 조회.
+     *
+     * @param period 기간
+     * @param limit  상위 N명
+     * @return 순위가 매겨진 랭킹 리스트
+     */
+    public List<RankingDto> top(RankingPeriod period, int limit) {
+        rollWeekIfNeeded();
+        return board(period).top(limit, this::displayName);
+    }
+
+    /**
+     * 내 순위 + 위/아래 k명 조회 — O(log n + k).
+     *
+     * @param period 기간
+     * @param anonId 조회할 사용자
+     * @param k      위/아래로 포함할 이웃 수
+     * @return 내 순위 응답 (기록이 없으면 me=null)
+     */
+    public MyRankingDto around(RankingPeriod period, String anonId, int k) {
+        rollWeekIfNeeded();
+        Board board = board(period);
+        List<List<RankingDto>> parts = board.around(anonId, k, this::displayName);
+        RankingDto me = parts.get(0).isEmpty() ? null : parts.get(0).get(0);
+        return new MyRankingDto(period.name().toLowerCase(), board.size(), me, parts.get(1), parts.get(2));
+    }
+
+    /**
+     * 사용자의 현재 점수(초).
+     *
+     * @return 점수, 보드에 없으면 0
+     */
+    public long scoreOf(RankingPeriod period, String anonId) {
+        rollWeekIfNeeded();
+        return board(period).score(anonId);
+    }
+
+    /** 정산 커밋 후 점수 증분 반영 (캐시 무효화 등 다른 리스너보다 먼저 실행) */
+    @Order(0)
+    @TransactionalEventListener
+    public void onSettled(FocusSettledEvent event) {
+        if (!ready) return;
+        rollWeekIfNeeded();
+        overall.add(event.getAnonId(), event.getSeconds());
+
+        // 이번 주에 시작된 세션만 주간 점수에 반영 (지난주 일요일에 시작한 세션 등은 제외)
+        LocalDate date = event.getTargetDate();
+        if (!date.isBefore(weekStart) && date.isBefore(weekStart.plusWeeks(1))) {
+            weekly.add(event.getAnonId(), event.getSeconds());
+        }
+    }
+
+    /** 닉네임 변경 커밋 후 표시 이름 갱신 */
+    @TransactionalEventListener
+    public void onNicknameChanged(NicknameChangedEvent event) {
+        if (event.getNickname() != null && event.getNicknameTag() != null) {
+            displayNames.put(event.getAnonId(), event.getNickname() + "#" + event.getNicknameTag());
+        }
+    }
+
+    /** 월요일 00:00(KST) 주간 보드 롤오버 */
+    @Scheduled(cron = "0 0 0 * * MON", zone = "Asia/Seoul")
+    public void rollWeekIfNeeded() {
+        LocalDate monday = LocalDate.now(KST).with(DayOfWeek.MONDAY);
+        if (weekStart == null || monday.equals(weekStart)) return;
+        synchronized (this) {
+            if (monday.equals(weekStart)) return;
+            weekly.clear();
+            weekStart = monday;
+            log.info("LeaderboardEngine weekly board rolled over to {}", monday);
+        }
+    }
+
+    private Board board(RankingPeriod period) {
+        return period == RankingPeriod.WEEKLY ? weekly : overall;
+    }
+
+    private String displayName(String anonId) {
+        String name = displayNames.get(anonId);
+        return name != null ? name : RankingServiceImpl.maskAnon(anonId);
+    }
+
+    /**
+     * 기간별 점수판.
+     * - scores: anonId → 점수 (해시 조회)
+     * - order : (점수 DESC, anonId ASC) 순위 트리 — 순위/구간 조회 O(log n)
+     * 두 구조를 함께 바꾸므로 읽기/쓰기 락으로 묶는다 (읽기는 동시 진행).
+     */
+    static final class Board {
+
+        private static final Comparator<Entry> ORDER =
+                Comparator.comparingLong(Entry::score).reversed()
+                        .thenComparing(Entry::anonId);
+
+        private final Map<String, Long> scores = new HashMap<>();
+        private final RankedTree<Entry> order = new RankedTree<>(ORDER);
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /** 점수 증분 (없던 사용자면 새로 추가) */
+        void add(String anonId, long delta) {
+            lock.writeLock().lock();
+            try {
+                Long old = scores.get(anonId);
+                long next = (old == null ? 0L : old) + delta;
+                if (old != null) {
+                    order.remove(new Entry(anonId, old));
+                }
+                scores.put(anonId, next);
+                order.add(new Entry(anonId, next));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /** 현재 점수 (없으면 0) */
+        long score(String anonId) {
+            lock.readLock().lock();
+            try {
+                return scores.getOrDefault(anonId, 0L);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /** 상위 limit명 */
+        List<RankingDto> top(int limit, Function<String, String> names) {
+            lock.readLock().lock();
+            try {
+                return toDtos(order.range(0, limit), 0, names);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * 내 순위와 위/아래 k명.
+         *
+         * @return [me(0~1건), above, below]
+         */
+        List<List<RankingDto>> around(String anonId, int k, Function<String, String> names) {
+            lock.readLock().lock();
+            try {
+                Long score = scores.get(anonId);
+                if (score == null) {
+                    return List.of(List.of(), List.of(), List.of());
+                }
+                int rank = order.rankOf(new Entry(anonId, score));
+                int from = Math.max(0, rank - k);
+                return List.of(
+                        toDtos(order.range(rank, rank + 1), rank, names),
+                        toDtos(order.range(from, rank), from, names),
+                        toDtos(order.range(rank + 1, rank + 1 + k), rank + 1, names));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static List<RankingDto> toDtos(List<Entry> entries, int firstIndex, Function<String, String> names) {
+            List<RankingDto> list = new ArrayList<>(entries.size());
+            int rank = firstIndex + 1;
+            for (Entry e : entries) {
+                list.add(new RankingDto(rank++, e.anonId(), names.apply(e.anonId()), (int) e.score()));
+            }
+            return list;
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                scores.clear();
+                order.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return scores.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /** 정렬 원소 (불변) */
+    private record Entry(String anonId, long score) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.dto.LeaderboardDeltaDto;
+import com.pyj.focusbank.dto.RankingDto;
+import com.pyj.focusbank.dto.RankingPeriod;
+import com.pyj.focusbank.event.DailyAggregatesFlushedEvent;
+import com.pyj.focusbank.event.FocusSettledEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정산 커밋 후 실시간 스트림(SSE)으로 변경분을 밀어준다.
+ *
+ * <ul>
+ *   <li>"leaderboard": 정산한 사용자의 새 주간/전체 순위 (랭킹 엔진 메모리 조회)
+ *       — 상위 rank-limit 안이면 전체에, 아니면 본인에게만</li>
+ *   <li>"today": 본인의 해당 날짜 누적 (구독 중일 때만, DB 조회는 별도 스레드)</li>
+ *   <li>"goal": 본인의 일/주/월 목표 진행률 (구독 중일 때만)</li>
+ * </ul>
+ *
+ * <p>"today"/"goal" 은 daily_aggregate 를 읽으므로, write-behind 모드라 정산 커밋 시점에 아직 반영되지 않은
+ * 증분이면({@link FocusSettledEvent#isAggregated()} = false) flusher 가 반영한 뒤
+ * ({@link DailyAggregatesFlushedEvent}) 밀어준다.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveUpdatePublisher {
+
+    private final SseHub sseHub;
+    private final LeaderboardEngine leaderboardEngine;
+    private final ReportService reportService;
+    private final GoalService goalService;
+
+    @Value("${focusbank.sse.leaderboard-rank-limit:100}")
+    private int rankLimit;
+
+    /** 본인 상태 조회용 (정산 응답 스레드를 막지 않도록 분리, 밀리면 가장 오래된 작업을 버림) */
+    private ExecutorService userStateExecutor;
+
+    @PostConstruct
+    void start() {
+        userStateExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(1000),
+                r -> {
+                    Thread t = new Thread(r, "sse-user-state");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        userStateExecutor.shutdownNow();
+    }
+
+    /** 정산 커밋 후 (랭킹 엔진/캐시 리스너 이후 실행) */
+    @Order(20)
+    @TransactionalEventListener
+    public void onSettled(FocusSettledEvent event) {
+        if (sseHub.subscriberCount() == 0) return;
+        String anonId = event.getAnonId();
+
+        LeaderboardDeltaDto delta = leaderboardEngine.isReady()
+                ? new LeaderboardDeltaDto(anonId, me(RankingPeriod.WEEKLY, anonId), me(RankingPeriod.OVERALL, anonId))
+                : new LeaderboardDeltaDto(anonId, null, null);
+        if (delta.getWeekly() == null || delta.getOverall() == null
+                || delta.getWeekly().getRank() <= rankLimit || delta.getOverall().getRank() <= rankLimit) {
+            sseHub.broadcast("leaderboard", delta);
+        } else {
+            sseHub.sendTo(anonId, "leaderboard", delta);
+        }
+
+        if (event.isAggregated() && sseHub.hasSubscribers(anonId)) {
+            LocalDate date = event.getTargetDate();
+            userStateExecutor.execute(() -> pushUserState(anonId, date));
+        }
+    }
+
+    /** write-behind 증분 반영 후 (해당 키를 구독 중인 사용자에게만 본인 상태 푸시) */
+    @EventListener
+    public void onFlushed(DailyAggregatesFlushedEvent event) {
+        if (sseHub.subscriberCount() == 0) return;
+        for (DailyAggregateDeltaDto d : event.getDeltas()) {
+            if (sseHub.hasSubscribers(d.getAnonId())) {
+                String anonId = d.getAnonId();
+                LocalDate date = d.getTargetDate();
+                userStateExecutor.execute(() -> pushUserState(anonId, date));
+            }
+        }
+    }
+
+    private RankingDto me(RankingPeriod period, String anonId) {
+        return leaderboardEngine.around(period, anonId, 0).getMe();
+    }
+
+    private void pushUserState(String anonId, LocalDate date) {
+        try {
+            sseHub.sendTo(anonId, "today", reportService.getDailySummary(anonId, date.toString()));
+
+            sseHub.sendTo(anonId, "goal", goalService.getAllProgress(anonId));
+        } catch (RuntimeException e) {
+            log.warn("live user state push failed for {}: {}", anonId, e.getMessage());
+        }
+    }
+}
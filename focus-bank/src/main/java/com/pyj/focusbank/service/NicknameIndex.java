@@ -0,0 +1,206 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.UserProfileMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 사용 중인 닉네임 인메모리 색인 (닉네임 입력 중 실시간 중복 확인용).
+ *
+ * <p>동작:
+ * <ul>
+ *   <li>부팅 시 anonymous_user 의 닉네임을 모두 적재</li>
+ *   <li>닉네임 저장 커밋 후 이전 닉네임 제거 / 새 닉네임 추가</li>
+ *   <li>조회는 블룸 필터를 먼저 확인 → "없음"이면 해시 조회 없이 바로 사용 가능 (대부분의 입력이 여기서 끝남)</li>
+ *   <li>키는 대소문자를 접어 비교 (DB 기본 collation(_ci)의 {@code nickname = ?} 비교와 같게)</li>
+ * </ul>
+ *
+ * <p>블룸 필터는 제거를 지원하지 않으므로 바뀐 닉네임은 "있을 수 있음"으로 남고, 그 경우만 해시 조회로 확정한다.
+ * 부팅 적재에 실패하면 {@link #isReady()}가 false 로 남고 {@link ProfileServiceImpl}은 DB 조회로 대체한다.
+ * 저장 시 중복 검사는 여전히 DB 기준이다.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NicknameIndex {
+
+    private final UserProfileMapper userProfileMapper;
+
+    /** 닉네임 최대 길이 (ProfileServiceImpl 정책과 동일) */
+    private static final int MAX_LENGTH = 16;
+
+    /** 추천 후보를 만들 때 시도할 최대 번호 */
+    private static final int MAX_SUGGEST_ATTEMPTS = 500;
+
+    @Value("${focusbank.nickname-index.expected-size:100000}")
+    private int expectedSize;
+
+    @Value("${focusbank.nickname-index.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /** 접은 닉네임 → 사용 중인 사용자 수 */
+    private final ConcurrentHashMap<String, Integer> taken = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    /** 부팅 적재 성공 여부 */
+    private volatile boolean ready = false;
+
+    /** 부팅 시 사용 중인 닉네임 적재 */
+    @PostConstruct
+    public void load() {
+        try {
+            List<String> nicknames = userProfileMapper.selectAllNicknames();
+            BloomFilter bloom = new BloomFilter(Math.max(expectedSize, nicknames.size() * 2), falsePositiveRate);
+            for (String nickname : nicknames) {
+                String key = fold(nickname);
+                taken.merge(key, 1, Integer::sum);
+                bloom.put(key);
+            }
+            filter = bloom;
+            ready = true;
+            log.info("NicknameIndex loaded: {} nicknames", taken.size());
+        } catch (DataAccessException e) {
+            log.warn("NicknameIndex load failed, falling back to DB lookups: {}", e.getMessage());
+        }
+    }
+
+    /** 인메모리 색인으로 응답할 수 있는지 여부 */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 이미 사용 중인 닉네임인지 여부.
+     *
+     * @param nickname 정규화(trim)된 닉네임
+     */
+    public boolean isTaken(String nickname) {
+        String key = fold(nickname);
+        if (!filter.mightContain(key)) return false;
+        return taken.containsKey(key);
+    }
+
+    /**
+     * 요청한 닉네임으로 시작하는 사용 가능한 대안 (닉네임1, 닉네임2, ... 순).
+     * 길이 상한을 넘으면 앞부분을 잘라 번호를 붙인다.
+     *
+     * @param nickname 정규화(trim)·유효성 검사를 통과한 닉네임
+     * @param limit    최대 개수
+     * @return 사용 가능한 닉네임 목록 (최대 limit 개)
+     */
+    public List<String> suggest(String nickname, int limit) {
+        List<String> result = new ArrayList<>(limit);
+        for (int n = 1; n <= MAX_SUGGEST_ATTEMPTS && result.size() < limit; n++) {
+            String suffix = Integer.toString(n);
+            String base = nickname.length() + suffix.length() > MAX_LENGTH
+                    ? nickname.substring(0, MAX_LENGTH - suffix.length())
+                    : nickname;
+            String candidate = base + suffix;
+            if (!isTaken(candidate)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 닉네임 변경 반영 (커밋 후 호출).
+     *
+     * @param oldNickname 이전 닉네임 (없으면 null)
+     * @param newNickname 새 닉네임
+     */
+    public void replace(String oldNickname, String newNickname) {
+        if (!ready) return;
+        if (oldNickname != null) {
+            taken.computeIfPresent(fold(oldNickname), (k, count) -> count > 1 ? count - 1 : null);
+        }
+        String key = fold(newNickname);
+        // 필터에 먼저 넣어야 "필터엔 없고 맵엔 있음" 상태가 생기지 않는다
+        filter.put(key);
+        taken.merge(key, 1, Integer::sum);
+    }
+
+    /** 대소문자 접기 (영문 대문자가 없으면 새 문자열을 만들지 않음) */
+    static String fold(String nickname) {
+        for (int i = 0; i < nickname.length(); i++) {
+            char c = nickname.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return nickname.toLowerCase(Locale.ROOT);
+            }
+        }
+        return nickname;
+    }
+
+    /**
+     * 스레드 안전 블룸 필터 (추가만 지원).
+     * 해시는 String.hashCode(캐시됨) 기반 이중 해싱이라 조회 시 객체를 만들지 않는다.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        /**
+         * @param expected          예상 원소 수
+         * @param falsePositiveRate 목표 오탐률 (0~1)
+         */
+        BloomFilter(int expected, double falsePositiveRate) {
+            int n = Math.max(expected, 1);
+            double p = Math.min(Math.max(falsePositiveRate, 1e-6), 0.5);
+            long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min((m + 63) / 64, Integer.MAX_VALUE);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        void put(String key) {
+            int h1 = key.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(h1, h2, i);
+                long mask = 1L << bit;
+                bits.accumulateAndGet((int) (bit >>> 6), mask, (a, b) -> a | b);
+            }
+        }
+
+        boolean mightContain(String key) {
+            int h1 = key.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(h1, h2, i);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int h1, int h2, int i) {
+            long combined = (h1 & 0xffffffffL) + (long) i * (h2 & 0xffffffffL);
+            return Math.floorMod(combined, bitCount);
+        }
+
+        /** murmur3 fmix32 — hashCode 로부터 두 번째 독립 해시를 만든다 */
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h | 1;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.UserProfileMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 닉네임별 태그(0001~9999) 할당기.
+ *
+ * <p>동작:
+ * <ul>
+ *   <li>부팅 시 (닉네임, 태그) 사용 현황을 닉네임별 비트맵으로 적재</li>
+ *   <li>할당은 비어 있는 가장 작은 태그 — 64비트 단위로 훑으므로 최대 157워드 확인 (사실상 O(1))</li>
+ *   <li>비트는 INSERT/UPDATE 전에 선점하므로 동시 요청이 같은 태그를 받지 않는다
+ *       (롤백되면 반납, 닉네임 변경이 커밋되면 이전 태그 반납)</li>
+ *   <li>9999개를 모두 쓴 닉네임은 즉시 실패 → uq_nickname 위반으로 재시도하는 일이 없다</li>
+ * </ul>
+ *
+ * <p>비트맵은 쓰인 가장 큰 태그까지만 워드를 늘리므로 (작은 태그부터 채움)
+ * 사용자가 몇 명뿐인 닉네임은 long 1개면 된다. 키는 {@link NicknameIndex#fold}로 대소문자를 접는다.</p>
+ *
+ * <p>부팅 적재에 실패하면 {@link #isReady()}가 false 로 남고 {@link ProfileServiceImpl}은 기존 무작위 태그로 대체한다.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NicknameTagAllocator {
+
+    private final UserProfileMapper userProfileMapper;
+
+    /** 태그 최댓값 (4자리) */
+    static final int MAX_TAG = 9999;
+
+    /** 접은 닉네임 → 사용 중인 태그 비트맵 */
+    private final ConcurrentHashMap<String, TagSet> tags = new ConcurrentHashMap<>();
+
+    /** 부팅 적재 성공 여부 */
+    private volatile boolean ready = false;
+
+    /** 부팅 시 사용 중인 (닉네임, 태그) 적재 */
+    @PostConstruct
+    public void load() {
+        try {
+            List<Map<String, Object>> rows = userProfileMapper.selectNicknameTags();
+            for (Map<String, Object> row : rows) {
+                int tag = parse((String) row.get("nickname_tag"));
+                if (tag > 0) {
+                    tags.computeIfAbsent(NicknameIndex.fold((String) row.get("nickname")), k -> new TagSet()).mark(tag);
+                }
+            }
+            ready = true;
+            log.info("NicknameTagAllocator loaded: {} nicknames, {} tags", tags.size(), rows.size());
+        } catch (DataAccessException e) {
+            log.warn("NicknameTagAllocator load failed, falling back to random tags: {}", e.getMessage());
+        }
+    }
+
+    /** 비트맵으로 할당할 수 있는지 여부 */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 닉네임에 쓸 태그를 선점한다. 현재 트랜잭션이 롤백되면 자동 반납.
+     *
+     * @param nickname     정규화된 닉네임
+     * @param preferredTag 가능하면 유지할 태그 (닉네임 변경 시 기존 태그, 없으면 null)
+     * @return 선점한 4자리 태그
+     * @throws IllegalStateException 해당 닉네임의 태그가 모두 사용 중
+     */
+    public String claim(String nickname, String preferredTag) {
+        String key = NicknameIndex.fold(nickname);
+        int preferred = parse(preferredTag);
+        int[] claimed = {-1};
+
+        // 반납(빈 비트맵 제거)과 엇갈리지 않도록 맵의 키 단위 잠금 안에서 선점
+        tags.compute(key, (k, set) -> {
+            TagSet s = set != null ? set : new TagSet();
+            claimed[0] = preferred > 0 && s.tryMark(preferred) ? preferred : s.markLowestFree();
+            return s.isEmpty() ? null : s;
+        });
+        int tag = claimed[0];
+        if (tag < 0) {
+            throw new IllegalStateException("이 닉네임은 사용할 수 있는 태그가 모두 소진되었습니다.");
+        }
+        TransactionHooks.afterRollback(() -> release(key, tag));
+        return format(tag);
+    }
+
+    /**
+     * 더 이상 쓰지 않는 (닉네임, 태그) 반납 — 현재 트랜잭션 커밋 후 반영.
+     *
+     * @param nickname 이전 닉네임 (null 이면 무시)
+     * @param tag      이전 태그 (null 이면 무시)
+     */
+    public void releaseAfterCommit(String nickname, String tag) {
+        int value = parse(tag);
+        if (nickname == null || value <= 0) return;
+        String key = NicknameIndex.fold(nickname);
+        TransactionHooks.afterCommit(() -> release(key, value));
+    }
+
+    private void release(String key, int tag) {
+        tags.computeIfPresent(key, (k, set) -> set.clear(tag) ? null : set);
+    }
+
+    /** "0042" → 42, 형식이 다르면 -1 */
+    static int parse(String tag) {
+        if (tag == null || tag.length() != 4) return -1;
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            char c = tag.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value >= 1 && value <= MAX_TAG ? value : -1;
+    }
+
+    /** 42 → "0042" (String.format 없이 0 패딩) */
+    static String format(int tag) {
+        char[] buf = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            buf[i] = (char) ('0' + tag % 10);
+            tag /= 10;
+        }
+        return new String(buf);
+    }
+
+    /**
+     * 한 닉네임의 태그 사용 비트맵 (비트 i = 태그 i, 0번 비트는 항상 사용 처리).
+     * 쓰인 가장 큰 태그까지만 워드를 늘린다.
+     */
+    static final class TagSet {
+
+        private static final int MAX_WORDS = (MAX_TAG >>> 6) + 1;
+
+        private long[] words = {1L};
+        private int count = 0;
+
+        /** 선점 (load 용, 이미 사용 중이어도 무시) */
+        synchronized void mark(int tag) {
+            tryMark(tag);
+        }
+
+        /** 비어 있으면 선점하고 true */
+        synchronized boolean tryMark(int tag) {
+            int w = tag >>> 6;
+            ensure(w);
+            long bit = 1L << tag;
+            if ((words[w] & bit) != 0) return false;
+            words[w] |= bit;
+            count++;
+            return true;
+        }
+
+        /** 비어 있는 가장 작은 태그를 선점, 모두 사용 중이면 -1 */
+        synchronized int markLowestFree() {
+            for (int w = 0; w < MAX_WORDS; w++) {
+                long word = w < words.length ? words[w] : 0L;
+                if (word == -1L) continue;
+                int tag = (w << 6) + Long.numberOfTrailingZeros(~word);
+                if (tag > MAX_TAG) return -1;
+                tryMark(tag);
+                return tag;
+            }
+            return -1;
+        }
+
+        synchronized boolean isEmpty() {
+            return count == 0;
+        }
+
+        /** 반납, 남은 태그가 없으면 true (맵에서 제거) */
+        synchronized boolean clear(int tag) {
+            int w = tag >>> 6;
+            if (w >= words.length) return count == 0;
+            long bit = 1L << tag;
+            if ((words[w] & bit) != 0) {
+                words[w] &= ~bit;
+                count--;
+            }
+            return count == 0;
+        }
+
+        private void ensure(int w) {
+            if (w >= words.length) {
+                words = Arrays.copyOf(words, Math.min(Math.max(w + 1, words.length * 2), MAX_WORDS));
+            }
+        }
+    }
+}
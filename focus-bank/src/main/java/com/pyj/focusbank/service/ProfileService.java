@@ -1,6 +1,7 @@
 package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dto.ProfileDto;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProfileService {
@@ -40,6 +41,16 @@ public interface ProfileService {
      */
     boolean isValidNickname(String nickname); // 🔹 추가
 
+    /**
+     * 사용 가능한 대안 닉네임 추천.
+     * <p>요청한 닉네임 뒤에 번호를 붙인 후보 중 비어 있는 것만 반환합니다. (예: 집중장인1, 집중장인2)</p>
+     *
+     * @param nickname 기준 닉네임
+     * @param limit    최대 개수
+     * @return 사용 가능한 닉네임 목록 (형식 오류면 빈 목록)
+     */
+    List<String> suggestNicknames(String nickname, int limit);
+
     /**
      * 닉네임 생성/변경(Upsert) 처리.
      * <p>처리 순서:
@@ -2,11 +2,15 @@ package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dao.UserProfileMapper;
 import com.pyj.focusbank.dto.ProfileDto;
+import com.pyj.focusbank.event.NicknameChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -14,6 +18,15 @@ import java.util.Optional;
 public class ProfileServiceImpl implements ProfileService {
 
     private final UserProfileMapper userProfileMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NicknameIndex nicknameIndex;
+    private final NicknameTagAllocator tagAllocator;
+
+    /** 닉네임 허용 문자셋 (한 번만 컴파일) */
+    private static final Pattern NICKNAME_PATTERN = Pattern.compile("^[A-Za-z0-9가-힣_]{2,16}$");
+
+    /** 대안 닉네임 추천 최대 개수 */
+    private static final int MAX_SUGGESTIONS = 10;
 
     /**
      * anonId로 프로필을 조회한다.
@@ -71,21 +84,42 @@ public class ProfileServiceImpl implements ProfileService {
             return false;
         }
 
-        // (3) 중복 검사: 동일 닉네임이 이미 존재하면 사용 불가
+        // (3) 중복 검사: 인메모리 색인 우선 (적재 실패 시 DB 조회)
+        if (nicknameIndex.isReady()) {
+            return !nicknameIndex.isTaken(normalized);
+        }
         ProfileDto exists = userProfileMapper.findByNickname(normalized);
 
         // (4) null(없음)이면 사용 가능, 있으면 불가
         return (exists == null);
     }
 
+    /**
+     * 요청한 닉네임으로 시작하는 사용 가능한 대안 닉네임을 추천한다.
+     *
+     * @param nickname 기준 닉네임(원본)
+     * @param limit    최대 개수 (1~10으로 보정)
+     * @return 사용 가능한 닉네임 목록, 형식 오류이거나 색인 준비 전이면 빈 목록
+     */
+    @Override
+    public List<String> suggestNicknames(String nickname, int limit) {
+        String normalized = normalize(nickname);
+        if (!isValidNickname(normalized) || !nicknameIndex.isReady()) {
+            return List.of();
+        }
+        return nicknameIndex.suggest(normalized, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
     /**
      * 닉네임 Upsert(생성/변경) 처리.
      *
      * <p>동작 규칙:
      * <ul>
      *   <li>닉네임 없으면 INSERT (태그 4자리 자동 부여)</li>
-     *   <li>이미 있으면 UPDATE (태그는 고정, 닉네임만 변경)</li>
+     *   <li>이미 있으면 UPDATE (기존 태그가 새 닉네임에서 비어 있으면 유지, 아니면 새로 부여)</li>
      * </ul>
+     * 태그는 {@link NicknameTagAllocator}가 닉네임별 비어 있는 값을 미리 선점해 주므로
+     * uq_nickname 충돌로 실패/재시도하지 않는다.
      *
      * @param anonId  익명 식별자
      * @param nickname 설정하고자 하는 닉네임(원본)
@@ -119,14 +153,15 @@ public class ProfileServiceImpl implements ProfileService {
 
         if (mine == null) {
             // ---------- [INSERT] 최초 등록 ----------
-            // 시스템이 4자리 태그 자동 생성 (예: "0042")
-            String nicknameTag = generateTag();
+            // 시스템이 4자리 태그 부여 (예: "0042", 닉네임별 비어 있는 가장 작은 값)
+            String nicknameTag = tagAllocator.isReady() ? tagAllocator.claim(normalized, null) : generateTag();
 
             // DB에 새 사용자 삽입 (닉네임 + 태그)
             userProfileMapper.insert(anonId, normalized, nicknameTag);
+            TransactionHooks.afterCommit(() -> nicknameIndex.replace(null, normalized));
 
             // 최종 상태를 DB에서 다시 조회해서 반환 (DB 값 기준으로 일원화)
-            return userProfileMapper.findByAnonId(anonId);
+            return publishChanged(userProfileMapper.findByAnonId(anonId));
 
         } else {
             // ---------- [UPDATE] 기존 사용자 ----------
@@ -135,23 +170,35 @@ public class ProfileServiceImpl implements ProfileService {
                 return mine;
             }
 
-            // 닉네임만 업데이트 (태그는 고정/불변)
-            userProfileMapper.updateNickname(anonId, normalized);
+            // 태그 결정: 대소문자만 바뀐 경우(같은 키) 그대로, 아니면 새 닉네임에서 기존 태그를 유지할 수 있는지 확인
+            String previous = mine.getNickname();
+            String previousTag = mine.getNicknameTag();
+            String nicknameTag = previousTag;
+            boolean sameKey = previous != null && NicknameIndex.fold(previous).equals(NicknameIndex.fold(normalized));
+            if (tagAllocator.isReady() && !sameKey) {
+                nicknameTag = tagAllocator.claim(normalized, previousTag);
+                tagAllocator.releaseAfterCommit(previous, previousTag);
+            } else if (nicknameTag == null) {
+                nicknameTag = generateTag();
+            }
+
+            userProfileMapper.updateNickname(anonId, normalized, nicknameTag);
+            TransactionHooks.afterCommit(() -> nicknameIndex.replace(previous, normalized));
 
             // 변경된 최신 상태를 DB에서 재조회 후 반환
-            return userProfileMapper.findByAnonId(anonId);
+            return publishChanged(userProfileMapper.findByAnonId(anonId));
         }
     }
 
     /**
-     * 시스템 자동 태그 생성기.
+     * 시스템 자동 태그 생성기 (태그 할당기 적재 실패 시 대체용).
      *
      * <p>0001 ~ 9999 범위의 4자리 숫자 문자열을 랜덤 생성한다.
      * 예: "0042", "9876"
      *
      * @return 4자리 문자열 태그
      */
-    private String generateTag() {
+    static String generateTag() {
         // (1) 1~9999 사이의 난수 생성
         int num = (int) (Math.random() * 9999) + 1;
 
@@ -180,12 +227,26 @@ public class ProfileServiceImpl implements ProfileService {
         // (2) 길이 제한 확인
         if (nickname.length() < 2 || nickname.length() > 16) return false;
 
-        // (3) 허용 문자셋 확인(정규식)
-        return nickname.matches("^[A-Za-z0-9가-힣_]{2,16}$");
+        // (3) 허용 문자셋 확인(미리 컴파일한 정규식)
+        return NICKNAME_PATTERN.matcher(nickname).matches();
     }
 
     // ===================== 내부 유틸 =====================
 
+    /**
+     * 닉네임 변경 이벤트 발행 (랭킹 표시 이름 등은 커밋 후 반영).
+     *
+     * @param saved 저장 후 재조회한 프로필
+     * @return saved 그대로
+     */
+    private ProfileDto publishChanged(ProfileDto saved) {
+        if (saved != null) {
+            eventPublisher.publishEvent(
+                    new NicknameChangedEvent(saved.getAnonId(), saved.getNickname(), saved.getNicknameTag()));
+        }
+        return saved;
+    }
+
     /**
      * 닉네임 정규화: null-safe trim.
      *
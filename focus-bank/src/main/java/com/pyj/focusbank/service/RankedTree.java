@@ -0,0 +1,171 @@
+package com.pyj.focusbank.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 순위(order-statistics) 조회가 가능한 정렬 트리 (treap + 서브트리 크기).
+ *
+ * <p>일반 TreeSet은 "k번째 원소"나 "이 원소의 순위"를 구하려면 O(n) 순회가 필요하다.
+ * 각 노드에 서브트리 크기를 두어 아래 연산을 모두 기대 O(log n)으로 처리한다.
+ * <ul>
+ *   <li>{@link #add}, {@link #remove}</li>
+ *   <li>{@link #rankOf} : 0-based 순위</li>
+ *   <li>{@link #range} : 순위 구간 [from, to) 원소 (O(log n + 구간 길이))</li>
+ * </ul>
+ *
+ * <p>스레드 안전하지 않다. 호출 측에서 락으로 보호해야 한다.</p>
+ *
+ * @param <E> 원소 타입 (comparator 기준 중복 없음)
+ */
+final class RankedTree<E> {
+
+    private final Comparator<? super E> comparator;
+    private Node<E> root;
+
+    RankedTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    private static final class Node<E> {
+        final E value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node<E> left;
+        Node<E> right;
+        int size = 1;
+
+        Node(E value) {
+            this.value = value;
+        }
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /** 원소 추가 (이미 같은 원소가 있으면 무시) */
+    void add(E value) {
+        if (rankOf(value) >= 0) return;
+        Node<E>[] parts = split(root, value);
+        root = merge(merge(parts[0], new Node<>(value)), parts[1]);
+    }
+
+    /** 원소 제거 (없으면 무시) */
+    void remove(E value) {
+        root = remove(root, value);
+    }
+
+    /**
+     * 원소의 0-based 순위.
+     *
+     * @return 순위, 없으면 -1
+     */
+    int rankOf(E value) {
+        Node<E> n = root;
+        int before = 0;
+        while (n != null) {
+            int c = comparator.compare(value, n.value);
+            if (c == 0) {
+                return before + size(n.left);
+            }
+            if (c < 0) {
+                n = n.left;
+            } else {
+                before += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 순위 구간 [from, to) 의 원소를 순서대로 반환.
+     *
+     * @param from 시작 순위(포함, 0-based)
+     * @param to   끝 순위(제외)
+     */
+    List<E> range(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size(), to);
+        List<E> out = new ArrayList<>(Math.max(0, to - from));
+        if (from < to) {
+            collect(root, 0, from, to, out);
+        }
+        return out;
+    }
+
+    // ===================== 내부 구현 =====================
+
+    private void collect(Node<E> n, int offset, int from, int to, List<E> out) {
+        if (n == null) return;
+        int idx = offset + size(n.left); // n의 순위
+        if (from < idx) {
+            collect(n.left, offset, from, to, out);
+        }
+        if (idx >= from && idx < to) {
+            out.add(n.value);
+        }
+        if (idx + 1 < to) {
+            collect(n.right, idx + 1, from, to, out);
+        }
+    }
+
+    /** value 미만 / 이상으로 분할 */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node<E>[] split(Node<E> n, E value) {
+        if (n == null) return new Node[]{null, null};
+        if (comparator.compare(n.value, value) < 0) {
+            Node<E>[] parts = split(n.right, value);
+            n.right = parts[0];
+            update(n);
+            return new Node[]{n, parts[1]};
+        }
+        Node<E>[] parts = split(n.left, value);
+        n.left = parts[1];
+        update(n);
+        return new Node[]{parts[0], n};
+    }
+
+    /** a의 모든 원소 < b의 모든 원소일 때 병합 */
+    private Node<E> merge(Node<E> a, Node<E> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private Node<E> remove(Node<E> n, E value) {
+        if (n == null) return null;
+        int c = comparator.compare(value, n.value);
+        if (c == 0) {
+            return merge(n.left, n.right);
+        }
+        if (c < 0) {
+            n.left = remove(n.left, value);
+        } else {
+            n.right = remove(n.right, value);
+        }
+        update(n);
+        return n;
+    }
+
+    private static int size(Node<?> n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static void update(Node<?> n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+}
@@ -0,0 +1,198 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyj.focusbank.dto.RankingDto;
+import com.pyj.focusbank.dto.RankingPeriod;
+import com.pyj.focusbank.event.FocusSettledEvent;
+import com.pyj.focusbank.event.NicknameChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 랭킹 TOP N 응답 캐시 (직렬화된 JSON 바이트 보관).
+ *
+ * <p>모든 사용자가 같은 목록을 보므로 (기간, limit) 별로 한 번만 만들고
+ * 이후 요청은 DTO 생성/Jackson 직렬화 없이 바이트를 그대로 내려준다.</p>
+ *
+ * <p>무효화:
+ * <ul>
+ *   <li>정산 커밋 후: 해당 사용자가 목록에 있거나, 새 점수가 목록 최저 점수 이상이거나,
+ *       목록이 limit 보다 짧으면 그 항목만 제거 (점수는 증가만 하므로 그 외엔 순위 불변)</li>
+ *   <li>닉네임 변경 커밋 후: 해당 사용자가 목록에 있는 항목만 제거</li>
+ *   <li>주간 항목은 다른 주에 만들어졌으면 무효</li>
+ *   <li>안전망: TTL 경과 시 무효</li>
+ * </ul>
+ *
+ * <p>Actuator 메트릭: {@code focusbank.ranking.cache{period, result=hit|miss}},
+ * {@code focusbank.ranking.cache.invalidations{period}}</p>
+ */
+@Slf4j
+@Component
+public class RankingResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final LeaderboardEngine leaderboardEngine;
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @Value("${focusbank.ranking-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${focusbank.ranking-cache.ttl-ms:5000}")
+    private long ttlMs;
+
+    /** (기간, limit) → 캐시 항목 */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** 무효화 세대. 목록을 만드는 도중 무효화가 일어나면 그 결과는 저장하지 않는다 */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<RankingPeriod, Counter> hits = new EnumMap<>(RankingPeriod.class);
+    private final Map<RankingPeriod, Counter> misses = new EnumMap<>(RankingPeriod.class);
+    private final Map<RankingPeriod, Counter> invalidations = new EnumMap<>(RankingPeriod.class);
+
+    public RankingResponseCache(ObjectMapper objectMapper, LeaderboardEngine leaderboardEngine, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.leaderboardEngine = leaderboardEngine;
+        for (RankingPeriod p : RankingPeriod.values()) {
+            String period = p.name().toLowerCase();
+            hits.put(p, meterRegistry.counter("focusbank.ranking.cache", "period", period, "result", "hit"));
+            misses.put(p, meterRegistry.counter("focusbank.ranking.cache", "period", period, "result", "miss"));
+            invalidations.put(p, meterRegistry.counter("focusbank.ranking.cache.invalidations", "period", period));
+        }
+    }
+
+    /**
+     * 캐시된 JSON 조회. 없거나 무효면 loader 로 만들어 저장한다.
+     *
+     * @param period 기간
+     * @param limit  상위 N명
+     * @param loader 랭킹 목록 생성 함수
+     * @return {@code List<RankingDto>} 의 JSON 바이트
+     */
+    public byte[] get(RankingPeriod period, int limit, Supplier<List<RankingDto>> loader) {
+        if (!enabled) {
+            return encode(loader.get());
+        }
+        String key = period + "|" + limit;
+        LocalDate weekStart = currentWeekStart();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isValid(weekStart)) {
+            hits.get(period).increment();
+            return entry.json;
+        }
+
+        misses.get(period).increment();
+        long gen = generation.get();
+        List<RankingDto> list = loader.get();
+        Entry fresh = new Entry(period, limit, list, encode(list), weekStart, System.nanoTime() + ttlMs * 1_000_000L);
+        if (generation.get() == gen) {
+            entries.put(key, fresh);
+        }
+        return fresh.json;
+    }
+
+    /** 정산 커밋 후: 영향받는 항목만 제거 (랭킹 엔진 점수 반영 이후 실행) */
+    @Order(10)
+    @TransactionalEventListener
+    public void onSettled(FocusSettledEvent event) {
+        generation.incrementAndGet();
+        if (entries.isEmpty()) return;
+        String anonId = event.getAnonId();
+        boolean thisWeek = !event.getTargetDate().isBefore(currentWeekStart());
+        boolean engineReady = leaderboardEngine.isReady();
+
+        entries.values().removeIf(e -> {
+            if (e.period == RankingPeriod.WEEKLY && !thisWeek) return false;
+            boolean affected = !engineReady // 새 점수를 알 수 없으면 보수적으로 제거
+                    || e.anonIds.contains(anonId)
+                    || e.size < e.limit
+                    || leaderboardEngine.scoreOf(e.period, anonId) >= e.minScore;
+            if (affected) invalidations.get(e.period).increment();
+            return affected;
+        });
+    }
+
+    /** 닉네임 변경 커밋 후: 해당 사용자가 포함된 항목만 제거 */
+    @TransactionalEventListener
+    public void onNicknameChanged(NicknameChangedEvent event) {
+        generation.incrementAndGet();
+        entries.values().removeIf(e -> {
+            boolean affected = e.anonIds.contains(event.getAnonId());
+            if (affected) invalidations.get(e.period).increment();
+            return affected;
+        });
+    }
+
+    /** 전체 비우기 */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private byte[] encode(List<RankingDto> list) {
+        try {
+            return objectMapper.writeValueAsBytes(list);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("ranking serialization failed", e);
+        }
+    }
+
+    private static LocalDate currentWeekStart() {
+        return LocalDate.now(KST).with(DayOfWeek.MONDAY);
+    }
+
+    /** 캐시 항목 (불변) */
+    private static final class Entry {
+        final RankingPeriod period;
+        final int limit;
+        final int size;
+        final Set<String> anonIds;
+        final long minScore;     // 목록 최저 점수 (비어 있으면 0)
+        final byte[] json;
+        final LocalDate weekStart;
+        final long expiresAtNanos;
+
+        Entry(RankingPeriod period, int limit, List<RankingDto> list, byte[] json,
+              LocalDate weekStart, long expiresAtNanos) {
+            this.period = period;
+            this.limit = limit;
+            this.size = list.size();
+            Set<String> ids = new HashSet<>(list.size() * 2);
+            long min = list.isEmpty() ? 0L : Long.MAX_VALUE;
+            for (RankingDto dto : list) {
+                ids.add(dto.getAnonId());
+                min = Math.min(min, dto.getSeconds());
+            }
+            this.anonIds = ids;
+            this.minScore = min;
+            this.json = json;
+            this.weekStart = weekStart;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isValid(LocalDate currentWeekStart) {
+            if (System.nanoTime() - expiresAtNanos > 0) return false;
+            return period != RankingPeriod.WEEKLY || weekStart.equals(currentWeekStart);
+        }
+    }
+}
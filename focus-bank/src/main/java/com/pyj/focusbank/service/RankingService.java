@@ -1,6 +1,8 @@
 package com.pyj.focusbank.service;
 
+import com.pyj.focusbank.dto.MyRankingDto;
 import com.pyj.focusbank.dto.RankingDto;
+import com.pyj.focusbank.dto.RankingPeriod;
 
 import java.util.List;
 
@@ -21,4 +23,24 @@ public interface RankingService {
      * @return 정렬된 {@link RankingDto} 리스트
      */
     List<RankingDto> getOverallRanking(int limit);
-}
\ No newline at end of file
+
+    /**
+     * 랭킹 TOP N을 직렬화된 JSON 으로 반환한다. (응답 캐시 사용)
+     *
+     * @param period 기간 (주간/전체)
+     * @param limit  상위 N명
+     * @return {@link RankingDto} 리스트의 JSON 바이트
+     */
+    byte[] getRankingJson(RankingPeriod period, int limit);
+
+    /**
+     * 내 순위와 위/아래 이웃 k명을 반환한다. (TOP 100 밖 사용자 포함)
+     *
+     * @param period 기간 (주간/전체)
+     * @param anonId 조회할 사용자
+     * @param k      위/아래로 포함할 이웃 수
+     * @return 내 순위 응답 (기록이 없으면 me=null)
+     * @throws IllegalStateException 인메모리 랭킹 엔진이 준비되지 않은 경우
+     */
+    MyRankingDto getMyRanking(RankingPeriod period, String anonId, int k);
+}
@@ -1,7 +1,10 @@
 package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dao.RankingMapper;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import com.pyj.focusbank.dto.MyRankingDto;
 import com.pyj.focusbank.dto.RankingDto;
+import com.pyj.focusbank.dto.RankingPeriod;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -11,48 +14,87 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class RankingServiceImpl implements RankingService {
 
     private final RankingMapper rankingMapper;
+    private final LeaderboardEngine leaderboardEngine;
+    private final RankingResponseCache rankingResponseCache;
+    private final AnonIdTypeHandler anonIdTypeHandler;
 
     /** 타임존 (KST) */
     private static final ZoneId KST = ZoneId.of("Asia/Seoul");
 
     /**
      * 이번 주(월~오늘) TOP N 랭킹 조회
+     * - 랭킹 엔진이 준비되어 있으면 메모리에서 O(N) 조회
+     * - 아니면 weekly_aggregate 롤업 조회로 대체
      */
     @Override
     public List<RankingDto> getWeeklyRanking(int limit) {
-        LocalDate today = LocalDate.now(KST);
-        LocalDate monday = today.with(DayOfWeek.MONDAY);
+        if (leaderboardEngine.isReady()) {
+            return leaderboardEngine.top(RankingPeriod.WEEKLY, limit);
+        }
+
+        LocalDate monday = LocalDate.now(KST).with(DayOfWeek.MONDAY);
 
         // Mapper에서 Map 리스트 조회 후 DTO 변환
-        List<Map<String, Object>> rows = rankingMapper.selectWeeklyRanking(monday, today, limit);
-        return mapToRankingDto(rows);
+        List<Map<String, Object>> rows = rankingMapper.selectWeeklyRanking(monday, limit);
+        return mapToRankingDto(rows, anonIdTypeHandler);
     }
 
     /**
      * 전체 누적 TOP N 랭킹 조회
+     * - 랭킹 엔진이 준비되어 있으면 메모리에서 O(N) 조회
      */
     @Override
     public List<RankingDto> getOverallRanking(int limit) {
+        if (leaderboardEngine.isReady()) {
+            return leaderboardEngine.top(RankingPeriod.OVERALL, limit);
+        }
+
         List<Map<String, Object>> rows = rankingMapper.selectOverallRanking(limit);
-        return mapToRankingDto(rows);
+        return mapToRankingDto(rows, anonIdTypeHandler);
+    }
+
+    /**
+     * TOP N 랭킹 JSON 조회
+     * - (기간, limit) 별 캐시 적중 시 직렬화된 바이트를 그대로 반환
+     */
+    @Override
+    public byte[] getRankingJson(RankingPeriod period, int limit) {
+        return rankingResponseCache.get(period, limit, () -> period == RankingPeriod.WEEKLY
+                ? getWeeklyRanking(limit)
+                : getOverallRanking(limit));
+    }
+
+    /**
+     * 내 순위 + 이웃 조회 (인메모리 순위 트리, O(log n + k))
+     * - SQL로는 전체 집계에 대한 상관 카운트가 필요하므로 대체 경로를 두지 않는다
+     */
+    @Override
+    public MyRankingDto getMyRanking(RankingPeriod period, String anonId, int k) {
+        anonId = Objects.requireNonNull(anonId, "anonId required").trim();
+        if (!leaderboardEngine.isReady()) {
+            throw new IllegalStateException("ranking engine is not ready");
+        }
+        return leaderboardEngine.around(period, anonId, k);
     }
 
     /**
      * Map 리스트 → RankingDto 리스트 변환
      * 닉네임/태그가 있으면 "닉네임#태그", 없으면 "anon-XXXX" 표시
+     * (anon_id 변환기를 인자로 받는 상태 없는 변환이라 static, JMH 벤치마크에서 직접 호출)
      */
-    private List<RankingDto> mapToRankingDto(List<Map<String, Object>> rows) {
+    static List<RankingDto> mapToRankingDto(List<Map<String, Object>> rows, AnonIdTypeHandler anonIdTypeHandler) {
         List<RankingDto> list = new ArrayList<>();
         int rank = 1;
 
         for (Map<String, Object> row : rows) {
-            String anonId = (String) row.get("anon_id");
+            String anonId = anonIdTypeHandler.fromColumn(row.get("anon_id"));
 
             Number secNum = (Number) row.get("total_seconds");
             int seconds = (secNum != null) ? secNum.intValue() : 0;
@@ -75,7 +117,7 @@ public class RankingServiceImpl implements RankingService {
     /**
      * 익명 마스킹 유틸 ('anon-XXXX')
      */
-    private String maskAnon(String id) {
+    static String maskAnon(String id) {
         if (id == null || id.length() < 4) return "anon-****";
         return "anon-" + id.substring(id.length() - 4).toUpperCase();
     }
@@ -55,7 +55,7 @@ public class ReportServiceImpl implements ReportService {
     /**
      * 최근 N주 리포트.
      * - 포함 범위: (N-1)주 전 "월요일 00:00" ~ 오늘(포함).
-     * - 라벨링/그룹핑은 Mapper XML에서 YEARWEEK(..., 3)로 ISO 주차 사용(월요일 시작).
+     * - weekly_aggregate 롤업 조회, 라벨은 Mapper XML에서 YEARWEEK(..., 3)로 ISO 주차 사용(월요일 시작).
      */
     @Transactional(readOnly = true)
     @Override
@@ -72,8 +72,7 @@ public class ReportServiceImpl implements ReportService {
 
         // (N-1)주 전의 "월요일"부터 ~ 오늘까지(포함)
         // ex) weeks=12 -> 11주 전 월요일 ~ 오늘
-        LocalDate from = today.minusWeeks(Math.max(weeks - 1, 0))
-                .with(java.time.DayOfWeek.MONDAY);
+        LocalDate from = weeklyFrom(today, weeks);
         LocalDate to = today;
 
         // 혹시라도 from이 to보다 뒤가 되는 이변 방지(로컬 타임존/서머타임 엣지케이스 등)
@@ -87,7 +86,7 @@ public class ReportServiceImpl implements ReportService {
     /**
      * 최근 N개월 리포트.
      * - 포함 범위: (N-1)개월 전 "해당 월의 1일 00:00" ~ 오늘(포함).
-     * - 라벨링/그룹핑은 Mapper XML에서 DATE_FORMAT(..., '%Y-%m') 사용.
+     * - monthly_aggregate 롤업 조회, 라벨은 Mapper XML에서 DATE_FORMAT(..., '%Y-%m') 사용.
      */
     @Transactional(readOnly = true)
     @Override
@@ -102,8 +101,7 @@ public class ReportServiceImpl implements ReportService {
         LocalDate today = LocalDate.now(KST);
 
         // (N-1)개월 전의 해당 월 1일 ~ 오늘(포함)
-        LocalDate from = today.withDayOfMonth(1)
-                .minusMonths(Math.max(months - 1, 0));
+        LocalDate from = monthlyFrom(today, months);
         LocalDate to = today;
 
         if (from.isAfter(to)) {
@@ -112,4 +110,16 @@ public class ReportServiceImpl implements ReportService {
 
         return reportMapper.selectMonthlyAgg(anonId, from, to);
     }
-}
\ No newline at end of file
+
+    /** 최근 N주 리포트 시작일: (N-1)주 전 월요일 */
+    static LocalDate weeklyFrom(LocalDate today, int weeks) {
+        return today.minusWeeks(Math.max(weeks - 1, 0))
+                .with(java.time.DayOfWeek.MONDAY);
+    }
+
+    /** 최근 N개월 리포트 시작일: (N-1)개월 전 1일 */
+    static LocalDate monthlyFrom(LocalDate today, int months) {
+        return today.withDayOfMonth(1)
+                .minusMonths(Math.max(months - 1, 0));
+    }
+}
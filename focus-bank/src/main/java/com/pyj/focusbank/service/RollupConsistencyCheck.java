@@ -0,0 +1,97 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.AggregateMapper;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import com.pyj.focusbank.dto.AggregateKeyDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기간 롤업(weekly/monthly_aggregate) 정합성 검사.
+ *
+ * <p>최근 lookback-weeks 주(월간은 해당 시점이 속한 월부터)의 롤업을
+ * daily_aggregate 로 다시 계산한 값과 비교해 어긋난 행을 로그로 남긴다.
+ * {@code repair=true} 이면 어긋난 키만 재계산해 바로잡는다.</p>
+ *
+ * <p>{@code focusbank.aggregate.consistency-check.enabled=true} 일 때만 스케줄 실행된다.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupConsistencyCheck {
+
+    private final AggregateMapper aggregateMapper;
+    private final AnonIdTypeHandler anonIdTypeHandler;
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @Value("${focusbank.aggregate.consistency-check.enabled:false}")
+    private boolean enabled;
+
+    @Value("${focusbank.aggregate.consistency-check.lookback-weeks:8}")
+    private int lookbackWeeks;
+
+    @Value("${focusbank.aggregate.consistency-check.repair:false}")
+    private boolean repair;
+
+    /** 매일 04:30(KST) 검사 */
+    @Scheduled(cron = "${focusbank.aggregate.consistency-check.cron:0 30 4 * * *}", zone = "Asia/Seoul")
+    void scheduledCheck() {
+        if (!enabled) return;
+        try {
+            check();
+        } catch (DataAccessException e) {
+            log.warn("rollup consistency check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 정합성 검사 1회 실행.
+     *
+     * @return 어긋난 행 수 (주간 + 월간)
+     */
+    public int check() {
+        LocalDate weekFrom = LocalDate.now(KST).minusWeeks(Math.max(lookbackWeeks - 1, 0)).with(DayOfWeek.MONDAY);
+        LocalDate monthFrom = weekFrom.withDayOfMonth(1);
+
+        List<Map<String, Object>> weekly = aggregateMapper.selectWeeklyMismatches(weekFrom);
+        List<Map<String, Object>> monthly = aggregateMapper.selectMonthlyMismatches(monthFrom);
+
+        if (weekly.isEmpty() && monthly.isEmpty()) {
+            log.info("rollup consistency check passed (weekly from {}, monthly from {})", weekFrom, monthFrom);
+            return 0;
+        }
+        weekly.forEach(row -> log.warn("weekly_aggregate mismatch: {}", row));
+        monthly.forEach(row -> log.warn("monthly_aggregate mismatch: {}", row));
+
+        if (repair) {
+            if (!weekly.isEmpty()) aggregateMapper.refreshWeeklyAggregates(toKeys(weekly));
+            if (!monthly.isEmpty()) aggregateMapper.refreshMonthlyAggregates(toKeys(monthly));
+            log.info("rollup mismatches repaired (weekly={}, monthly={})", weekly.size(), monthly.size());
+        }
+        return weekly.size() + monthly.size();
+    }
+
+    private List<AggregateKeyDto> toKeys(List<Map<String, Object>> rows) {
+        List<AggregateKeyDto> keys = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object start = row.get("period_start");
+            LocalDate periodStart = start instanceof Date d ? d.toLocalDate() : (LocalDate) start;
+            keys.add(new AggregateKeyDto(anonIdTypeHandler.fromColumn(row.get("anon_id")), periodStart));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,191 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.AggregateMapper;
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.OfflineSessionDto;
+import com.pyj.focusbank.event.FocusSettledEvent;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 오프라인에서 기록한 완료 세션 일괄 등록 (POST /api/sessions/batch).
+ *
+ * <p>동작:
+ * <ul>
+ *   <li>검증: 개수 상한, 시작 &lt; 종료, 세션당 최대 24시간, 미래/너무 오래된 시각 거부,
+ *       배치 안에서 또는 이미 기록된 세션과 시간이 겹치면 거부 (같은 배치를 다시 보내도 중복 등록되지 않음)</li>
+ *   <li>세션 INSERT 는 MyBatis BATCH 실행기로 JDBC 배치 1회에 묶어 실행</li>
+ *   <li>집중 시간은 (시작일)별로 합쳐 {@link AggregateWriter}의 다건 업서트 1문장씩으로 반영</li>
+ *   <li>날짜별로 {@link FocusSettledEvent} 1건 발행 → 커밋 후 랭킹/캐시/SSE 반영</li>
+ * </ul>
+ *
+ * <p>한 트랜잭션 안에서는 실행기 종류를 바꿀 수 없으므로, 이 트랜잭션의 모든 매퍼 호출
+ * (겹침 조회 포함)은 BATCH 템플릿에서 얻은 매퍼로 한다.
+ * BATCH 템플릿은 빈으로 등록하지 않는다 (자동 설정의 기본 SqlSessionTemplate 이 대체되지 않도록).</p>
+ */
+@Component
+public class SessionBatchIngestor {
+
+    /** 타임존 (KST) */
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    /** 세션 1건 최대 길이(초) */
+    private static final long MAX_SESSION_SECONDS = 24 * 60 * 60;
+
+    /** 기기 시계 오차 허용 (종료 시각이 이만큼 미래여도 허용) */
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final SqlSessionTemplate batchSession;
+    private final SessionMapper sessionMapper;
+    private final AggregateMapper aggregateMapper;
+    private final AggregateWriter aggregateWriter;
+    private final KnownAnonUsers knownAnonUsers;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxSize;
+    private final int maxAgeDays;
+
+    public SessionBatchIngestor(SqlSessionFactory sqlSessionFactory,
+                                AggregateWriter aggregateWriter,
+                                KnownAnonUsers knownAnonUsers,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${focusbank.session-batch.max-size:500}") int maxSize,
+                                @Value("${focusbank.session-batch.max-age-days:30}") int maxAgeDays) {
+        this.batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        this.sessionMapper = batchSession.getMapper(SessionMapper.class);
+        this.aggregateMapper = batchSession.getMapper(AggregateMapper.class);
+        this.aggregateWriter = aggregateWriter;
+        this.knownAnonUsers = knownAnonUsers;
+        this.eventPublisher = eventPublisher;
+        this.maxSize = maxSize;
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    /**
+     * 완료 세션 일괄 등록.
+     *
+     * @param anonId   익명 사용자 ID
+     * @param sessions 완료 세션 목록 (순서 무관)
+     * @return 등록된 세션 목록 (시작 시각 오름차순)
+     * @throws IllegalArgumentException 형식/범위 검증 실패 또는 배치 안에서 시간이 겹치는 경우
+     * @throws IllegalStateException    이미 기록된 세션과 시간이 겹치는 경우
+     */
+    @Transactional
+    public List<FocusSessionDto> ingest(String anonId, List<OfflineSessionDto> sessions) {
+        // 1. 검증 (시각은 DATETIME 정밀도에 맞춰 초 단위 절삭)
+        if (anonId == null || anonId.trim().isEmpty()) {
+            throw new IllegalArgumentException("anonId 값이 비어있습니다.");
+        }
+        final String id = anonId.trim();
+        List<FocusSessionDto> rows = validate(id, sessions);
+
+        // 2. 이미 기록된 세션과 겹치는지 확인 (배치 구간 1회 범위 조회)
+        rejectOverlapWithStored(id, rows);
+
+        // 3. 부모 보장 + 세션 INSERT (JDBC 배치), flush 로 생성 키 회수
+        //    (배치당 1문장이라 캐시를 믿지 않고 항상 보장 → 캐시가 틀려도 FK 위반 없음)
+        sessionMapper.ensureAnonUser(id);
+        for (FocusSessionDto row : rows) {
+            sessionMapper.insertCompletedSession(row);
+        }
+        batchSession.flushStatements();
+
+        // 4. 시작일별로 합산 → 집계 테이블 다건 업서트 (배치당 테이블별 1문장)
+        Map<LocalDate, Integer> perDate = new TreeMap<>();
+        for (FocusSessionDto row : rows) {
+            perDate.merge(row.getStartedAt().toLocalDate(), row.getDurationSec(), Integer::sum);
+        }
+        List<DailyAggregateDeltaDto> deltas = new ArrayList<>(perDate.size());
+        perDate.forEach((date, seconds) -> deltas.add(new DailyAggregateDeltaDto(date, id, seconds)));
+        aggregateWriter.apply(deltas, aggregateMapper);
+        batchSession.flushStatements();
+
+        // 5. 날짜별 정산 이벤트 (구독자는 커밋 후 반영)
+        perDate.forEach((date, seconds) -> eventPublisher.publishEvent(new FocusSettledEvent(id, null, date, seconds, true)));
+        TransactionHooks.afterCommit(() -> knownAnonUsers.add(id));
+        return rows;
+    }
+
+    /** 요청 → 저장할 세션 행 (시작 시각 오름차순), 배치 안 겹침 검사 포함 */
+    private List<FocusSessionDto> validate(String anonId, List<OfflineSessionDto> sessions) {
+        if (sessions == null || sessions.isEmpty()) {
+            throw new IllegalArgumentException("등록할 세션이 없습니다.");
+        }
+        if (sessions.size() > maxSize) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxSize + "건까지 등록할 수 있습니다.");
+        }
+
+        LocalDateTime now = LocalDateTime.now(KST).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime oldest = now.toLocalDate().minusDays(maxAgeDays).atStartOfDay();
+        List<FocusSessionDto> rows = new ArrayList<>(sessions.size());
+        for (int i = 0; i < sessions.size(); i++) {
+            OfflineSessionDto s = sessions.get(i);
+            if (s == null || s.getStartedAt() == null || s.getEndedAt() == null) {
+                throw new IllegalArgumentException("sessions[" + i + "]: startedAt, endedAt 은 필수입니다.");
+            }
+            LocalDateTime startedAt = s.getStartedAt().truncatedTo(ChronoUnit.SECONDS);
+            LocalDateTime endedAt = s.getEndedAt().truncatedTo(ChronoUnit.SECONDS);
+            long seconds = Duration.between(startedAt, endedAt).getSeconds();
+            if (seconds <= 0 || seconds > MAX_SESSION_SECONDS) {
+                throw new IllegalArgumentException("sessions[" + i + "]: 종료 시각은 시작 후 24시간 이내여야 합니다.");
+            }
+            if (endedAt.isAfter(now.plus(CLOCK_SKEW)) || startedAt.isBefore(oldest)) {
+                throw new IllegalArgumentException("sessions[" + i + "]: 최근 " + maxAgeDays + "일 안의 지난 세션만 등록할 수 있습니다.");
+            }
+
+            FocusSessionDto row = new FocusSessionDto();
+            row.setAnonId(anonId);
+            row.setStartedAt(startedAt);
+            row.setEndedAt(endedAt);
+            row.setDurationSec((int) seconds);
+            row.setCreatedAt(now);
+            rows.add(row);
+        }
+
+        rows.sort(Comparator.comparing(FocusSessionDto::getStartedAt));
+        for (int i = 1; i < rows.size(); i++) {
+            if (rows.get(i).getStartedAt().isBefore(rows.get(i - 1).getEndedAt())) {
+                throw new IllegalArgumentException("요청 안의 세션끼리 시간이 겹칩니다: " + rows.get(i).getStartedAt());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 배치 구간 [첫 시작 - 24h, 마지막 종료) 에 시작한 기존 세션과 겹치면 거부.
+     * (인덱스 범위 조회 1회로 끝내기 위한 근사 — 24시간보다 긴 기존 세션은 검사 범위 밖일 수 있다)
+     */
+    private void rejectOverlapWithStored(String anonId, List<FocusSessionDto> rows) {
+        LocalDateTime from = rows.get(0).getStartedAt().minusSeconds(MAX_SESSION_SECONDS);
+        LocalDateTime to = rows.stream().map(FocusSessionDto::getEndedAt).max(Comparator.naturalOrder()).orElseThrow();
+        List<FocusSessionDto> stored = sessionMapper.findHistory(anonId, from, to, null, null, null);
+        if (stored.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now(KST);
+        for (FocusSessionDto existing : stored) {
+            LocalDateTime existingEnd = existing.getEndedAt() != null ? existing.getEndedAt() : now; // 진행 중이면 지금까지
+            for (FocusSessionDto row : rows) {
+                if (row.getStartedAt().isBefore(existingEnd) && existing.getStartedAt().isBefore(row.getEndedAt())) {
+                    throw new IllegalStateException("이미 기록된 세션과 시간이 겹칩니다: " + row.getStartedAt());
+                }
+            }
+        }
+    }
+}
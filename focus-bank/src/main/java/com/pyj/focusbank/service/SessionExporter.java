@@ -0,0 +1,128 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 사용자 전체 세션 이력 내보내기 (GET /api/sessions/export).
+ *
+ * <p>MyBatis {@link Cursor}로 한 행씩 읽어 곧바로 출력 스트림에 쓴다.
+ * 목록을 만들지 않으므로 세션이 10건이든 10만 건이든 힙 사용량은 버퍼 크기 수준으로 일정하다.</p>
+ *
+ * <p>커서는 열린 SqlSession 안에서만 순회할 수 있으므로 {@link #export}는 읽기 전용 트랜잭션으로 감싼다.
+ * (StreamingResponseBody 는 컨트롤러 반환 후 별도 스레드에서 실행되므로 이 메서드 안에서 트랜잭션을 시작)</p>
+ */
+@Component
+public class SessionExporter {
+
+    /** 출력 형식 */
+    public enum Format {
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+        CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @throws IllegalArgumentException ndjson / csv 외의 값
+         */
+        public static Format from(String value) {
+            String v = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+            for (Format f : values()) {
+                if (f.extension.equals(v)) return f;
+            }
+            throw new IllegalArgumentException("format 은 ndjson 또는 csv 만 가능합니다.");
+        }
+    }
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final byte[] CSV_HEADER = "sessionId,startedAt,endedAt,durationSec\n".getBytes(StandardCharsets.UTF_8);
+
+    /** 출력 버퍼 크기 (이 크기마다 응답으로 내려감) */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final SessionMapper sessionMapper;
+    private final ObjectWriter sessionWriter;
+
+    public SessionExporter(SessionMapper sessionMapper, ObjectMapper objectMapper) {
+        this.sessionMapper = sessionMapper;
+        // 매 행 writeValueAsBytes 에서 타입 조회를 반복하지 않도록 미리 고정
+        this.sessionWriter = objectMapper.writerFor(FocusSessionDto.class);
+    }
+
+    /**
+     * 사용자의 전체 세션을 형식에 맞춰 출력한다.
+     *
+     * @param anonId 익명 사용자 ID (정규화된 값)
+     * @param format 출력 형식
+     * @param out    응답 출력 스트림 (닫지 않음)
+     * @return 내보낸 세션 수
+     */
+    @Transactional(readOnly = true)
+    public long export(String anonId, Format format, OutputStream out) throws IOException {
+        try (Cursor<FocusSessionDto> cursor = sessionMapper.streamByAnon(anonId)) {
+            return write(cursor, format, out);
+        }
+    }
+
+    /**
+     * 세션을 한 건씩 출력 (커서/테스트 공용).
+     *
+     * @return 출력한 세션 수
+     */
+    long write(Iterable<FocusSessionDto> sessions, Format format, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long count = 0;
+        if (format == Format.CSV) {
+            buffered.write(CSV_HEADER);
+        }
+        for (FocusSessionDto s : sessions) {
+            if (format == Format.CSV) {
+                buffered.write(csvLine(s).getBytes(StandardCharsets.UTF_8));
+            } else {
+                buffered.write(sessionWriter.writeValueAsBytes(s));
+                buffered.write(NEWLINE);
+            }
+            count++;
+        }
+        buffered.flush();
+        return count;
+    }
+
+    /** sessionId,startedAt,endedAt,durationSec (값에 쉼표/따옴표가 없어 이스케이프 불필요, 진행 중이면 빈 칸) */
+    private static String csvLine(FocusSessionDto s) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(s.getSessionId()).append(',');
+        if (s.getStartedAt() != null) sb.append(s.getStartedAt());
+        sb.append(',');
+        if (s.getEndedAt() != null) sb.append(s.getEndedAt());
+        sb.append(',');
+        if (s.getDurationSec() != null) sb.append(s.getDurationSec());
+        return sb.append('\n').toString();
+    }
+}
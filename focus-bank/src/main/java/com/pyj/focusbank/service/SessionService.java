@@ -1,6 +1,7 @@
 package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.SessionHistoryDto;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -28,6 +29,17 @@ public interface SessionService {
      */
     List<FocusSessionDto> getSessionsForDate(String anonId, LocalDate date);
 
+    /**
+     * 세션 이력 한 페이지 조회 (시작 시각 기준 [from, to), keyset 커서)
+     * @param anonId 익명 사용자 ID
+     * @param from   시작 날짜 (포함, null 이면 to 30일 전)
+     * @param to     끝 날짜 (제외, null 이면 내일)
+     * @param cursor 직전 응답의 nextCursor (첫 페이지면 null)
+     * @param limit  페이지 크기 (1~100)
+     * @return 세션 목록 + 다음 페이지 커서
+     */
+    SessionHistoryDto getHistory(String anonId, LocalDate from, LocalDate to, String cursor, int limit);
+
     /**
      * 집중 시작 (입금)
      * @param anonId 익명 사용자 ID
@@ -1,12 +1,24 @@
 package com.pyj.focusbank.service;
 
 import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
 import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.SessionHistoryDto;
+import com.pyj.focusbank.event.FocusSettledEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -16,16 +28,30 @@ import java.util.Optional;
 public class SessionServiceImpl implements SessionService {
 
     private final SessionMapper sessionMapper;
+    private final AggregateWriter aggregateWriter;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final DailyAggregateWriteBehind dailyAggregateWriteBehind;
+    private final KnownAnonUsers knownAnonUsers;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock; // KST (ClockConfig) — DB 세션 time_zone 도 +09:00 으로 고정
 
+    /** 세션 이력 기본 조회 기간(일) / 페이지 크기 상한 */
+    private static final int DEFAULT_HISTORY_DAYS = 30;
+    private static final int MAX_HISTORY_LIMIT = 100;
 
     /**
      * 진행 중인 세션 조회.
+     * - 레지스트리가 준비되어 있으면 메모리에서 바로 응답 (DB 미사용)
+     * - 부팅 적재에 실패한 경우에만 DB 조회로 대체
      *
      * @param anonId 익명 사용자 ID
      * @return 진행 중인 세션 Optional
      */
     @Override
     public Optional<FocusSessionDto> getActiveSession(String anonId) {
+        if (activeSessionRegistry.isReady()) {
+            return activeSessionRegistry.find(anonId == null ? null : anonId.trim());
+        }
         return Optional.ofNullable(sessionMapper.findActiveSession(anonId));
     }
 
@@ -47,22 +73,88 @@ public class SessionServiceImpl implements SessionService {
             throw new IllegalArgumentException("anonId 값이 비어있습니다.");
         }
 
-        // 2. 앞뒤 공백 제거 후 Mapper 호출 → 특정 날짜의 세션 목록 조회
-        return sessionMapper.findByAnonAndDate(anonId.trim(), date);
+        // 2. 앞뒤 공백 제거 후 Mapper 호출 → 그날 0시 ~ 다음 날 0시 [from, to) 범위 조회 (인덱스 범위 스캔)
+        return sessionMapper.findHistory(anonId.trim(), date.atStartOfDay(), date.plusDays(1).atStartOfDay(),
+                null, null, null);
+    }
+
+    /**
+     * 세션 이력 한 페이지 조회
+     * 1. anonId / 기간 / 커서 검증
+     * 2. limit + 1 건을 조회해 다음 페이지 존재 여부 판단
+     * 3. 다음 페이지가 있으면 이번 페이지 마지막 행의 (startedAt, sessionId)를 커서로 반환
+     *
+     * <p>OFFSET 을 쓰지 않으므로 뒤 페이지로 가도 읽는 행 수는 페이지 크기만큼이다.</p>
+     *
+     * @throws IllegalArgumentException anonId 가 비었거나, from ≥ to 이거나, 커서 형식이 잘못된 경우
+     */
+    @Override
+    public SessionHistoryDto getHistory(String anonId, LocalDate from, LocalDate to, String cursor, int limit) {
+        if (anonId == null || anonId.trim().isEmpty()) {
+            throw new IllegalArgumentException("anonId 값이 비어있습니다.");
+        }
+        LocalDate end = to != null ? to : LocalDate.now(clock).plusDays(1);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from 은 to 보다 이전이어야 합니다.");
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_HISTORY_LIMIT);
+
+        LocalDateTime afterStartedAt = null;
+        Long afterSessionId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterStartedAt = LocalDateTime.parse(parts[0]);
+            afterSessionId = Long.valueOf(parts[1]);
+        }
+
+        List<FocusSessionDto> rows = sessionMapper.findHistory(anonId.trim(), start.atStartOfDay(), end.atStartOfDay(),
+                afterStartedAt, afterSessionId, size + 1);
+        if (rows.size() <= size) {
+            return new SessionHistoryDto(rows, null);
+        }
+        List<FocusSessionDto> page = rows.subList(0, size);
+        FocusSessionDto last = page.get(size - 1);
+        return new SessionHistoryDto(page, encodeCursor(last.getStartedAt(), last.getSessionId()));
+    }
+
+    /** (startedAt, sessionId) → 불투명 커서 문자열 (URL-safe Base64) */
+    private static String encodeCursor(LocalDateTime startedAt, Long sessionId) {
+        String raw = startedAt + "|" + sessionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 커서 → [startedAt, sessionId] (형식이 다르면 IllegalArgumentException) */
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length == 2) {
+                LocalDateTime.parse(parts[0]);
+                Long.parseLong(parts[1]);
+                return parts;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // 아래에서 공통 처리
+        }
+        throw new IllegalArgumentException("cursor 형식이 올바르지 않습니다.");
     }
 
 
     /**
      * 집중 시작(입금) 처리
      * 1. anonId 유효성 검사 (null 또는 빈 문자열일 경우 예외 발생)
-     * 2. 부모 테이블(anonymous_user)에 anonId 존재 여부 확인 후 없으면 생성
-     * 3. focus_session 테이블에 새로운 세션(집중 시작) 기록
-     * 4. 방금 생성된 열린 세션 정보를 조회하여 반환
+     * 2. 처음 보는 anonId면 부모 테이블(anonymous_user)에 행 보장 (재방문 사용자는 생략)
+     * 3. focus_session 테이블에 새로운 세션(집중 시작) INSERT, 생성 키로 sessionId 회수
+     * 4. 재조회 없이 메모리에서 만든 세션 정보를 반환 (커밋 후 레지스트리 등록)
+     *
+     * <p>재방문 사용자는 INSERT 1문장으로 끝난다.
+     * 시작 시각은 애플리케이션 시계(KST, 초 단위 절삭) 기준이다. 다른 DEFAULT CURRENT_TIMESTAMP/NOW() 값과
+     * 어긋나지 않도록 DB 커넥션의 세션 time_zone 을 '+09:00' 으로 고정한다 (datasource URL 의 sessionVariables).</p>
      *
      * @param anonId 익명 사용자 ID
      * @return 새로 생성된 세션 정보 (열린 상태)
      * @throws IllegalArgumentException anonId가 null 또는 빈 문자열일 경우
-     * @throws IllegalStateException anonymous_user에 anonId가 존재하지 않을 경우
      */
     @Transactional
     @Override
@@ -73,30 +165,48 @@ public class SessionServiceImpl implements SessionService {
         }
 
         // 2. 앞뒤 공백 제거
-        anonId = anonId.trim();
-
-        // 3. anonymous_user 테이블에 anonId 없으면 삽입 (있으면 무시)
-        sessionMapper.ensureAnonUser(anonId);
+        final String id = anonId.trim();
 
-        // 4. focus_session 테이블에 새로운 세션 삽입
-        int affected = sessionMapper.startFocus(anonId);
+        // 3. 처음 보는 사용자만 anonymous_user 행 보장 (있으면 무시)
+        if (!knownAnonUsers.contains(id)) {
+            sessionMapper.ensureAnonUser(id);
+        }
 
-        // 5. 삽입 결과가 없으면 FK 제약 등으로 부모가 없는 경우 → 예외 발생
-        if (affected == 0) {
-            throw new IllegalStateException("anonymous_user에 해당 anonId가 없습니다: " + anonId);
+        // 4. 세션 INSERT (DATETIME 정밀도에 맞춰 초 단위 절삭)
+        LocalDateTime now = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+        FocusSessionDto opened = new FocusSessionDto();
+        opened.setAnonId(id);
+        opened.setStartedAt(now);
+        opened.setCreatedAt(now);
+        try {
+            sessionMapper.insertSession(opened);
+        } catch (DataIntegrityViolationException e) {
+            // 캐시가 잘못 기억하고 있던 경우(FK 위반) → 제거 후 부모 보장하고 1회 재시도
+            knownAnonUsers.evict(id);
+            sessionMapper.ensureAnonUser(id);
+            sessionMapper.insertSession(opened);
         }
 
-        // 6. 방금 열린 세션을 다시 DB에서 조회 후 반환
-        return sessionMapper.findOpenByAnon(anonId);
+        // 5. 커밋 후 기존 사용자로 기억 + 진행 중 세션 레지스트리에 등록
+        TransactionHooks.afterCommit(() -> {
+            knownAnonUsers.add(id);
+            activeSessionRegistry.register(opened);
+        });
+        return opened;
     }
 
 
     /**
      * 집중 종료(정산) 처리
-     * 1. focus_session 테이블에서 해당 세션의 종료 시각과 집중 시간(duration_sec)을 업데이트
-     * 2. 업데이트 결과가 없으면 이미 종료되었거나 존재하지 않는 세션이므로 null 반환
-     * 3. 업데이트 성공 시, 종료된 세션 정보를 기반으로 일별 집계(daily_aggregate) 테이블 갱신
-     * 4. 종료된 세션의 상세 정보를 다시 조회해서 반환
+     * 1. 세션 시작 시각 확보: 진행 중 레지스트리에 있으면 메모리에서, 없으면 findById 1회
+     * 2. 없거나 이미 종료된 세션이면 null 반환
+     * 3. 종료 시각/집중 시간을 애플리케이션에서 계산해 "ended_at IS NULL" 조건부 UPDATE 1문장으로 기록
+     *    → 동시 정산 등으로 업데이트된 행이 없으면 null 반환
+     * 4. 계산한 집중 시간으로 일별 집계(daily_aggregate) 반영 (write-behind 모드면 커밋 후 버퍼에 적재)
+     * 5. 재조회 없이 메모리에서 만든 종료 세션 정보를 반환 (커밋 후 레지스트리에서 제거)
+     * 6. {@link FocusSettledEvent} 발행 → 커밋 후 랭킹 엔진 등에서 증분 반영
+     *
+     * <p>종료 시각은 started_at 과 같은 시계(주입된 Clock, KST)로 계산한다.</p>
      *
      * @param sessionId 종료할 세션 ID
      * @return 종료된 세션 정보 (없거나 이미 종료된 경우 null)
@@ -104,20 +214,58 @@ public class SessionServiceImpl implements SessionService {
     @Transactional
     @Override
     public FocusSessionDto endFocus(Long sessionId) {
-        // 1. focus_session 테이블에서 해당 세션 종료 처리
-        //    → ended_at을 NOW()로 업데이트, duration_sec 계산
-        int updated = sessionMapper.endFocus(sessionId);
+        if (sessionId == null) {
+            return null;
+        }
 
-        // 2. 업데이트된 행이 없으면 (updated == 0)
-        //    → 이미 종료됐거나 존재하지 않는 세션이므로 null 반환
+        // 1. 시작 시각 확보 (레지스트리 적중 시 DB 조회 없음)
+        FocusSessionDto open = activeSessionRegistry.findBySessionId(sessionId)
+                .orElseGet(() -> sessionMapper.findById(sessionId));
+
+        // 2. 없거나 이미 종료된 세션 → null (컨트롤러에서 409)
+        if (open == null || open.getEndedAt() != null) {
+            return null;
+        }
+
+        // 3. 종료 처리: 종료 시각/집중 시간 계산 후 조건부 UPDATE
+        LocalDateTime now = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+        int durationSec = (int) Math.max(0, Duration.between(open.getStartedAt(), now).getSeconds());
+        int updated = sessionMapper.closeSession(sessionId, now, durationSec);
+
+        //    업데이트된 행이 없으면 그 사이 다른 요청이 먼저 종료한 세션 → null
         if (updated == 0) {
             return null;
         }
 
-        // 3. 정상적으로 종료된 경우 → daily_aggregate 테이블에 해당 세션 반영
-        sessionMapper.updateDailyAggregate(sessionId);
+        // 4. daily_aggregate / user_total 반영 (세션 시작일 기준)
+        //    (write-behind 모드면 커밋 후 버퍼에 적재하고 flusher가 일괄 반영)
+        final String anonId = open.getAnonId();
+        final LocalDate targetDate = open.getStartedAt().toLocalDate();
+        boolean writeBehind = dailyAggregateWriteBehind.isEnabled();
+        if (!writeBehind) {
+            aggregateWriter.apply(
+                    List.of(new DailyAggregateDeltaDto(targetDate, anonId, durationSec)));
+        }
+
+        // 5. 종료된 세션 정보 구성 (레지스트리 객체는 공유 중이므로 복사본 사용)
+        FocusSessionDto closed = new FocusSessionDto();
+        closed.setSessionId(sessionId);
+        closed.setAnonId(anonId);
+        closed.setStartedAt(open.getStartedAt());
+        closed.setEndedAt(now);
+        closed.setDurationSec(durationSec);
+        closed.setCreatedAt(open.getCreatedAt());
+
+        // 6. 정산 이벤트 발행 (랭킹 등 구독자는 커밋 후 반영)
+        eventPublisher.publishEvent(new FocusSettledEvent(anonId, sessionId, targetDate, durationSec, !writeBehind));
 
-        // 4. 종료된 세션 정보를 다시 DB에서 조회하여 반환
-        return sessionMapper.findById(sessionId);
+        // 7. 커밋 후 진행 중 세션 레지스트리에서 제거 (+ write-behind 증분 적재)
+        TransactionHooks.afterCommit(() -> {
+            activeSessionRegistry.unregister(anonId, sessionId);
+            if (writeBehind) {
+                dailyAggregateWriteBehind.enqueue(targetDate, anonId, durationSec);
+            }
+        });
+        return closed;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 실시간 스트림(SSE) 팬아웃 허브.
+ *
+ * <ul>
+ *   <li>이벤트는 한 번만 JSON 으로 직렬화해 완성된 SSE 프레임 문자열로 만들고, 모든 구독자가 같은 프레임을 공유</li>
+ *   <li>구독자마다 bounded 큐 + 전송 스레드 풀에서 순서대로 전송 (발행 스레드는 블로킹되지 않음)</li>
+ *   <li>큐가 가득 찬 느린 클라이언트는 연결을 끊는다 → EventSource 가 재접속 후 최신 상태를 다시 받음</li>
+ *   <li>주기적인 heartbeat 주석 프레임으로 프록시 타임아웃 방지 + 끊긴 연결 정리</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SseHub {
+
+    private static final MediaType UTF8_TEXT = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    /** heartbeat 프레임 (SSE 주석) */
+    private static final Set<DataWithMediaType> PING = Set.of(new DataWithMediaType(":ping\n\n", UTF8_TEXT));
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${focusbank.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${focusbank.sse.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${focusbank.sse.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${focusbank.sse.sender-threads:4}")
+    private int senderThreads;
+
+    /** anonId → 구독자들 (같은 사용자가 여러 탭/기기로 접속 가능) */
+    private final ConcurrentHashMap<String, Set<Subscriber>> byAnon = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger seq = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "sse-sender-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        byAnon.values().forEach(subs -> subs.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    /**
+     * 구독 등록.
+     *
+     * @param anonId 구독자 ID
+     * @return 응답으로 반환할 emitter
+     * @throws IllegalStateException 구독자 수 상한 초과
+     */
+    public SseEmitter subscribe(String anonId) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            throw new IllegalStateException("too many stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber sub = new Subscriber(anonId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        byAnon.compute(anonId, (k, subs) -> {
+            Set<Subscriber> set = subs != null ? subs : ConcurrentHashMap.newKeySet();
+            set.add(sub);
+            return set;
+        });
+
+        emitter.onCompletion(sub::close);
+        emitter.onTimeout(sub::close);
+        emitter.onError(e -> sub.close());
+
+        // 연결 직후 응답 헤더/첫 바이트를 내보내 EventSource 의 open 이벤트를 바로 발생시킴
+        sub.offer(frame("ready", "ok"));
+        return emitter;
+    }
+
+    /** 현재 구독자 수 */
+    public int subscriberCount() {
+        return count.get();
+    }
+
+    /** 해당 사용자의 구독 여부 */
+    public boolean hasSubscribers(String anonId) {
+        Set<Subscriber> subs = byAnon.get(anonId);
+        return subs != null && !subs.isEmpty();
+    }
+
+    /** 모든 구독자에게 전송 (직렬화 1회) */
+    public void broadcast(String event, Object payload) {
+        if (count.get() == 0) return;
+        Set<DataWithMediaType> f = frame(event, payload);
+        byAnon.values().forEach(subs -> subs.forEach(s -> s.offer(f)));
+    }
+
+    /** 특정 사용자의 구독자들에게만 전송 */
+    public void sendTo(String anonId, String event, Object payload) {
+        Set<Subscriber> subs = byAnon.get(anonId);
+        if (subs == null || subs.isEmpty()) return;
+        Set<DataWithMediaType> f = frame(event, payload);
+        subs.forEach(s -> s.offer(f));
+    }
+
+    /** heartbeat */
+    @Scheduled(fixedDelayString = "${focusbank.sse.heartbeat-ms:25000}")
+    void heartbeat() {
+        byAnon.values().forEach(subs -> subs.forEach(s -> s.offer(PING)));
+    }
+
+    private Set<DataWithMediaType> frame(String event, Object payload) {
+        try {
+            String text = "event:" + event + "\ndata:" + objectMapper.writeValueAsString(payload) + "\n\n";
+            return Set.of(new DataWithMediaType(text, UTF8_TEXT));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("stream event serialization failed", e);
+        }
+    }
+
+    /** 구독자 1명 (연결 1개) */
+    private final class Subscriber {
+        final String anonId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(String anonId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.anonId = anonId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed.get()) return;
+            if (!queue.offer(frame)) {
+                // 느린 클라이언트: 밀린 이벤트를 쌓지 않고 끊는다 (재접속 시 최신 상태로 복구)
+                log.debug("sse subscriber {} is too slow, disconnecting", anonId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Set<DataWithMediaType> f;
+                while (!closed.get() && (f = queue.poll()) != null) {
+                    emitter.send(f);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // drain 종료 직전에 들어온 프레임 처리
+            if (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            count.decrementAndGet();
+            byAnon.computeIfPresent(anonId, (k, subs) -> {
+                subs.remove(this);
+                return subs.isEmpty() ? null : subs;
+            });
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignore) {
+                // 이미 끊긴 연결
+            }
+        }
+    }
+}
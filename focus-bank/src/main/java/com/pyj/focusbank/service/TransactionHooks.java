@@ -0,0 +1,55 @@
+package com.pyj.focusbank.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 경계 유틸.
+ *
+ * <p>인메모리 상태(레지스트리/캐시 등)는 DB 커밋이 확정된 뒤에만 바꿔야
+ * 롤백 시 메모리와 DB가 어긋나지 않는다.</p>
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 action을 실행한다.
+     * 트랜잭션 밖에서 호출되면 즉시 실행한다.
+     *
+     * @param action 커밋 후 실행할 작업
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 현재 트랜잭션이 롤백되면 action을 실행한다. (미리 선점한 인메모리 자원 반납 등)
+     * 트랜잭션 밖에서 호출되면 되돌릴 것이 없으므로 아무것도 하지 않는다.
+     *
+     * @param action 롤백 후 실행할 작업
+     */
+    static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -1,4 +1,9 @@
 -- DROP
+DROP TABLE IF EXISTS idempotency_key;
+DROP TABLE IF EXISTS goal_result;
+DROP TABLE IF EXISTS monthly_aggregate;
+DROP TABLE IF EXISTS weekly_aggregate;
+DROP TABLE IF EXISTS user_total;
 DROP TABLE IF EXISTS user_goal;
 DROP TABLE IF EXISTS daily_aggregate;
 DROP TABLE IF EXISTS focus_session;
@@ -49,6 +54,53 @@ CREATE TABLE daily_aggregate (
 ) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;       
 
 
+-- 사용자별 누적 합계 (daily_aggregate 전체 기간 합계를 미리 계산해 둔 테이블)
+-- 정산 시 daily_aggregate 와 같은 트랜잭션에서 갱신 → 전체 랭킹은 인덱스 순서대로 LIMIT N 만 읽음
+CREATE TABLE user_total (
+  anon_id 		 CHAR(26) NOT NULL,              				-- 사용자 ID (PK, FK)
+  total_seconds BIGINT 	 NOT NULL DEFAULT 0,   					-- 전체 기간 누적 집중 시간(초)
+  updated_at 	 DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         ON UPDATE CURRENT_TIMESTAMP, 		-- 마지막 갱신 시각
+  PRIMARY KEY (anon_id),
+  CONSTRAINT fk_ut_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT,
+  KEY idx_ut_total (total_seconds DESC) 						-- 전체 랭킹 조회 최적화
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+
+-- 사용자별 주간 롤업 (ISO 주, 월요일 시작)
+-- 정산 시 (사용자, 주) 키별 증분 업서트 → 주간 리포트/주간 랭킹이 GROUP BY 없이 조회
+CREATE TABLE weekly_aggregate (
+  week_start 	 DATE 	 NOT NULL,              				-- 주 시작일 (월요일)
+  anon_id 		 CHAR(26) NOT NULL,              				-- 사용자 ID (FK)
+  total_seconds BIGINT 	 NOT NULL DEFAULT 0,   					-- 해당 주 총 집중 시간(초)
+  day_count 	 INT 		 NOT NULL DEFAULT 0,   					-- 해당 주 기록이 있는 날 수 (total_seconds > 0 인 daily_aggregate 행 수)
+  updated_at 	 DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         ON UPDATE CURRENT_TIMESTAMP, 		-- 마지막 갱신 시각
+  PRIMARY KEY (anon_id, week_start),         					-- 사용자별 최근 N주 범위 조회
+  CONSTRAINT fk_wa_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT,
+  KEY idx_wa_week_total (week_start, total_seconds DESC) 	-- 주간 랭킹 조회 최적화
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+
+-- 사용자별 월간 롤업
+CREATE TABLE monthly_aggregate (
+  month_start 	 DATE 	 NOT NULL,              				-- 월 시작일 (1일)
+  anon_id 		 CHAR(26) NOT NULL,              				-- 사용자 ID (FK)
+  total_seconds BIGINT 	 NOT NULL DEFAULT 0,   					-- 해당 월 총 집중 시간(초)
+  day_count 	 INT 		 NOT NULL DEFAULT 0,   					-- 해당 월 기록이 있는 날 수 (total_seconds > 0 인 daily_aggregate 행 수)
+  updated_at 	 DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         ON UPDATE CURRENT_TIMESTAMP, 		-- 마지막 갱신 시각
+  PRIMARY KEY (anon_id, month_start),        					-- 사용자별 최근 N개월 범위 조회
+  CONSTRAINT fk_ma_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+
 -- 사용자 목표 테이블 (목표 진행률 기능용)
 -- 목표가 아직 없다면 이 테이블은 비어 있어도 OK (조회 시 "미설정"으로 응답됨)
 CREATE TABLE user_goal (
@@ -70,35 +122,80 @@ CREATE TABLE user_goal (
   KEY idx_goal_user_period (anon_id, period_type, effective_from)
 ) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
 
+-- 목표 달성 기록 (기간 마감 후 GoalEvaluator 가 사용자 전체를 한 번에 평가해 기록)
+-- 목표 이력/연속 달성 조회는 이 테이블만 읽음 (요청마다 daily_aggregate 재합산 없음)
+CREATE TABLE goal_result (
+  anon_id          CHAR(26) 									NOT NULL, -- 사용자 ID (FK)
+  period_type      ENUM('DAILY','WEEKLY','MONTHLY') 	NOT NULL, -- 목표 기간
+  period_start     DATE 										NOT NULL, -- 기간 시작일 (당일 / 월요일 / 1일)
+  period_end       DATE 										NOT NULL, -- 기간 마지막 날 (포함)
+  target_seconds   INT 											NOT NULL, -- 마감 시점의 목표(초)
+  achieved_seconds INT 											NOT NULL, -- 기간 합계(초)
+  achieved         TINYINT(1) 								NOT NULL, -- 달성 여부 (achieved_seconds >= target_seconds)
+  evaluated_at     DATETIME 									NOT NULL DEFAULT CURRENT_TIMESTAMP
+                   ON UPDATE CURRENT_TIMESTAMP,                   -- 평가 시각 (재평가 시 갱신)
+  PRIMARY KEY (anon_id, period_type, period_start),               -- 사용자별 이력/연속 달성 범위 조회
+  CONSTRAINT fk_gr_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+
+-- 멱등 키 (Idempotency-Key 헤더로 재시도한 입금/정산에 최초 응답을 그대로 돌려주기 위한 기록)
+-- 본 작업과 같은 트랜잭션에서 저장 → 재시작 후에도 재시도가 중복 세션을 만들지 않음, 보존 기간 후 삭제
+CREATE TABLE idempotency_key (
+  idem_key      VARCHAR(64)  NOT NULL,                           -- 클라이언트가 보낸 Idempotency-Key
+  operation     VARCHAR(16)  NOT NULL,                           -- deposit | settle
+  fingerprint   VARCHAR(64)  NOT NULL,                           -- 요청 식별값 (deposit: anonId, settle: sessionId)
+  status_code   SMALLINT     NOT NULL,                           -- 최초 응답 상태 코드
+  response_body TEXT         NOT NULL,                           -- 최초 응답 본문 (JSON)
+  created_at    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP, -- 저장 시각 (보존 기간 기준)
+  PRIMARY KEY (idem_key, operation),
+  KEY idx_idem_created (created_at)                              -- 만료 행 정리
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
 
 -- test 랭킹
 
--- 더미 유저 (실제 1위 제외, 4명 추가)
+-- 더미 유저 (실제 1위 제외, 4명 추가 / ID 는 대문자 Crockford 26자 → V4 변환 가능)
 INSERT INTO anonymous_user (anon_id, nickname, nickname_tag, created_at, updated_at) VALUES
-('01HJQ5X2Y7A3F3ZP4R1G9S701', '집중맨',   '0421', NOW(), NOW()),
-('01HJQ5X2Y7A3F3ZP4R1G9S702', '꾸준이',   '8877', NOW(), NOW()),
-('01HJQ5X2Y7A3F3ZP4R1G9S703', '집중못해', '3355', NOW(), NOW()),
-('01HJQ5X2Y7A3F3ZP4R1G9S704', '파이팅',   '9910', NOW(), NOW());
+('01HJQ5X2Y7A3F3ZP4R1G9S7001', '집중맨',   '0421', NOW(), NOW()),
+('01HJQ5X2Y7A3F3ZP4R1G9S7002', '꾸준이',   '8877', NOW(), NOW()),
+('01HJQ5X2Y7A3F3ZP4R1G9S7003', '집중못해', '3355', NOW(), NOW()),
+('01HJQ5X2Y7A3F3ZP4R1G9S7004', '파이팅',   '9910', NOW(), NOW());
 
 -- 더미 세션 (각 유저별 1회 기록)
 -- 2위: 85분 (5100초)  → 시작: 2시간 전, 종료: 35분 전
 INSERT INTO focus_session (anon_id, started_at,                 ended_at,                      duration_sec, created_at) VALUES
-('01HJQ5X2Y7A3F3ZP4R1G9S701', NOW() - INTERVAL 2 HOUR,          NOW() - INTERVAL 35 MINUTE,    5100,         NOW());
+('01HJQ5X2Y7A3F3ZP4R1G9S7001', NOW() - INTERVAL 2 HOUR,          NOW() - INTERVAL 35 MINUTE,    5100,         NOW());
 
 -- 3위: 72분 (4320초)  → 시작: 3시간 전, 종료: 108분 전
 INSERT INTO focus_session (anon_id, started_at,                 ended_at,                      duration_sec, created_at) VALUES
-('01HJQ5X2Y7A3F3ZP4R1G9S702', NOW() - INTERVAL 3 HOUR,          NOW() - INTERVAL 108 MINUTE,   4320,         NOW());
+('01HJQ5X2Y7A3F3ZP4R1G9S7002', NOW() - INTERVAL 3 HOUR,          NOW() - INTERVAL 108 MINUTE,   4320,         NOW());
 
 -- 4위: 55분 (3300초)  → 시작: 4시간 전, 종료: 185분 전
 INSERT INTO focus_session (anon_id, started_at,                 ended_at,                      duration_sec, created_at) VALUES
-('01HJQ5X2Y7A3F3ZP4R1G9S703', NOW() - INTERVAL 4 HOUR,          NOW() - INTERVAL 185 MINUTE,   3300,         NOW());
+('01HJQ5X2Y7A3F3ZP4R1G9S7003', NOW() - INTERVAL 4 HOUR,          NOW() - INTERVAL 185 MINUTE,   3300,         NOW());
 
 -- 5위: 40분 (2400초)  → 시작: 5시간 전, 종료: 260분 전
 INSERT INTO focus_session (anon_id, started_at,                 ended_at,                      duration_sec, created_at) VALUES
-('01HJQ5X2Y7A3F3ZP4R1G9S704', NOW() - INTERVAL 5 HOUR,          NOW() - INTERVAL 260 MINUTE,   2400,         NOW());
+('01HJQ5X2Y7A3F3ZP4R1G9S7004', NOW() - INTERVAL 5 HOUR,          NOW() - INTERVAL 260 MINUTE,   2400,         NOW());
 
 INSERT INTO daily_aggregate (target_date, anon_id, total_seconds, updated_at) VALUES
-(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S701', 5100, NOW()),
-(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S702', 4320, NOW()),
-(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S703', 3300, NOW()),
-(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S704', 2400, NOW());
\ No newline at end of file
+(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S7001', 5100, NOW()),
+(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S7002', 4320, NOW()),
+(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S7003', 3300, NOW()),
+(CURDATE(), '01HJQ5X2Y7A3F3ZP4R1G9S7004', 2400, NOW());
+
+INSERT INTO user_total (anon_id, total_seconds)
+SELECT anon_id, SUM(total_seconds) FROM daily_aggregate GROUP BY anon_id;
+
+INSERT INTO weekly_aggregate (week_start, anon_id, total_seconds, day_count)
+SELECT DATE_SUB(target_date, INTERVAL WEEKDAY(target_date) DAY), anon_id, SUM(total_seconds), SUM(total_seconds > 0)
+  FROM daily_aggregate
+ GROUP BY anon_id, DATE_SUB(target_date, INTERVAL WEEKDAY(target_date) DAY);
+
+INSERT INTO monthly_aggregate (month_start, anon_id, total_seconds, day_count)
+SELECT DATE_SUB(target_date, INTERVAL DAYOFMONTH(target_date) - 1 DAY), anon_id, SUM(total_seconds), SUM(total_seconds > 0)
+  FROM daily_aggregate
+ GROUP BY anon_id, DATE_SUB(target_date, INTERVAL DAYOFMONTH(target_date) - 1 DAY);
@@ -0,0 +1,21 @@
+-- 기존 DB에 user_total 추가 + 백필
+-- (신규 설치는 focus.sql 에 포함되어 있으므로 실행 불필요)
+
+CREATE TABLE IF NOT EXISTS user_total (
+  anon_id 		 CHAR(26) NOT NULL,              				-- 사용자 ID (PK, FK)
+  total_seconds BIGINT 	 NOT NULL DEFAULT 0,   					-- 전체 기간 누적 집중 시간(초)
+  updated_at 	 DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         ON UPDATE CURRENT_TIMESTAMP, 		-- 마지막 갱신 시각
+  PRIMARY KEY (anon_id),
+  CONSTRAINT fk_ut_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT,
+  KEY idx_ut_total (total_seconds DESC) 						-- 전체 랭킹 조회 최적화
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+-- 백필: daily_aggregate 전체 합계로 재계산 (여러 번 실행해도 결과 동일)
+INSERT INTO user_total (anon_id, total_seconds)
+SELECT anon_id, SUM(total_seconds)
+  FROM daily_aggregate
+ GROUP BY anon_id
+    ON DUPLICATE KEY UPDATE total_seconds = VALUES(total_seconds);
@@ -0,0 +1,46 @@
+-- 기존 DB에 weekly_aggregate / monthly_aggregate 추가 + 백필
+-- (신규 설치는 focus.sql 에 포함되어 있으므로 실행 불필요)
+
+-- 사용자별 주간 롤업 (ISO 주, 월요일 시작)
+-- 정산 시 (사용자, 주) 키별 증분 업서트 → 주간 리포트/주간 랭킹이 GROUP BY 없이 조회
+CREATE TABLE IF NOT EXISTS weekly_aggregate (
+  week_start 	 DATE 	 NOT NULL,              				-- 주 시작일 (월요일)
+  anon_id 		 CHAR(26) NOT NULL,              				-- 사용자 ID (FK)
+  total_seconds BIGINT 	 NOT NULL DEFAULT 0,   					-- 해당 주 총 집중 시간(초)
+  day_count 	 INT 		 NOT NULL DEFAULT 0,   					-- 해당 주 기록이 있는 날 수 (total_seconds > 0 인 daily_aggregate 행 수)
+  updated_at 	 DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         ON UPDATE CURRENT_TIMESTAMP, 		-- 마지막 갱신 시각
+  PRIMARY KEY (anon_id, week_start),         					-- 사용자별 최근 N주 범위 조회
+  CONSTRAINT fk_wa_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT,
+  KEY idx_wa_week_total (week_start, total_seconds DESC) 	-- 주간 랭킹 조회 최적화
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+
+-- 사용자별 월간 롤업
+CREATE TABLE IF NOT EXISTS monthly_aggregate (
+  month_start 	 DATE 	 NOT NULL,              				-- 월 시작일 (1일)
+  anon_id 		 CHAR(26) NOT NULL,              				-- 사용자 ID (FK)
+  total_seconds BIGINT 	 NOT NULL DEFAULT 0,   					-- 해당 월 총 집중 시간(초)
+  day_count 	 INT 		 NOT NULL DEFAULT 0,   					-- 해당 월 기록이 있는 날 수 (total_seconds > 0 인 daily_aggregate 행 수)
+  updated_at 	 DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         ON UPDATE CURRENT_TIMESTAMP, 		-- 마지막 갱신 시각
+  PRIMARY KEY (anon_id, month_start),        					-- 사용자별 최근 N개월 범위 조회
+  CONSTRAINT fk_ma_user FOREIGN KEY (anon_id)
+    REFERENCES anonymous_user(anon_id)
+    ON UPDATE CASCADE ON DELETE RESTRICT
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
+
+-- 백필: daily_aggregate 로 재계산 (여러 번 실행해도 결과 동일)
+INSERT INTO weekly_aggregate (week_start, anon_id, total_seconds, day_count)
+SELECT DATE_SUB(target_date, INTERVAL WEEKDAY(target_date) DAY), anon_id, SUM(total_seconds), SUM(total_seconds > 0)
+  FROM daily_aggregate
+ GROUP BY anon_id, DATE_SUB(target_date, INTERVAL WEEKDAY(target_date) DAY)
+    ON DUPLICATE KEY UPDATE total_seconds = VALUES(total_seconds), day_count = VALUES(day_count);
+
+INSERT INTO monthly_aggregate (month_start, anon_id, total_seconds, day_count)
+SELECT DATE_SUB(target_date, INTERVAL DAYOFMONTH(target_date) - 1 DAY), anon_id, SUM(total_seconds), SUM(total_seconds > 0)
+  FROM daily_aggregate
+ GROUP BY anon_id, DATE_SUB(target_date, INTERVAL DAYOFMONTH(target_date) - 1 DAY)
+    ON DUPLICATE KEY UPDATE total_seconds = VALUES(total_seconds), day_count = VALUES(day_count);
@@ -0,0 +1,118 @@
+-- anon_id CHAR(26) → BINARY(17) 변환 (focusbank.anon-id.storage: binary 와 함께 적용)
+-- - 26자 Crockford Base32(130비트)를 big-endian 으로 압축, 앞 6비트는 0
+--   (AnonIdTypeHandler.toBytes 와 같은 배치 → 애플리케이션이 읽고 쓰는 값과 바이트 단위로 일치)
+-- - 클라이언트 생성 ID 는 첫 글자가 0~7 로 제한되지 않아 128비트(BINARY(16))에 들어가지 않으므로 17바이트 사용
+-- - 모든 anon_id 가 대문자 Crockford 26자여야 한다 (아니면 아무것도 바꾸지 않고 중단)
+-- - goal_result(V6)가 이미 있으면 함께 변환, 없으면 V6 가 나중에 부모 타입(BINARY(17))을 따라 생성
+-- - 테이블 전체를 다시 쓰므로 점검 시간에 실행, 실행 전 백업 필수
+
+DELIMITER //
+
+-- 0) 사전 검사: 변환할 수 없는 anon_id 가 하나라도 있으면 중단
+BEGIN NOT ATOMIC
+  IF EXISTS (SELECT 1 FROM anonymous_user
+              WHERE anon_id COLLATE utf8mb4_bin NOT REGEXP '^[0-9A-HJKMNP-TV-Z]{26}$') THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'anonymous_user has non-canonical anon_id values; fix them before V4';
+  END IF;
+END //
+
+-- 26자 Crockford Base32 → BINARY(17)
+CREATE FUNCTION ulid_to_bin(id CHAR(26) CHARACTER SET ascii COLLATE ascii_bin)
+RETURNS BINARY(17) DETERMINISTIC
+BEGIN
+  DECLARE bits VARCHAR(136) DEFAULT '000000';
+  DECLARE hex  VARCHAR(34)  DEFAULT '';
+  DECLARE i    INT          DEFAULT 1;
+  WHILE i <= 26 DO
+    SET bits = CONCAT(bits, LPAD(CONV(INSTR('0123456789ABCDEFGHJKMNPQRSTVWXYZ', SUBSTRING(id, i, 1)) - 1, 10, 2), 5, '0'));
+    SET i = i + 1;
+  END WHILE;
+  SET i = 1;
+  WHILE i <= 136 DO
+    SET hex = CONCAT(hex, CONV(SUBSTRING(bits, i, 4), 2, 16));
+    SET i = i + 4;
+  END WHILE;
+  RETURN UNHEX(hex);
+END //
+
+DELIMITER ;
+
+-- 1) 부모 컬럼 타입을 바꾸기 위해 FK 를 모두 해제
+ALTER TABLE focus_session     DROP FOREIGN KEY fk_fs_user;
+ALTER TABLE daily_aggregate   DROP FOREIGN KEY fk_da_user;
+ALTER TABLE user_total        DROP FOREIGN KEY fk_ut_user;
+ALTER TABLE weekly_aggregate  DROP FOREIGN KEY fk_wa_user;
+ALTER TABLE monthly_aggregate DROP FOREIGN KEY fk_ma_user;
+ALTER TABLE user_goal         DROP FOREIGN KEY fk_goal_user;
+ALTER TABLE IF EXISTS goal_result DROP FOREIGN KEY IF EXISTS fk_gr_user;
+
+-- 2) 테이블별: 새 컬럼 채움 → anon_id 를 포함한 키 해제 → 컬럼 교체 → 키 재생성
+ALTER TABLE anonymous_user ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE anonymous_user SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE anonymous_user DROP PRIMARY KEY, DROP COLUMN anon_id;
+ALTER TABLE anonymous_user CHANGE anon_bin anon_id BINARY(17) NOT NULL, ADD PRIMARY KEY (anon_id);
+
+ALTER TABLE focus_session ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE focus_session SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE focus_session DROP INDEX idx_fs_user_started, DROP INDEX idx_fs_user_ended, DROP COLUMN anon_id;
+ALTER TABLE focus_session CHANGE anon_bin anon_id BINARY(17) NOT NULL,
+  ADD KEY idx_fs_user_started (anon_id, started_at),
+  ADD KEY idx_fs_user_ended (anon_id, ended_at);
+
+ALTER TABLE daily_aggregate ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE daily_aggregate SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE daily_aggregate DROP PRIMARY KEY, DROP INDEX IF EXISTS fk_da_user, DROP COLUMN anon_id;
+ALTER TABLE daily_aggregate CHANGE anon_bin anon_id BINARY(17) NOT NULL, ADD PRIMARY KEY (target_date, anon_id);
+
+ALTER TABLE user_total ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE user_total SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE user_total DROP PRIMARY KEY, DROP COLUMN anon_id;
+ALTER TABLE user_total CHANGE anon_bin anon_id BINARY(17) NOT NULL, ADD PRIMARY KEY (anon_id);
+
+ALTER TABLE weekly_aggregate ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE weekly_aggregate SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE weekly_aggregate DROP PRIMARY KEY, DROP COLUMN anon_id;
+ALTER TABLE weekly_aggregate CHANGE anon_bin anon_id BINARY(17) NOT NULL, ADD PRIMARY KEY (anon_id, week_start);
+
+ALTER TABLE monthly_aggregate ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE monthly_aggregate SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE monthly_aggregate DROP PRIMARY KEY, DROP COLUMN anon_id;
+ALTER TABLE monthly_aggregate CHANGE anon_bin anon_id BINARY(17) NOT NULL, ADD PRIMARY KEY (anon_id, month_start);
+
+ALTER TABLE user_goal ADD COLUMN anon_bin BINARY(17) NULL AFTER anon_id;
+UPDATE user_goal SET anon_bin = ulid_to_bin(anon_id);
+ALTER TABLE user_goal DROP INDEX uq_goal_unique, DROP INDEX idx_goal_user_period, DROP COLUMN anon_id;
+ALTER TABLE user_goal CHANGE anon_bin anon_id BINARY(17) NOT NULL,
+  ADD CONSTRAINT uq_goal_unique UNIQUE (anon_id, period_type, effective_from),
+  ADD KEY idx_goal_user_period (anon_id, period_type, effective_from);
+
+ALTER TABLE IF EXISTS goal_result ADD COLUMN IF NOT EXISTS anon_bin BINARY(17) NULL AFTER anon_id;
+DELIMITER //
+BEGIN NOT ATOMIC
+  IF EXISTS (SELECT 1 FROM information_schema.TABLES
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'goal_result') THEN
+    UPDATE goal_result SET anon_bin = ulid_to_bin(anon_id);
+  END IF;
+END //
+DELIMITER ;
+ALTER TABLE IF EXISTS goal_result DROP PRIMARY KEY, DROP COLUMN anon_id;
+ALTER TABLE IF EXISTS goal_result CHANGE anon_bin anon_id BINARY(17) NOT NULL,
+  ADD PRIMARY KEY (anon_id, period_type, period_start);
+
+-- 3) FK 복원
+ALTER TABLE focus_session ADD CONSTRAINT fk_fs_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE daily_aggregate ADD CONSTRAINT fk_da_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE user_total ADD CONSTRAINT fk_ut_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE weekly_aggregate ADD CONSTRAINT fk_wa_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE monthly_aggregate ADD CONSTRAINT fk_ma_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE user_goal ADD CONSTRAINT fk_goal_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE IF EXISTS goal_result ADD CONSTRAINT fk_gr_user FOREIGN KEY (anon_id)
+  REFERENCES anonymous_user(anon_id) ON UPDATE CASCADE ON DELETE RESTRICT;
+
+DROP FUNCTION ulid_to_bin;
@@ -0,0 +1,14 @@
+-- 기존 DB에 idempotency_key 추가 (Idempotency-Key 헤더 재시도 응답 저장)
+-- (신규 설치는 focus.sql 에 포함되어 있으므로 실행 불필요)
+-- anon_id 저장 형식(V4)과 무관: 요청 식별값(fingerprint)은 문자열로 저장하고 FK 를 두지 않음
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+  idem_key      VARCHAR(64)  NOT NULL,                           -- 클라이언트가 보낸 Idempotency-Key
+  operation     VARCHAR(16)  NOT NULL,                           -- deposit | settle
+  fingerprint   VARCHAR(64)  NOT NULL,                           -- 요청 식별값 (deposit: anonId, settle: sessionId)
+  status_code   SMALLINT     NOT NULL,                           -- 최초 응답 상태 코드
+  response_body TEXT         NOT NULL,                           -- 최초 응답 본문 (JSON)
+  created_at    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP, -- 저장 시각 (보존 기간 기준)
+  PRIMARY KEY (idem_key, operation),
+  KEY idx_idem_created (created_at)                              -- 만료 행 정리
+) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
@@ -0,0 +1,30 @@
+-- 기존 DB에 goal_result 추가 (기간 마감 후 목표 달성 여부 기록)
+-- (신규 설치는 focus.sql 에 포함되어 있으므로 실행 불필요)
+-- anon_id 타입은 anonymous_user.anon_id 를 그대로 따른다 (CHAR(26), V4 적용 후면 BINARY(17)) → FK 타입 일치
+-- 과거 기간은 채우지 않는다: 적용 후 다음 마감(00:05 KST)부터 기록
+
+DELIMITER //
+BEGIN NOT ATOMIC
+  DECLARE anon_type VARCHAR(64);
+  SELECT COLUMN_TYPE INTO anon_type
+    FROM information_schema.COLUMNS
+   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'anonymous_user' AND COLUMN_NAME = 'anon_id';
+
+  EXECUTE IMMEDIATE CONCAT('
+    CREATE TABLE IF NOT EXISTS goal_result (
+      anon_id          ', anon_type, '                  NOT NULL, -- 사용자 ID (FK, 부모와 같은 타입)
+      period_type      ENUM(''DAILY'',''WEEKLY'',''MONTHLY'') NOT NULL, -- 목표 기간
+      period_start     DATE                             NOT NULL, -- 기간 시작일 (당일 / 월요일 / 1일)
+      period_end       DATE                             NOT NULL, -- 기간 마지막 날 (포함)
+      target_seconds   INT                              NOT NULL, -- 마감 시점의 목표(초)
+      achieved_seconds INT                              NOT NULL, -- 기간 합계(초)
+      achieved         TINYINT(1)                       NOT NULL, -- 달성 여부 (achieved_seconds >= target_seconds)
+      evaluated_at     DATETIME                         NOT NULL DEFAULT CURRENT_TIMESTAMP
+                       ON UPDATE CURRENT_TIMESTAMP,               -- 평가 시각 (재평가 시 갱신)
+      PRIMARY KEY (anon_id, period_type, period_start),           -- 사용자별 이력/연속 달성 범위 조회
+      CONSTRAINT fk_gr_user FOREIGN KEY (anon_id)
+        REFERENCES anonymous_user(anon_id)
+        ON UPDATE CASCADE ON DELETE RESTRICT
+    ) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4');
+END //
+DELIMITER ;
@@ -0,0 +1,239 @@
+package com.pyj.focusbank.benchmark;
+
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler.Storage;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import com.pyj.focusbank.support.LatencyRecorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * anon_id 저장 형식 비교: CHAR(26) vs BINARY(17) (V4__binary_anon_id.sql 적용).
+ *
+ * <p>같은 데이터(사용자 N명 × 이번 주 3일)를 두 형식으로 만들고
+ * <ul>
+ *   <li>테이블별 데이터/인덱스 크기 (information_schema, ANALYZE 후)</li>
+ *   <li>주간/전체 TOP 100, 사용자별 주간 리포트, 날짜별 세션 조회 지연시간</li>
+ * </ul>
+ * 을 비교한다. 쿼리는 매퍼 XML 과 같은 SQL 이다.
+ *
+ * 실행: {@code ./gradlew benchmark --tests '*AnonIdStorageBenchmark' [-PanonIdUsers=1000000]}
+ * 결과: build/reports/benchmark/anon-id-storage.json, anon-id-storage-sizes.json
+ */
+@Tag("benchmark")
+class AnonIdStorageBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.anonIdUsers", 1_000_000);
+    private static final int BATCH = 10_000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String[] TABLES = {
+            "anonymous_user", "focus_session", "daily_aggregate", "user_total", "weekly_aggregate", "monthly_aggregate"
+    };
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate monday = today.with(DayOfWeek.MONDAY);
+
+    @Test
+    void charVsBinary() throws Exception {
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        Map<String, Map<String, Object>> sizes = new LinkedHashMap<>();
+
+        for (Storage storage : Storage.values()) {
+            try (EmbeddedMariaDb db = EmbeddedMariaDb.start();
+                 Connection c = db.connect()) {
+                clearDummyRows(c);
+                if (storage == Storage.BINARY) {
+                    db.source("static/sql/migration/V4__binary_anon_id.sql");
+                }
+                seed(c, storage);
+                sizes.put(storage.name().toLowerCase(), tableSizes(c));
+                recorders.addAll(measure(c, storage));
+            }
+        }
+
+        recorders.forEach(System.out::println);
+        System.out.println(sizes);
+        System.out.println("written: " + LatencyRecorder.writeJson("anon-id-storage", recorders.toArray(LatencyRecorder[]::new)));
+        System.out.println("written: " + writeSizes(sizes));
+        assertTrue(recorders.stream().allMatch(r -> r.count() == ITERATIONS));
+    }
+
+    /** focus.sql 더미 데이터(25자 ID)는 V4 사전 검사를 통과하지 못하므로 제거 */
+    private void clearDummyRows(Connection c) throws Exception {
+        try (Statement st = c.createStatement()) {
+            for (String table : new String[]{"user_goal", "monthly_aggregate", "weekly_aggregate", "user_total",
+                    "daily_aggregate", "focus_session", "anonymous_user"}) {
+                st.executeUpdate("DELETE FROM " + table);
+            }
+        }
+    }
+
+    /** 사용자는 JDBC 배치, 파생 테이블은 INSERT ... SELECT 로 생성 (두 형식 모두 같은 값) */
+    private void seed(Connection c, Storage storage) throws Exception {
+        c.setAutoCommit(false);
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO anonymous_user (anon_id, nickname, nickname_tag) VALUES (?, ?, '0001')")) {
+            for (int i = 0; i < USERS; i++) {
+                bind(ps, 1, anonId(i), storage);
+                ps.setString(2, "user" + i);
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    ps.executeBatch();
+                    c.commit();
+                }
+            }
+            ps.executeBatch();
+            c.commit();
+        }
+        c.setAutoCommit(true);
+
+        try (Statement st = c.createStatement()) {
+            // 이번 주 월요일부터 3일, 사용자별 1~7200초 (anon_id 에서 결정적으로 계산)
+            st.executeUpdate("INSERT INTO daily_aggregate (target_date, anon_id, total_seconds) "
+                    + "SELECT DATE_ADD('" + monday + "', INTERVAL d.n DAY), u.anon_id, CRC32(CONCAT(u.nickname, d.n)) % 7200 + 1 "
+                    + "FROM anonymous_user u CROSS JOIN (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2) d");
+            st.executeUpdate("INSERT INTO focus_session (anon_id, started_at, ended_at, duration_sec, created_at) "
+                    + "SELECT anon_id, target_date + INTERVAL 9 HOUR, target_date + INTERVAL 9 HOUR + INTERVAL total_seconds SECOND, "
+                    + "total_seconds, NOW() FROM daily_aggregate");
+            st.executeUpdate("INSERT INTO user_total (anon_id, total_seconds) "
+                    + "SELECT anon_id, SUM(total_seconds) FROM daily_aggregate GROUP BY anon_id");
+            st.executeUpdate("INSERT INTO weekly_aggregate (week_start, anon_id, total_seconds, day_count) "
+                    + "SELECT DATE_SUB(target_date, INTERVAL WEEKDAY(target_date) DAY), anon_id, SUM(total_seconds), SUM(total_seconds > 0) "
+                    + "FROM daily_aggregate GROUP BY anon_id, DATE_SUB(target_date, INTERVAL WEEKDAY(target_date) DAY)");
+            st.executeUpdate("INSERT INTO monthly_aggregate (month_start, anon_id, total_seconds, day_count) "
+                    + "SELECT DATE_SUB(target_date, INTERVAL DAYOFMONTH(target_date) - 1 DAY), anon_id, SUM(total_seconds), SUM(total_seconds > 0) "
+                    + "FROM daily_aggregate GROUP BY anon_id, DATE_SUB(target_date, INTERVAL DAYOFMONTH(target_date) - 1 DAY)");
+            st.execute("ANALYZE TABLE " + String.join(", ", TABLES));
+        }
+    }
+
+    private Map<String, Object> tableSizes(Connection c) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long totalData = 0, totalIndex = 0;
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT TABLE_NAME, DATA_LENGTH, INDEX_LENGTH FROM information_schema.TABLES "
+                        + "WHERE TABLE_SCHEMA = ? ORDER BY TABLE_NAME")) {
+            ps.setString(1, EmbeddedMariaDb.DB_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long data = rs.getLong(2), index = rs.getLong(3);
+                    result.put(rs.getString(1), Map.of("dataBytes", data, "indexBytes", index));
+                    totalData += data;
+                    totalIndex += index;
+                }
+            }
+        }
+        result.put("total", Map.of("dataBytes", totalData, "indexBytes", totalIndex));
+        return result;
+    }
+
+    private List<LatencyRecorder> measure(Connection c, Storage storage) throws Exception {
+        String mode = storage.name().toLowerCase();
+        AnonIdTypeHandler handler = new AnonIdTypeHandler(storage);
+        LatencyRecorder weeklyTop = new LatencyRecorder(mode + "-weekly-top100");
+        LatencyRecorder overallTop = new LatencyRecorder(mode + "-overall-top100");
+        LatencyRecorder weeklyReport = new LatencyRecorder(mode + "-weekly-report");
+        LatencyRecorder sessionsByDate = new LatencyRecorder(mode + "-sessions-by-date");
+
+        try (PreparedStatement weekly = c.prepareStatement(
+                "SELECT wa.anon_id, u.nickname, u.nickname_tag, wa.total_seconds FROM weekly_aggregate wa "
+                        + "LEFT JOIN anonymous_user u ON wa.anon_id = u.anon_id "
+                        + "WHERE wa.week_start = ? ORDER BY wa.total_seconds DESC LIMIT 100");
+             PreparedStatement overall = c.prepareStatement(
+                     "SELECT ut.anon_id, u.nickname, u.nickname_tag, ut.total_seconds FROM user_total ut "
+                             + "LEFT JOIN anonymous_user u ON ut.anon_id = u.anon_id "
+                             + "ORDER BY ut.total_seconds DESC LIMIT 100");
+             PreparedStatement report = c.prepareStatement(
+                     "SELECT wa.week_start, wa.total_seconds FROM weekly_aggregate wa "
+                             + "WHERE wa.anon_id = ? AND wa.week_start BETWEEN ? AND ? ORDER BY wa.week_start");
+             PreparedStatement sessions = c.prepareStatement(
+                     "SELECT session_id, anon_id, started_at, ended_at, duration_sec, created_at FROM focus_session "
+                             + "WHERE anon_id = ? AND started_at >= ? AND started_at < ? ORDER BY started_at ASC, session_id ASC")) {
+
+            weekly.setDate(1, Date.valueOf(monday));
+            report.setDate(2, Date.valueOf(monday.minusWeeks(7)));
+            report.setDate(3, Date.valueOf(today));
+            sessions.setTimestamp(2, Timestamp.valueOf(monday.atStartOfDay()));
+            sessions.setTimestamp(3, Timestamp.valueOf(monday.plusDays(1).atStartOfDay()));
+
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                boolean timed = i >= WARMUP;
+                String id = anonId(random.nextInt(USERS));
+                bind(report, 1, id, storage);
+                bind(sessions, 1, id, storage);
+
+                time(weekly, timed ? weeklyTop : null, handler);
+                time(overall, timed ? overallTop : null, handler);
+                time(report, timed ? weeklyReport : null, null);
+                time(sessions, timed ? sessionsByDate : null, handler);
+            }
+        }
+        return List.of(weeklyTop, overallTop, weeklyReport, sessionsByDate);
+    }
+
+    /** 쿼리 실행 + 결과 소비 (decoder 가 있으면 서비스와 같이 anon_id 를 문자열로 복원) */
+    private void time(PreparedStatement ps, LatencyRecorder rec, AnonIdTypeHandler decoder) throws Exception {
+        long t0 = System.nanoTime();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                if (decoder != null) {
+                    decoder.fromColumn(rs.getObject("anon_id"));
+                }
+            }
+        }
+        if (rec != null) rec.record(System.nanoTime() - t0);
+    }
+
+    private static void bind(PreparedStatement ps, int index, String anonId, Storage storage) throws Exception {
+        if (storage == Storage.BINARY) {
+            ps.setBytes(index, AnonIdTypeHandler.toBytes(anonId));
+        } else {
+            ps.setString(index, anonId);
+        }
+    }
+
+    private static Path writeSizes(Map<String, Map<String, Object>> sizes) throws Exception {
+        Path file = Path.of("build", "reports", "benchmark", "anon-id-storage-sizes.json");
+        Files.createDirectories(file.getParent());
+        String json = sizes.entrySet().stream()
+                .map(mode -> "\"" + mode.getKey() + "\":{" + mode.getValue().entrySet().stream()
+                        .map(t -> "\"" + t.getKey() + "\":" + toJson(t.getValue()))
+                        .collect(Collectors.joining(",")) + "}")
+                .collect(Collectors.joining(",", "{\"users\":" + USERS + ",", "}"));
+        Files.writeString(file, json);
+        return file;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String toJson(Object value) {
+        Map<String, Object> m = (Map<String, Object>) value;
+        return "{\"dataBytes\":" + m.get("dataBytes") + ",\"indexBytes\":" + m.get("indexBytes") + "}";
+    }
+
+    /** Crockford Base32 대문자 26자 (V4 사전 검사 통과) */
+    private static String anonId(int i) {
+        return String.format("01JPERF%019d", i);
+    }
+}
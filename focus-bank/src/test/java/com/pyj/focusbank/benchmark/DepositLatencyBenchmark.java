@@ -0,0 +1,136 @@
+package com.pyj.focusbank.benchmark;
+
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import com.pyj.focusbank.support.LatencyRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 입금(deposit) 지연시간 before/after 비교 (재방문 사용자 기준).
+ *
+ * <ul>
+ *   <li>before: ensureAnonUser → INSERT ... SELECT (BINARY 비교) → findOpenByAnon 재조회 (3문장)</li>
+ *   <li>after : 생성 키 회수 INSERT 1문장</li>
+ * </ul>
+ *
+ * 실행: {@code ./gradlew benchmark --tests '*DepositLatencyBenchmark'}
+ * 결과: build/reports/benchmark/deposit.json
+ */
+@Tag("benchmark")
+class DepositLatencyBenchmark {
+
+    private static final int USERS = 200;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5_000;
+
+    private static EmbeddedMariaDb db;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+        try (Connection c = db.connect();
+             PreparedStatement ps = c.prepareStatement("INSERT INTO anonymous_user (anon_id) VALUES (?)")) {
+            for (int i = 0; i < USERS; i++) {
+                ps.setString(1, anonId(i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void depositBeforeVsAfter() throws Exception {
+        LatencyRecorder before = new LatencyRecorder("deposit-before-3-statements");
+        LatencyRecorder after = new LatencyRecorder("deposit-after-1-statement");
+
+        try (Connection c = db.connect()) {
+            c.setAutoCommit(false);
+            run(c, WARMUP, null, true);
+            run(c, ITERATIONS, before, true);
+            run(c, WARMUP, null, false);
+            run(c, ITERATIONS, after, false);
+        }
+
+        System.out.println(before);
+        System.out.println(after);
+        System.out.println("written: " + LatencyRecorder.writeJson("deposit", before, after));
+        assertTrue(after.count() == ITERATIONS && before.count() == ITERATIONS);
+    }
+
+    private void run(Connection c, int n, LatencyRecorder rec, boolean legacy) throws Exception {
+        for (int i = 0; i < n; i++) {
+            String id = anonId(i % USERS);
+            long t0 = System.nanoTime();
+            if (legacy) {
+                legacyDeposit(c, id);
+            } else {
+                singleStatementDeposit(c, id);
+            }
+            c.commit();
+            if (rec != null) rec.record(System.nanoTime() - t0);
+        }
+    }
+
+    /** 기존 SessionMapper.xml 의 ensureAnonUser / startFocus / findOpenByAnon 그대로 */
+    private void legacyDeposit(Connection c, String id) throws Exception {
+        try (PreparedStatement ensure = c.prepareStatement(
+                "INSERT INTO anonymous_user (anon_id, created_at, nickname_tag) "
+                        + "VALUES (?, NOW(), LPAD(FLOOR(RAND()*9999)+1,4,'0')) "
+                        + "ON DUPLICATE KEY UPDATE created_at = created_at")) {
+            ensure.setString(1, id);
+            ensure.executeUpdate();
+        }
+        try (PreparedStatement insert = c.prepareStatement(
+                "INSERT INTO focus_session (anon_id, started_at, created_at) "
+                        + "SELECT au.anon_id, NOW(), NOW() FROM anonymous_user au WHERE BINARY au.anon_id = ?")) {
+            insert.setString(1, id);
+            insert.executeUpdate();
+        }
+        try (PreparedStatement find = c.prepareStatement(
+                "SELECT session_id, anon_id, started_at, ended_at, duration_sec, created_at "
+                        + "FROM focus_session WHERE anon_id = ? AND ended_at IS NULL "
+                        + "ORDER BY started_at DESC LIMIT 1")) {
+            find.setString(1, id);
+            try (ResultSet rs = find.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    /** 새 insertSession (useGeneratedKeys) */
+    private void singleStatementDeposit(Connection c, String id) throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        try (PreparedStatement insert = c.prepareStatement(
+                "INSERT INTO focus_session (anon_id, started_at, created_at) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, id);
+            insert.setTimestamp(2, now);
+            insert.setTimestamp(3, now);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+            }
+        }
+    }
+
+    private static String anonId(int i) {
+        return String.format("01JBENCH%018d", i);
+    }
+}
@@ -0,0 +1,184 @@
+package com.pyj.focusbank.benchmark;
+
+import com.pyj.focusbank.FocusBankApplication;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import com.pyj.focusbank.support.LatencyRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 플랫폼 스레드 vs 가상 스레드(vt 프로필) 처리량/p99 비교.
+ *
+ * <ul>
+ *   <li>같은 임베디드 MariaDB 에 앱을 모드별로 한 번씩 기동 (랜덤 포트)</li>
+ *   <li>클라이언트 1,000명이 입금 → 정산 → 주간 랭킹 조회를 측정 시간 동안 반복 (think time 없음)</li>
+ *   <li>엔드포인트별 지연(p50/p95/p99)과 모드별 처리량(req/s)을 기록</li>
+ * </ul>
+ *
+ * 가상 스레드 모드는 Java 21 에서만 의미가 있다 (17 에서는 플랫폼 스레드로 동작).
+ * 실행: {@code ./gradlew benchmark -PjavaVersion=21 --tests '*VirtualThreadBenchmark'}
+ * 결과: build/reports/benchmark/virtual-threads.json
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASURE = Duration.ofSeconds(30);
+    private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*(\\d+)");
+
+    private static EmbeddedMariaDb db;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void platformVsVirtualThreads() throws Exception {
+        List<LatencyRecorder> all = new ArrayList<>();
+        Map<String, Double> throughput = new LinkedHashMap<>();
+
+        for (String mode : new String[]{"platform", "virtual"}) {
+            String profiles = mode.equals("virtual") ? "dev,vt" : "dev";
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(FocusBankApplication.class)
+                    .properties(
+                            "spring.profiles.active=" + profiles,
+                            "server.port=0",
+                            "spring.datasource.url=" + db.url(),
+                            "spring.datasource.username=" + EmbeddedMariaDb.USER,
+                            "spring.datasource.password=" + EmbeddedMariaDb.PASSWORD,
+                            "spring.devtools.restart.enabled=false")
+                    .run()) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                Load load = new Load("http://localhost:" + port, mode);
+
+                load.run(WARMUP, false);
+                long requests = load.run(MEASURE, true);
+                load.close();
+                throughput.put(mode, Math.round(requests / (double) MEASURE.toSeconds() * 10) / 10.0);
+                all.addAll(load.recorders());
+            }
+        }
+
+        all.forEach(System.out::println);
+        System.out.println("throughput(req/s): " + throughput);
+        Path out = LatencyRecorder.writeJson("virtual-threads", all.toArray(new LatencyRecorder[0]));
+        Files.writeString(out.resolveSibling("virtual-threads-throughput.json"),
+                "{\"platform\":" + throughput.get("platform") + ",\"virtual\":" + throughput.get("virtual") + "}\n");
+        System.out.println("written: " + out);
+        assertTrue(throughput.get("platform") > 0 && throughput.get("virtual") > 0);
+    }
+
+    /** 클라이언트 1,000명 부하 (비동기 HttpClient, 클라이언트 스레드 수와 무관하게 동시 요청 유지) */
+    private static final class Load {
+        private final String base;
+        private final LatencyRecorder deposit;
+        private final LatencyRecorder settle;
+        private final LatencyRecorder ranking;
+        private final HttpClient http;
+        private final ExecutorService clientPool = Executors.newFixedThreadPool(16);
+
+        Load(String base, String mode) {
+            this.base = base;
+            this.deposit = new LatencyRecorder(mode + "-deposit");
+            this.settle = new LatencyRecorder(mode + "-settle");
+            this.ranking = new LatencyRecorder(mode + "-ranking-weekly");
+            this.http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clientPool)
+                    .build();
+        }
+
+        List<LatencyRecorder> recorders() {
+            return List.of(deposit, settle, ranking);
+        }
+
+        /** 지정 시간 동안 부하, 완료된 요청 수 반환 */
+        long run(Duration duration, boolean record) {
+            long deadline = System.nanoTime() + duration.toNanos();
+            AtomicLong done = new AtomicLong();
+            CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = loop(String.format("01JVTBENCH%016d", i), deadline, record, done);
+            }
+            CompletableFuture.allOf(clients).join();
+            return done.get();
+        }
+
+        void close() {
+            clientPool.shutdownNow();
+        }
+
+        /** 한 클라이언트: 입금 → 정산 → 랭킹을 deadline 까지 반복 */
+        private CompletableFuture<Void> loop(String anonId, long deadline, boolean record, AtomicLong done) {
+            if (System.nanoTime() >= deadline) return CompletableFuture.completedFuture(null);
+            return call(post("/api/sessions/deposit", anonId), record ? deposit : null, done)
+                    .thenCompose(body -> {
+                        Matcher m = SESSION_ID.matcher(body);
+                        if (!m.find()) return CompletableFuture.completedFuture("");
+                        return call(post("/api/sessions/settle?sessionId=" + m.group(1), anonId), record ? settle : null, done);
+                    })
+                    .thenCompose(ignored -> call(get("/api/rankings/weekly", anonId), record ? ranking : null, done))
+                    .exceptionally(e -> "")
+                    .thenCompose(ignored -> loop(anonId, deadline, record, done));
+        }
+
+        private CompletableFuture<String> call(HttpRequest req, LatencyRecorder rec, AtomicLong done) {
+            long t0 = System.nanoTime();
+            return http.sendAsync(req, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(res -> {
+                        if (rec != null) rec.record(System.nanoTime() - t0);
+                        done.incrementAndGet();
+                        return res.body();
+                    });
+        }
+
+        private HttpRequest post(String path, String anonId) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .header("X-ANON-ID", anonId)
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        private HttpRequest get(String path, String anonId) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .header("X-ANON-ID", anonId)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pyj.focusbank.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BINARY 저장 모드에서 형식이 틀린 anonId 가 매퍼(500)까지 가지 않고 400 으로 끝나는지 확인.
+ */
+class AnonIdValidationConfigTest {
+
+    private static final String VALID = "01HJQ5X2Y7A3F3ZP4R1G9S7010";
+
+    @Test
+    void binaryModeRejectsMalformedHeaderWith400() throws Exception {
+        HandlerInterceptor interceptor = interceptors("binary").get(0);
+
+        for (String bad : new String[]{"01hjq5x2y7a3f3zp4r1g9s7010", "01HJQ5X2Y7A3F3ZP4R1G9S701", "01HJQ5X2Y7A3F3ZP4R1G9S701U"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sessions/deposit");
+            request.addHeader("X-ANON-ID", bad);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            assertFalse(interceptor.preHandle(request, response, new Object()), bad);
+            assertEquals(400, response.getStatus());
+            assertTrue(response.getContentAsString().contains("Crockford"));
+        }
+    }
+
+    @Test
+    void binaryModeChecksQueryParameterAndPassesValidIds() throws Exception {
+        HandlerInterceptor interceptor = interceptors("binary").get(0);
+
+        MockHttpServletRequest ok = new MockHttpServletRequest("GET", "/api/stream");
+        ok.addHeader("X-ANON-ID", " " + VALID + " ");
+        ok.setParameter("anonId", VALID);
+        assertTrue(interceptor.preHandle(ok, new MockHttpServletResponse(), new Object()));
+
+        MockHttpServletRequest bad = new MockHttpServletRequest("GET", "/api/stream");
+        bad.setParameter("anonId", "anon-1234");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(bad, response, new Object()));
+        assertEquals(400, response.getStatus());
+
+        // 헤더/파라미터가 없으면 필수 여부는 컨트롤러가 판단
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/stream"),
+                new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void charModeRegistersNothing() {
+        assertTrue(interceptors("char").isEmpty());
+    }
+
+    private static List<HandlerInterceptor> interceptors(String storage) {
+        AnonIdValidationConfig config = new AnonIdValidationConfig(new ObjectMapper(),
+                new AnonIdTypeHandler(AnonIdTypeHandler.Storage.from(storage)));
+        ExposedRegistry registry = new ExposedRegistry();
+        config.addInterceptors(registry);
+        return registry.interceptors().stream()
+                .map(o -> (HandlerInterceptor) ReflectionTestUtils.getField(o, "interceptor"))
+                .toList();
+    }
+
+    /** 등록된 인터셉터 확인용 */
+    private static final class ExposedRegistry extends InterceptorRegistry {
+        List<Object> interceptors() {
+            return getInterceptors();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.pyj.focusbank.dao.type;
+
+import com.pyj.focusbank.dao.RankingMapper;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * 애플리케이션 변환(AnonIdTypeHandler)과 V4 마이그레이션 SQL 함수(ulid_to_bin)가 바이트 단위로 같은지,
+ * BINARY 저장에서 resultType="map" 조회 값을 fromColumn 으로 읽을 수 있는지 확인 (임베디드 MariaDB).
+ */
+class AnonIdTypeHandlerDbTest {
+
+    private static final String V4 = "static/sql/migration/V4__binary_anon_id.sql";
+
+    private static EmbeddedMariaDb db;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void codecMatchesV4SqlFunction() throws Exception {
+        String createFunction = EmbeddedMariaDb.statements(V4).stream()
+                .filter(sql -> sql.startsWith("CREATE FUNCTION ulid_to_bin"))
+                .findFirst().orElseThrow();
+        Random random = new Random(3);
+
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.execute(createFunction);
+            try (PreparedStatement ps = c.prepareStatement("SELECT ulid_to_bin(?)")) {
+                for (String id : List.of("00000000000000000000000000", "ZZZZZZZZZZZZZZZZZZZZZZZZZZ",
+                        "7ZZZZZZZZZZZZZZZZZZZZZZZZZ", "01HJQ5X2Y7A3F3ZP4R1G9S7001")) {
+                    assertArrayEquals(AnonIdTypeHandler.toBytes(id), select(ps, id), id);
+                }
+                for (int n = 0; n < 300; n++) {
+                    String id = AnonIdTypeHandlerTest.randomId(random);
+                    byte[] sqlBytes = select(ps, id);
+                    assertArrayEquals(AnonIdTypeHandler.toBytes(id), sqlBytes, id);
+                    assertEquals(id, AnonIdTypeHandler.fromBytes(sqlBytes));
+                }
+            } finally {
+                st.execute("DROP FUNCTION ulid_to_bin");
+            }
+        }
+    }
+
+    /** V4 적용 DB 에서 map 결과의 anon_id 는 byte[] → fromColumn 으로 원래 ID (이 테스트 이후 스키마는 BINARY) */
+    @Test
+    void fromColumnReadsBinaryValuesFromMapResults() throws Exception {
+        db.source(V4);
+        AnonIdTypeHandler binary = new AnonIdTypeHandler(AnonIdTypeHandler.Storage.BINARY);
+        SqlSessionFactory factory = db.sqlSessionFactory(db.dataSource(), binary);
+
+        try (SqlSession session = factory.openSession()) {
+            List<Map<String, Object>> rows = session.getMapper(RankingMapper.class).selectOverallRanking(10);
+
+            assertEquals(4, rows.size());
+            Object raw = rows.get(0).get("anon_id");
+            assertInstanceOf(byte[].class, raw);
+            assertEquals("01HJQ5X2Y7A3F3ZP4R1G9S7001", binary.fromColumn(raw)); // 1위 (5100초)
+            assertEquals("01HJQ5X2Y7A3F3ZP4R1G9S7004", binary.fromColumn(rows.get(3).get("anon_id")));
+            // 같은 JVM 의 CHAR 핸들러는 영향받지 않음 (저장 형식은 인스턴스별)
+            assertEquals(AnonIdTypeHandler.Storage.CHAR,
+                    ((AnonIdTypeHandler) db.sqlSessionFactory(db.dataSource()).getConfiguration().getTypeHandlerRegistry()
+                            .getMappingTypeHandler(AnonIdTypeHandler.class)).storage());
+        }
+    }
+
+    private static byte[] select(PreparedStatement ps, String id) throws Exception {
+        ps.setString(1, id);
+        try (ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getBytes(1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pyj.focusbank.dao.type;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * anon_id 26자 ↔ BINARY(17) 변환 규칙 (앞 6비트 0, big-endian 130비트).
+ */
+class AnonIdTypeHandlerTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    void layoutIs17BytesWithSixLeadingZeroBits() {
+        assertArrayEquals(new byte[17], AnonIdTypeHandler.toBytes("00000000000000000000000000"));
+
+        byte[] max = AnonIdTypeHandler.toBytes("ZZZZZZZZZZZZZZZZZZZZZZZZZZ");
+        assertEquals(17, max.length);
+        assertEquals(0x03, max[0]); // 130비트 중 상위 2비트만 첫 바이트에
+        for (int i = 1; i < 17; i++) {
+            assertEquals((byte) 0xFF, max[i]);
+        }
+
+        // 표준 ULID 범위(첫 글자 0~7)는 첫 바이트가 항상 0
+        byte[] ulidMax = AnonIdTypeHandler.toBytes("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+        assertEquals(0, ulidMax[0]);
+
+        // 마지막 글자 '1' → 마지막 비트
+        byte[] one = AnonIdTypeHandler.toBytes("00000000000000000000000001");
+        byte[] expected = new byte[17];
+        expected[16] = 1;
+        assertArrayEquals(expected, one);
+    }
+
+    @Test
+    void roundTripsRandomIds() {
+        Random random = new Random(7);
+        for (int n = 0; n < 10_000; n++) {
+            String id = randomId(random);
+            assertEquals(id, AnonIdTypeHandler.fromBytes(AnonIdTypeHandler.toBytes(id)));
+        }
+    }
+
+    @Test
+    void bytesOrderMatchesStringOrder() {
+        Random random = new Random(11);
+        for (int n = 0; n < 2_000; n++) {
+            String a = randomId(random);
+            String b = randomId(random);
+            int strings = Integer.signum(a.compareTo(b));
+            int bytes = Integer.signum(Arrays.compareUnsigned(AnonIdTypeHandler.toBytes(a), AnonIdTypeHandler.toBytes(b)));
+            assertEquals(strings, bytes, a + " vs " + b);
+        }
+    }
+
+    @Test
+    void rejectsLowercaseAmbiguousAndWrongLength() {
+        String valid = "01HJQ5X2Y7A3F3ZP4R1G9S7001";
+        assertTrue(AnonIdTypeHandler.isValid(valid));
+
+        for (String bad : new String[]{
+                "01hjq5x2y7a3f3zp4r1g9s7001",   // 소문자
+                "01HJQ5X2Y7A3F3ZP4R1G9S700I",   // I
+                "01HJQ5X2Y7A3F3ZP4R1G9S700L",   // L
+                "01HJQ5X2Y7A3F3ZP4R1G9S700O",   // O
+                "01HJQ5X2Y7A3F3ZP4R1G9S700U",   // U
+                "01HJQ5X2Y7A3F3ZP4R1G9S700-",
+                "01HJQ5X2Y7A3F3ZP4R1G9S700가",
+                "01HJQ5X2Y7A3F3ZP4R1G9S700",    // 25자
+                "01HJQ5X2Y7A3F3ZP4R1G9S70012"   // 27자
+        }) {
+            assertFalse(AnonIdTypeHandler.isValid(bad), bad);
+            assertThrows(IllegalArgumentException.class, () -> AnonIdTypeHandler.toBytes(bad), bad);
+        }
+        assertFalse(AnonIdTypeHandler.isValid(null));
+        assertThrows(IllegalArgumentException.class, () -> AnonIdTypeHandler.fromBytes(new byte[16]));
+    }
+
+    @Test
+    void fromColumnAcceptsBothStorageForms() {
+        String id = "01HJQ5X2Y7A3F3ZP4R1G9S7001";
+        AnonIdTypeHandler binary = new AnonIdTypeHandler(AnonIdTypeHandler.Storage.BINARY);
+        assertEquals(id, binary.fromColumn(AnonIdTypeHandler.toBytes(id)));
+        assertEquals(id, binary.fromColumn(id));
+        assertNull(binary.fromColumn(null));
+        AnonIdTypeHandler chars = new AnonIdTypeHandler(AnonIdTypeHandler.Storage.CHAR);
+        assertEquals(id, chars.fromColumn(id));
+        assertEquals(id, chars.fromColumn(id.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    static String randomId(Random random) {
+        char[] c = new char[AnonIdTypeHandler.LENGTH];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(c);
+    }
+}
@@ -0,0 +1,96 @@
+package com.pyj.focusbank.dao.type;
+
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * V4(BINARY(17) 변환)와 V6(goal_result)가 신규 설치(focus.sql, 더미 데이터 포함)에 순서와 관계없이 적용되는지 확인.
+ */
+class BinaryAnonIdMigrationTest {
+
+    private static final String V4 = "static/sql/migration/V4__binary_anon_id.sql";
+    private static final String V6 = "static/sql/migration/V6__goal_result.sql";
+
+    private EmbeddedMariaDb db;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void v4ConvertsSeedDataAndExistingGoalResult() throws Exception {
+        String seedId = "01HJQ5X2Y7A3F3ZP4R1G9S7001";
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.executeUpdate("INSERT INTO goal_result (anon_id, period_type, period_start, period_end, "
+                    + "target_seconds, achieved_seconds, achieved) "
+                    + "VALUES ('" + seedId + "', 'DAILY', '2025-03-03', '2025-03-03', 3600, 5100, 1)");
+        }
+
+        db.source(V4);
+
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            for (String table : new String[]{"anonymous_user", "focus_session", "daily_aggregate", "user_total",
+                    "weekly_aggregate", "monthly_aggregate", "user_goal", "goal_result"}) {
+                assertEquals("binary(17)", anonIdType(st, table), table);
+            }
+            try (ResultSet rs = st.executeQuery("SELECT anon_id FROM goal_result")) {
+                rs.next();
+                assertEquals(seedId, AnonIdTypeHandler.fromBytes(rs.getBytes(1)));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM focus_session s "
+                    + "JOIN anonymous_user u ON u.anon_id = s.anon_id")) {
+                rs.next();
+                assertEquals(4, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void v6AfterV4FollowsParentType() throws Exception {
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.execute("DROP TABLE goal_result"); // V6 이전 DB
+        }
+
+        db.source(V4);
+        db.source(V6);
+
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            assertEquals("binary(17)", anonIdType(st, "goal_result"));
+        }
+    }
+
+    @Test
+    void v6OnCharSchemaKeepsChar() throws Exception {
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.execute("DROP TABLE goal_result");
+        }
+
+        db.source(V6);
+
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            assertEquals("char(26)", anonIdType(st, "goal_result"));
+        }
+    }
+
+    private static String anonIdType(Statement st, String table) throws Exception {
+        try (ResultSet rs = st.executeQuery("SELECT COLUMN_TYPE FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table + "' AND COLUMN_NAME = 'anon_id'")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.pyj.focusbank.loadtest;
+
+import com.pyj.focusbank.FocusBankApplication;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import com.pyj.focusbank.support.LatencyRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 입금 → 집중(대기) → 정산 → 랭킹/리포트 조회 생애주기 부하 테스트.
+ *
+ * <ul>
+ *   <li>임베디드 MariaDB 에 앱을 기동 (랜덤 포트, 기본 dev 프로필)</li>
+ *   <li>사용자 N명이 초당 arrivalRate 명씩 도착(열린 모델)해 측정 시간이 끝날 때까지 생애주기를 반복</li>
+ *   <li>단계 사이 think time 은 thinkMs 의 0.5~1.5배 (월요일 아침처럼 몰리는 도착 패턴을 재현)</li>
+ *   <li>엔드포인트별 지연(p50/p95/p99)·오류율, 전체 처리량, Hikari 커넥션 대기 시간을 기록</li>
+ * </ul>
+ *
+ * 실행: {@code ./gradlew loadTest -Pusers=500 -ParrivalRate=20 -PthinkMs=3000 -PdurationSec=120 [-Pprofiles=dev,vt]}
+ * 결과: build/reports/loadtest/lifecycle.json, lifecycle.html
+ */
+@Tag("loadtest")
+class LifecycleLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final double ARRIVAL_RATE = Double.parseDouble(System.getProperty("loadtest.arrivalRate", "20"));
+    private static final long THINK_MS = Long.getLong("loadtest.thinkMs", 2_000L);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.durationSec", 60L));
+    private static final String PROFILES = System.getProperty("loadtest.profiles", "dev");
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*(\\d+)");
+
+    private static EmbeddedMariaDb db;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void lifecycle() throws Exception {
+        // properties() 는 기본값이라 프로필 yml 이 덮어씀 → 명령행 인자로 넘겨 임베디드 DB 를 우선
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(FocusBankApplication.class)
+                .run("--spring.profiles.active=" + PROFILES,
+                        "--server.port=0",
+                        "--spring.datasource.url=" + db.url(),
+                        "--spring.datasource.username=" + EmbeddedMariaDb.USER,
+                        "--spring.datasource.password=" + EmbeddedMariaDb.PASSWORD,
+                        "--spring.devtools.restart.enabled=false",
+                        "--management.metrics.distribution.percentiles.hikaricp.connections.acquire=0.5,0.95,0.99")) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            MeterRegistry registry = app.getBean(MeterRegistry.class);
+
+            Load load = new Load("http://localhost:" + port, registry);
+            Map<String, Object> report = load.run();
+            load.close();
+
+            Path dir = Path.of("build", "reports", "loadtest");
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("lifecycle.json"), toJson(report) + "\n");
+            Files.writeString(dir.resolve("lifecycle.html"), toHtml(report));
+            System.out.println(toJson(report));
+            System.out.println("written: " + dir.resolve("lifecycle.json") + ", " + dir.resolve("lifecycle.html"));
+
+            assertTrue(((Number) report.get("requests")).longValue() > 0);
+        }
+    }
+
+    /** 엔드포인트별 지연 + 성공/오류 수 */
+    private static final class Endpoint {
+        final LatencyRecorder latency;
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        Endpoint(String name) {
+            this.latency = new LatencyRecorder(name);
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> m = latency.summary();
+            long total = ok.get() + errors.get();
+            m.put("errors", errors.get());
+            m.put("errorRate", total == 0 ? 0.0 : Math.round(errors.get() * 10_000.0 / total) / 10_000.0);
+            return m;
+        }
+    }
+
+    /** 열린 모델 부하: 도착률에 맞춰 사용자를 투입하고 각자 생애주기를 반복 */
+    private static final class Load {
+        private final String base;
+        private final MeterRegistry registry;
+        private final String today = LocalDate.now(KST).toString();
+
+        private final Endpoint deposit = new Endpoint("deposit");
+        private final Endpoint settle = new Endpoint("settle");
+        private final Endpoint rankingWeekly = new Endpoint("ranking-weekly");
+        private final Endpoint reportSummary = new Endpoint("report-summary");
+        private final Endpoint reportWeekly = new Endpoint("report-weekly");
+
+        private final ExecutorService clientPool = Executors.newFixedThreadPool(16);
+        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        private final HttpClient http;
+
+        /** 샘플링한 Hikari 대기 스레드 수/사용 중 커넥션 수 최댓값 */
+        private final LongAccumulator maxPending = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxActive = new LongAccumulator(Math::max, 0);
+
+        Load(String base, MeterRegistry registry) {
+            this.base = base;
+            this.registry = registry;
+            this.http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clientPool)
+                    .build();
+        }
+
+        List<Endpoint> endpoints() {
+            return List.of(deposit, settle, rankingWeekly, reportSummary, reportWeekly);
+        }
+
+        Map<String, Object> run() {
+            long start = System.nanoTime();
+            long deadline = start + DURATION.toNanos();
+            ConcurrentLinkedQueue<CompletableFuture<Void>> users = new ConcurrentLinkedQueue<>();
+
+            scheduler.scheduleAtFixedRate(this::sampleHikari, 0, 100, TimeUnit.MILLISECONDS);
+            CompletableFuture<Void> arrivals = new CompletableFuture<>();
+            for (int i = 0; i < USERS; i++) {
+                String anonId = String.format("01JPERFTEST%015d", i);
+                long delayMs = Math.round(i * 1_000.0 / ARRIVAL_RATE);
+                boolean last = i == USERS - 1;
+                scheduler.schedule(() -> {
+                    if (System.nanoTime() < deadline) users.add(cycle(anonId, deadline));
+                    if (last) arrivals.complete(null);
+                }, delayMs, TimeUnit.MILLISECONDS);
+            }
+
+            // 도착이 끝나지 않았어도 측정 시간이 지나면 남은 도착은 무시
+            arrivals.completeOnTimeout(null, DURATION.toMillis(), TimeUnit.MILLISECONDS).join();
+            CompletableFuture.allOf(users.toArray(new CompletableFuture<?>[0])).join();
+            double elapsedSec = (System.nanoTime() - start) / 1e9;
+
+            long requests = endpoints().stream().mapToLong(e -> e.ok.get() + e.errors.get()).sum();
+            long errors = endpoints().stream().mapToLong(e -> e.errors.get()).sum();
+
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("users", USERS);
+            config.put("arrivalRatePerSec", ARRIVAL_RATE);
+            config.put("thinkMs", THINK_MS);
+            config.put("durationSec", DURATION.toSeconds());
+            config.put("profiles", PROFILES);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("config", config);
+            report.put("usersStarted", users.size());
+            report.put("elapsedSec", round(elapsedSec));
+            report.put("requests", requests);
+            report.put("throughputPerSec", round(requests / elapsedSec));
+            report.put("errorRate", requests == 0 ? 0.0 : Math.round(errors * 10_000.0 / requests) / 10_000.0);
+            report.put("endpoints", endpoints().stream().map(Endpoint::summary).collect(Collectors.toList()));
+            report.put("hikari", hikariSummary());
+            return report;
+        }
+
+        void close() {
+            scheduler.shutdownNow();
+            clientPool.shutdownNow();
+        }
+
+        /** 한 사용자: 입금 → 집중 → 정산 → 랭킹/리포트 조회 → 휴식을 deadline 까지 반복 */
+        private CompletableFuture<Void> cycle(String anonId, long deadline) {
+            if (System.nanoTime() >= deadline) return CompletableFuture.completedFuture(null);
+            return call(post("/api/sessions/deposit", anonId), deposit)
+                    .thenCompose(body -> sessionId(body, anonId))
+                    .thenCompose(id -> think().thenApply(ignored -> id))
+                    .thenCompose(id -> id == null
+                            ? CompletableFuture.completedFuture("")
+                            : call(post("/api/sessions/settle?sessionId=" + id, anonId), settle))
+                    .thenCompose(ignored -> call(get("/api/rankings/weekly?limit=10", anonId), rankingWeekly))
+                    .thenCompose(ignored -> call(get("/api/reports/summary?date=" + today, anonId), reportSummary))
+                    .thenCompose(ignored -> call(get("/api/reports/weekly?weeks=12", anonId), reportWeekly))
+                    .thenCompose(ignored -> think())
+                    .exceptionally(e -> null)
+                    .thenCompose(ignored -> cycle(anonId, deadline));
+        }
+
+        /** 입금 응답의 sessionId, 실패(409 등)면 진행 중 세션을 조회해 이어서 정산 */
+        private CompletableFuture<String> sessionId(String body, String anonId) {
+            Matcher m = SESSION_ID.matcher(body);
+            if (m.find()) return CompletableFuture.completedFuture(m.group(1));
+            return http.sendAsync(get("/api/sessions/active", anonId), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(res -> {
+                        Matcher active = SESSION_ID.matcher(res.body());
+                        return active.find() ? active.group(1) : null;
+                    });
+        }
+
+        /** thinkMs 의 0.5~1.5배 대기 */
+        private CompletableFuture<Void> think() {
+            long ms = THINK_MS <= 0 ? 0 : ThreadLocalRandom.current().nextLong(THINK_MS / 2, THINK_MS * 3 / 2 + 1);
+            return CompletableFuture.runAsync(() -> { },
+                    CompletableFuture.delayedExecutor(ms, TimeUnit.MILLISECONDS, clientPool));
+        }
+
+        private CompletableFuture<String> call(HttpRequest req, Endpoint endpoint) {
+            long t0 = System.nanoTime();
+            return http.sendAsync(req, HttpResponse.BodyHandlers.ofString())
+                    .handle((res, e) -> {
+                        endpoint.latency.record(System.nanoTime() - t0);
+                        if (e != null || res.statusCode() >= 400) {
+                            endpoint.errors.incrementAndGet();
+                            return "";
+                        }
+                        endpoint.ok.incrementAndGet();
+                        return res.body();
+                    });
+        }
+
+        private void sampleHikari() {
+            Gauge pending = registry.find("hikaricp.connections.pending").gauge();
+            Gauge active = registry.find("hikaricp.connections.active").gauge();
+            if (pending != null) maxPending.accumulate((long) pending.value());
+            if (active != null) maxActive.accumulate((long) active.value());
+        }
+
+        /** Hikari 커넥션 획득 대기(hikaricp.connections.acquire) 요약 (ms) */
+        private Map<String, Object> hikariSummary() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            Timer acquire = registry.find("hikaricp.connections.acquire").timer();
+            if (acquire != null) {
+                HistogramSnapshot snapshot = acquire.takeSnapshot();
+                m.put("acquireCount", snapshot.count());
+                m.put("acquireMeanMs", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+                for (ValueAtPercentile p : snapshot.percentileValues()) {
+                    m.put("acquireP" + Math.round(p.percentile() * 100) + "Ms", round(p.value(TimeUnit.MILLISECONDS)));
+                }
+                m.put("acquireMaxMs", round(snapshot.max(TimeUnit.MILLISECONDS)));
+            }
+            Counter timeouts = registry.find("hikaricp.connections.timeout").counter();
+            m.put("timeouts", timeouts != null ? Math.round(timeouts.count()) : 0L);
+            m.put("maxPending", maxPending.get());
+            m.put("maxActive", maxActive.get());
+            return m;
+        }
+
+        private HttpRequest post(String path, String anonId) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .header("X-ANON-ID", anonId)
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        private HttpRequest get(String path, String anonId) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .header("X-ANON-ID", anonId)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+        }
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+
+    /** Map/List/숫자/문자열만 쓰는 보고서라 간단히 직렬화 */
+    private static String toJson(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return map.entrySet().stream()
+                    .map(e -> "\"" + e.getKey() + "\":" + toJson(e.getValue()))
+                    .collect(Collectors.joining(",", "{", "}"));
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(LifecycleLoadTest::toJson).collect(Collectors.joining(",", "[", "]"));
+        }
+        if (value instanceof String s) {
+            return "\"" + s + "\"";
+        }
+        return String.valueOf(value);
+    }
+
+    /** 요약 + 엔드포인트별 표 */
+    @SuppressWarnings("unchecked")
+    private static String toHtml(Map<String, Object> report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html><head><meta charset=\"utf-8\"><title>FocusBank load test</title>")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}th{background:#f3f3f3}</style>")
+                .append("</head><body><h1>FocusBank lifecycle load test</h1>");
+
+        sb.append("<h2>Summary</h2><table>");
+        for (Map.Entry<String, Object> e : report.entrySet()) {
+            if (e.getValue() instanceof List) continue;
+            sb.append("<tr><th>").append(e.getKey()).append("</th><td>").append(e.getValue()).append("</td></tr>");
+        }
+        sb.append("</table>");
+
+        List<Map<String, Object>> endpoints = (List<Map<String, Object>>) report.get("endpoints");
+        sb.append("<h2>Endpoints (latency in µs)</h2><table><tr>");
+        if (!endpoints.isEmpty()) {
+            endpoints.get(0).keySet().forEach(k -> sb.append("<th>").append(k).append("</th>"));
+        }
+        sb.append("</tr>");
+        for (Map<String, Object> row : endpoints) {
+            sb.append("<tr>");
+            row.values().forEach(v -> sb.append("<td>").append(v).append("</td>"));
+            sb.append("</tr>");
+        }
+        sb.append("</table></body></html>\n");
+        return sb.toString();
+    }
+}
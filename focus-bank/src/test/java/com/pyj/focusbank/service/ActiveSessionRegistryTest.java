@@ -0,0 +1,70 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 같은 사용자의 열린 세션이 여러 건일 때 하나를 정산해도 나머지가 계속 조회되는지 확인.
+ */
+class ActiveSessionRegistryTest {
+
+    private static final String ANON = "01JTESTANON000000000000001";
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+    private final SessionMapper sessionMapper = mock(SessionMapper.class);
+    private final ActiveSessionRegistry registry = new ActiveSessionRegistry(sessionMapper);
+
+    @Test
+    void settlingNewestKeepsOlderOpenSessionVisible() {
+        registry.register(session(1L, T0));
+        registry.register(session(2L, T0.plusMinutes(10)));
+        assertEquals(2L, registry.find(ANON).orElseThrow().getSessionId());
+
+        registry.unregister(ANON, 2L);
+
+        assertEquals(1L, registry.find(ANON).orElseThrow().getSessionId());
+        registry.unregister(ANON, 1L);
+        assertTrue(registry.find(ANON).isEmpty());
+    }
+
+    @Test
+    void settlingOlderKeepsNewest() {
+        registry.register(session(1L, T0));
+        registry.register(session(2L, T0.plusMinutes(10)));
+
+        registry.unregister(ANON, 1L);
+
+        assertEquals(2L, registry.find(ANON).orElseThrow().getSessionId());
+        assertTrue(registry.findBySessionId(1L).isEmpty());
+    }
+
+    @Test
+    void loadKeepsEveryOpenSessionAndTiesBreakOnSessionId() {
+        when(sessionMapper.findAllActiveSessions()).thenReturn(List.of(session(5L, T0), session(7L, T0)));
+
+        registry.load();
+
+        assertTrue(registry.isReady());
+        assertEquals(7L, registry.find(ANON).orElseThrow().getSessionId());
+        registry.unregister(ANON, 7L);
+        assertEquals(5L, registry.find(ANON).orElseThrow().getSessionId());
+    }
+
+    private static FocusSessionDto session(long id, LocalDateTime startedAt) {
+        FocusSessionDto s = new FocusSessionDto();
+        s.setSessionId(id);
+        s.setAnonId(ANON);
+        s.setStartedAt(startedAt);
+        s.setCreatedAt(startedAt);
+        return s;
+    }
+}
@@ -0,0 +1,201 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.AggregateMapper;
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 주간/월간 롤업 증분 업서트 (임베디드 MariaDB, 실제 매퍼 XML).
+ * - 합계/기록일 수(total_seconds > 0 인 날)가 daily_aggregate 로 다시 계산한 값과 같은지 (정합성 검사 쿼리로 확인)
+ * - 겹치는 키를 동시에 정산해도 데드락 없이 모두 반영되는지
+ */
+class AggregateWriterDbTest {
+
+    private static final String USER = "01HJQ5X2Y7A3F3ZP4R1G9S7A01";
+    private static final String[] CONCURRENT_USERS = {
+            "01HJQ5X2Y7A3F3ZP4R1G9S7B01", "01HJQ5X2Y7A3F3ZP4R1G9S7B02", "01HJQ5X2Y7A3F3ZP4R1G9S7B03",
+            "01HJQ5X2Y7A3F3ZP4R1G9S7B04", "01HJQ5X2Y7A3F3ZP4R1G9S7B05"};
+
+    private static EmbeddedMariaDb db;
+    private static AggregateMapper mapper;
+    private static AggregateWriter writer;
+    private static TransactionTemplate tx;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.execute("INSERT INTO anonymous_user (anon_id) VALUES ('" + USER + "')");
+            for (String u : CONCURRENT_USERS) {
+                st.execute("INSERT INTO anonymous_user (anon_id) VALUES ('" + u + "')");
+            }
+        }
+        DataSource dataSource = db.dataSource();
+        mapper = new SqlSessionTemplate(db.sqlSessionFactory(dataSource)).getMapper(AggregateMapper.class);
+        writer = new AggregateWriter(mapper, mock(DataVersions.class));
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void rollupsAddSecondsAndCountOnlyNewDays() throws Exception {
+        apply(delta("2025-03-03", 100), delta("2025-03-04", 200)); // 월, 화
+        assertRollup("weekly_aggregate", "week_start", "2025-03-03", 300, 2);
+        assertRollup("monthly_aggregate", "month_start", "2025-03-01", 300, 2);
+
+        apply(delta("2025-03-03", 50)); // 이미 있는 날 → 기록일 수 그대로
+        assertRollup("weekly_aggregate", "week_start", "2025-03-03", 350, 2);
+        assertRollup("monthly_aggregate", "month_start", "2025-03-01", 350, 2);
+
+        // 2025-03-31(월) ~ 04-06: 주는 두 달에 걸침
+        apply(delta("2025-03-31", 10), delta("2025-04-01", 5));
+        assertRollup("weekly_aggregate", "week_start", "2025-03-31", 15, 2);
+        assertRollup("monthly_aggregate", "month_start", "2025-03-01", 360, 3);
+        assertRollup("monthly_aggregate", "month_start", "2025-04-01", 5, 1);
+
+        apply(delta("2025-04-02", 0)); // 0초 정산: 일별 행은 남지만 기록일 아님
+        assertRollup("weekly_aggregate", "week_start", "2025-03-31", 15, 2);
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_aggregate WHERE target_date = '2025-04-02'"));
+
+        apply(delta("2025-04-02", 30)); // 0초 행에 시간이 생기면 그때 기록일
+        assertRollup("weekly_aggregate", "week_start", "2025-03-31", 45, 3);
+        assertRollup("monthly_aggregate", "month_start", "2025-04-01", 35, 2);
+
+        assertTrue(mapper.selectWeeklyMismatches(LocalDate.of(2025, 1, 6)).isEmpty());
+        assertTrue(mapper.selectMonthlyMismatches(LocalDate.of(2025, 1, 1)).isEmpty());
+    }
+
+    @Test
+    void zeroSecondRowsFromBeforeUpgradeAreCountedOnce() throws Exception {
+        // 이전 버전이 0초 정산으로 남긴 행 + 백필 → 기록일 0
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.execute("INSERT INTO daily_aggregate (target_date, anon_id, total_seconds) VALUES "
+                    + "('2025-05-05', '" + USER + "', 0), ('2025-05-06', '" + USER + "', 0), ('2025-05-07', '" + USER + "', 120)");
+        }
+        tx.executeWithoutResult(status -> {
+            mapper.backfillWeeklyAggregates();
+            mapper.backfillMonthlyAggregates();
+        });
+        assertRollup("weekly_aggregate", "week_start", "2025-05-05", 120, 1);
+
+        apply(delta("2025-05-05", 60), delta("2025-05-07", 30)); // 0초 행이 있던 날 + 이미 기록이 있던 날
+        assertRollup("weekly_aggregate", "week_start", "2025-05-05", 210, 2);
+        assertRollup("monthly_aggregate", "month_start", "2025-05-01", 210, 2);
+
+        assertTrue(mapper.selectWeeklyMismatches(LocalDate.of(2025, 5, 5)).isEmpty());
+        assertTrue(mapper.selectMonthlyMismatches(LocalDate.of(2025, 5, 1)).isEmpty());
+    }
+
+    @Test
+    void concurrentOverlappingSettlesAllApply() throws Exception {
+        int threads = 8;
+        int rounds = 40;
+        LocalDate base = LocalDate.of(2025, 6, 23); // 월요일, 6월/7월에 걸친 2주
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] expected = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            pool.execute(() -> {
+                Random random = new Random(id);
+                try {
+                    start.await();
+                    for (int r = 0; r < rounds; r++) {
+                        // write-behind flush 처럼 키별로 병합 후 PK 순서로 정렬한 청크
+                        Map<String, DailyAggregateDeltaDto> merged = new LinkedHashMap<>();
+                        for (int i = 0; i < 6; i++) {
+                            DailyAggregateDeltaDto d = new DailyAggregateDeltaDto(base.plusDays(random.nextInt(14)),
+                                    CONCURRENT_USERS[random.nextInt(CONCURRENT_USERS.length)], 1 + random.nextInt(60));
+                            merged.merge(d.getTargetDate() + "|" + d.getAnonId(), d, (a, b) ->
+                                    new DailyAggregateDeltaDto(a.getTargetDate(), a.getAnonId(), a.getSeconds() + b.getSeconds()));
+                        }
+                        List<DailyAggregateDeltaDto> chunk = new ArrayList<>(merged.values());
+                        chunk.sort(Comparator.comparing(DailyAggregateDeltaDto::getTargetDate)
+                                .thenComparing(DailyAggregateDeltaDto::getAnonId));
+                        tx.executeWithoutResult(status -> writer.apply(chunk));
+                        for (DailyAggregateDeltaDto d : chunk) expected[id] += d.getSeconds();
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertEquals(List.of(), new ArrayList<>(errors));
+        long total = 0;
+        for (long e : expected) total += e;
+        String users = "('" + String.join("','", CONCURRENT_USERS) + "')";
+        assertEquals(total, count("SELECT SUM(total_seconds) FROM weekly_aggregate WHERE anon_id IN " + users));
+        assertEquals(total, count("SELECT SUM(total_seconds) FROM monthly_aggregate WHERE anon_id IN " + users));
+        assertTrue(mapper.selectWeeklyMismatches(base).isEmpty());
+        assertTrue(mapper.selectMonthlyMismatches(base.withDayOfMonth(1)).isEmpty());
+    }
+
+    private static void apply(DailyAggregateDeltaDto... deltas) {
+        List<DailyAggregateDeltaDto> list = new ArrayList<>();
+        Collections.addAll(list, deltas);
+        tx.executeWithoutResult(status -> writer.apply(list));
+    }
+
+    private static DailyAggregateDeltaDto delta(String date, int seconds) {
+        return new DailyAggregateDeltaDto(LocalDate.parse(date), USER, seconds);
+    }
+
+    private static void assertRollup(String table, String column, String start, long seconds, int days) throws Exception {
+        try (Connection c = db.connect();
+             PreparedStatement ps = c.prepareStatement(
+                     "SELECT total_seconds, day_count FROM " + table + " WHERE anon_id = ? AND " + column + " = ?")) {
+            ps.setString(1, USER);
+            ps.setString(2, start);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next(), table + " " + start);
+                assertEquals(seconds, rs.getLong(1), table + " " + start + " seconds");
+                assertEquals(days, rs.getInt(2), table + " " + start + " days");
+            }
+        }
+    }
+
+    private static long count(String sql) throws Exception {
+        try (Connection c = db.connect(); Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
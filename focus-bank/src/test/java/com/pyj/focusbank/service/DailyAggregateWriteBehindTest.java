@@ -0,0 +1,114 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.event.DailyAggregatesFlushedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * write-behind 버퍼: enqueue 는 DB 에 쓰지 않고, 재시도 목록은 capacity 를 넘지 않으며,
+ * 반영에 성공한 청크만 반영 이벤트로 알리는지 확인.
+ */
+class DailyAggregateWriteBehindTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private final AggregateWriter aggregateWriter = mock(AggregateWriter.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private DailyAggregateWriteBehind writeBehind;
+
+    private void start(int capacity) {
+        writeBehind = new DailyAggregateWriteBehind(aggregateWriter, registry, published::add);
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "capacity", capacity);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 1000);
+        ReflectionTestUtils.setField(writeBehind, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(writeBehind, "enqueueWaitMs", 50L);
+        writeBehind.start();
+    }
+
+    @AfterEach
+    void stop() {
+        ReflectionTestUtils.invokeMethod(writeBehind, "shutdown");
+    }
+
+    @Test
+    void fullQueueNeverWritesOnCallerThread() throws Exception {
+        start(2);
+        Thread caller = Thread.currentThread();
+        AtomicBoolean writtenByCaller = new AtomicBoolean();
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            if (Thread.currentThread() == caller) writtenByCaller.set(true);
+            release.await(); // flusher 가 느린 DB 에 막혀 있는 상황
+            return null;
+        }).when(aggregateWriter).apply(anyList());
+
+        writeBehind.enqueue(DAY, "A", 10);
+        writeBehind.enqueue(DAY, "B", 10);
+        writeBehind.enqueue(DAY, "C", 10); // 가득 참 → flusher 깨움 + 대기
+        writeBehind.enqueue(DAY, "D", 10);
+        writeBehind.enqueue(DAY, "E", 10);
+        writeBehind.enqueue(DAY, "F", 10); // flusher 가 막혀 있으므로 자리가 나지 않아 버려짐
+
+        assertFalse(writtenByCaller.get());
+        assertTrue(registry.get("focusbank.aggregate.write-behind.dropped").counter().count() >= 1);
+        release.countDown();
+    }
+
+    @Test
+    void retryBacklogIsBoundedByCapacityWhileDbIsDown() {
+        start(3);
+        doThrow(new IllegalStateException("db down")).when(aggregateWriter).apply(anyList());
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                writeBehind.enqueue(DAY.plusDays(round), "U" + i, 60);
+            }
+            writeBehind.flush();
+        }
+
+        // 재시도 3건(capacity) + 꺼내지 못한 큐 3건, 나머지는 back-pressure 후 버려짐
+        assertEquals(6.0, registry.get("focusbank.aggregate.write-behind.backlog").gauge().value());
+        assertTrue(registry.get("focusbank.aggregate.write-behind.dropped").counter().count() > 0);
+
+        doAnswer(inv -> null).when(aggregateWriter).apply(anyList());
+        writeBehind.flush(); // 재시도분
+        writeBehind.flush(); // 큐
+        assertEquals(0, writeBehind.backlog());
+    }
+
+    @Test
+    void flushedEventIsPublishedOnlyForAppliedChunks() {
+        start(10);
+        doThrow(new IllegalStateException("db down")).when(aggregateWriter).apply(anyList());
+        writeBehind.enqueue(DAY, "A", 10);
+        writeBehind.enqueue(DAY, "A", 20);
+        writeBehind.flush();
+        assertTrue(published.isEmpty());
+
+        doAnswer(inv -> null).when(aggregateWriter).apply(anyList());
+        writeBehind.flush();
+        assertEquals(1, published.size());
+        DailyAggregatesFlushedEvent event = (DailyAggregatesFlushedEvent) published.get(0);
+        assertEquals(1, event.getDeltas().size());
+        assertEquals("A", event.getDeltas().get(0).getAnonId());
+        assertEquals(30, event.getDeltas().get(0).getSeconds());
+    }
+}
@@ -0,0 +1,58 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dto.DashboardDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 대시보드 실행기가 포화되어 항목 작업을 넣지 못해도 500 대신 부분 응답이 나가는지 확인.
+ */
+class DashboardServiceImplTest {
+
+    private static final String ANON = "01JTESTANON000000000000001";
+
+    @Test
+    void rejectedPartsAreReportedLikeTimeouts() {
+        // 첫 작업만 받고 나머지는 큐 포화로 거부하는 실행기
+        AtomicInteger submitted = new AtomicInteger();
+        Executor saturated = task -> {
+            if (submitted.getAndIncrement() > 0) throw new RejectedExecutionException("queue full");
+            task.run();
+        };
+
+        DashboardDto dto = service(saturated).getDashboard(ANON, "daily", 10);
+
+        Map<String, String> errors = dto.getErrors();
+        assertEquals(8, errors.size());
+        errors.values().forEach(v -> assertEquals("timeout", v));
+        assertNull(errors.get("profile")); // 실행된 첫 항목은 정상
+        assertNull(dto.getWeeklyRanking());
+        assertNull(dto.getGoals());
+    }
+
+    @Test
+    void allPartsRunWhenExecutorAccepts() {
+        DashboardDto dto = service(Runnable::run).getDashboard(ANON, "weekly", 10);
+
+        assertEquals(Map.of(), dto.getErrors());
+        assertNotNull(dto.getGoals());
+        assertNotNull(dto.getWeeklyRanking());
+    }
+
+    private static DashboardServiceImpl service(Executor executor) {
+        DashboardServiceImpl service = new DashboardServiceImpl(mock(ProfileService.class), mock(SessionService.class),
+                mock(ReportService.class), mock(GoalService.class), mock(RankingService.class), executor);
+        ReflectionTestUtils.setField(service, "partTimeoutMs", 1_000L);
+        return service;
+    }
+}
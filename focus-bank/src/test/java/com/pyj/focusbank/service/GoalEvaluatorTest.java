@@ -0,0 +1,194 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.GoalResultMapper;
+import com.pyj.focusbank.dto.GoalResultDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 마감 기간 판정(월요일/1일/둘 다) 과 write-behind 버퍼를 스캔 전에 비우는지 확인.
+ */
+class GoalEvaluatorTest {
+
+    private final GoalResultMapper goalResultMapper = mock(GoalResultMapper.class);
+    private final AggregateWriter aggregateWriter = mock(AggregateWriter.class);
+    private final List<String> scanned = new ArrayList<>();
+    private DailyAggregateWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        when(goalResultMapper.streamPeriodTotals(any(), any(), any())).thenAnswer(inv -> {
+            scanned.add(inv.getArgument(0) + " " + inv.getArgument(1) + "~" + inv.getArgument(2));
+            return cursorOf(List.of());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null && writeBehind.isEnabled()) {
+            ReflectionTestUtils.invokeMethod(writeBehind, "shutdown");
+        }
+    }
+
+    private GoalEvaluator evaluator(boolean writeBehindEnabled) {
+        writeBehind = new DailyAggregateWriteBehind(aggregateWriter, new SimpleMeterRegistry(), event -> { });
+        ReflectionTestUtils.setField(writeBehind, "enabled", writeBehindEnabled);
+        ReflectionTestUtils.setField(writeBehind, "capacity", 100);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 100);
+        ReflectionTestUtils.setField(writeBehind, "flushIntervalMs", 3_600_000L); // 주기 flush 없음
+        ReflectionTestUtils.setField(writeBehind, "enqueueWaitMs", 10L);
+        writeBehind.start();
+
+        PlatformTransactionManager tm = mock(PlatformTransactionManager.class);
+        when(tm.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new GoalEvaluator(goalResultMapper, writeBehind, tm, true, 2);
+    }
+
+    @Test
+    void ordinaryDayClosesOnlyYesterday() {
+        evaluator(false).evaluateClosedBefore(LocalDate.of(2025, 3, 12)); // 수요일
+
+        assertEquals(List.of("DAILY 2025-03-11~2025-03-11"), scanned);
+    }
+
+    @Test
+    void mondayClosesLastIsoWeek() {
+        evaluator(false).evaluateClosedBefore(LocalDate.of(2025, 3, 10)); // 월요일
+
+        assertEquals(List.of(
+                "DAILY 2025-03-09~2025-03-09",
+                "WEEKLY 2025-03-03~2025-03-09"), scanned);
+    }
+
+    @Test
+    void firstOfMonthClosesLastMonth() {
+        evaluator(false).evaluateClosedBefore(LocalDate.of(2025, 4, 1)); // 화요일
+
+        assertEquals(List.of(
+                "DAILY 2025-03-31~2025-03-31",
+                "MONTHLY 2025-03-01~2025-03-31"), scanned);
+    }
+
+    @Test
+    void mondayThatIsFirstClosesWeekAndMonth() {
+        evaluator(false).evaluateClosedBefore(LocalDate.of(2025, 9, 1)); // 월요일 + 1일
+
+        assertEquals(List.of(
+                "DAILY 2025-08-31~2025-08-31",
+                "WEEKLY 2025-08-25~2025-08-31",
+                "MONTHLY 2025-08-01~2025-08-31"), scanned);
+    }
+
+    @Test
+    void weekSpanningMonthsIsClosedOnMondayNotOnFirst() {
+        // 2025-12-29(월) ~ 2026-01-04(일): 1일에는 12월만 마감, 주는 다음 월요일에 마감
+        evaluator(false).evaluateClosedBefore(LocalDate.of(2026, 1, 1));
+        evaluator(false).evaluateClosedBefore(LocalDate.of(2026, 1, 5));
+
+        assertEquals(List.of(
+                "DAILY 2025-12-31~2025-12-31",
+                "MONTHLY 2025-12-01~2025-12-31",
+                "DAILY 2026-01-04~2026-01-04",
+                "WEEKLY 2025-12-29~2026-01-04"), scanned);
+    }
+
+    @Test
+    void achievementAndChunking() {
+        when(goalResultMapper.streamPeriodTotals(eq("DAILY"), any(), any())).thenAnswer(inv -> cursorOf(List.of(
+                row("A", 3600, 3600), row("B", 3600, 3599), row("C", 60, 0))));
+        List<GoalResultDto> written = new ArrayList<>();
+        when(goalResultMapper.upsertResults(anyList())).thenAnswer(inv -> {
+            List<GoalResultDto> chunk = inv.getArgument(0);
+            written.addAll(chunk);
+            return chunk.size();
+        });
+
+        int count = evaluator(false).evaluateClosedBefore(LocalDate.of(2025, 3, 12));
+
+        assertEquals(3, count);
+        assertEquals(List.of(true, false, false), written.stream().map(GoalResultDto::getAchieved).toList());
+        assertEquals(LocalDate.of(2025, 3, 11), written.get(2).getPeriodEnd());
+    }
+
+    @Test
+    void writeBehindBufferIsFlushedBeforeScan() {
+        GoalEvaluator evaluator = evaluator(true);
+        writeBehind.enqueue(LocalDate.of(2025, 3, 11), "A", 1800); // 23:59 정산분이 아직 버퍼에 있음
+
+        evaluator.evaluateClosedBefore(LocalDate.of(2025, 3, 12));
+
+        InOrder order = inOrder(aggregateWriter, goalResultMapper);
+        order.verify(aggregateWriter).apply(anyList());
+        order.verify(goalResultMapper).streamPeriodTotals(eq("DAILY"), any(), any());
+        assertEquals(0, writeBehind.backlog());
+    }
+
+    @Test
+    void failedFlushStillEvaluatesAndKeepsDeltasForRetry() {
+        GoalEvaluator evaluator = evaluator(true);
+        doThrow(new IllegalStateException("db down")).when(aggregateWriter).apply(anyList());
+        writeBehind.enqueue(LocalDate.of(2025, 3, 11), "A", 1800);
+
+        evaluator.evaluateClosedBefore(LocalDate.of(2025, 3, 12));
+
+        assertEquals(List.of("DAILY 2025-03-11~2025-03-11"), scanned);
+        assertEquals(1, writeBehind.backlog());
+    }
+
+    private static GoalResultDto row(String anonId, int target, int achieved) {
+        GoalResultDto row = new GoalResultDto();
+        row.setAnonId(anonId);
+        row.setTargetSeconds(target);
+        row.setAchievedSeconds(achieved);
+        return row;
+    }
+
+    private static Cursor<GoalResultDto> cursorOf(List<GoalResultDto> rows) {
+        return new Cursor<>() {
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public boolean isConsumed() {
+                return false;
+            }
+
+            @Override
+            public int getCurrentIndex() {
+                return -1;
+            }
+
+            @Override
+            public Iterator<GoalResultDto> iterator() {
+                return rows.iterator();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
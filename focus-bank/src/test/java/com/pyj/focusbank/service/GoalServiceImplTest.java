@@ -0,0 +1,180 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.GoalMapper;
+import com.pyj.focusbank.dao.GoalResultMapper;
+import com.pyj.focusbank.dto.DailySummaryDto;
+import com.pyj.focusbank.dto.GoalProgressDto;
+import com.pyj.focusbank.dto.GoalResultDto;
+import com.pyj.focusbank.dto.GoalStreakDto;
+import com.pyj.focusbank.dto.UserGoalDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 진행률(getAllProgress) 기간 경계와 연속 달성(getStreak) 계산.
+ * - 진행률: ISO 주가 지난달에 시작해도 주/월 합계가 각자 기간만 더하는지
+ * - 연속: 기간이 이어질 때만 연속, 현재 연속은 직전 마감 기간까지 이어질 때만 인정
+ */
+class GoalServiceImplTest {
+
+    private static final String ANON = "01HJQ5X2Y7A3F3ZP4R1G9S7001";
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final GoalMapper goalMapper = mock(GoalMapper.class);
+    private final GoalResultMapper goalResultMapper = mock(GoalResultMapper.class);
+
+    /** 2025-10-02(목): ISO 주는 2025-09-29(월)에 시작 */
+    private LocalDate today = LocalDate.of(2025, 10, 2);
+
+    private GoalServiceImpl service() {
+        Clock clock = Clock.fixed(today.atTime(0, 30).atZone(KST).toInstant(), KST);
+        return new GoalServiceImpl(goalMapper, goalResultMapper, mock(DataVersions.class), clock);
+    }
+
+    @Test
+    void weekStartedLastMonthSumsEachPeriodSeparately() {
+        when(goalMapper.selectActiveGoals(ANON, today)).thenReturn(List.of(
+                goal("DAILY", 3600), goal("WEEKLY", 36_000), goal("MONTHLY", 360_000)));
+        when(goalMapper.selectDailyTotalsBetween(ANON, LocalDate.of(2025, 9, 29), today)).thenReturn(List.of(
+                daily("2025-09-29", 1000), daily("2025-09-30", 2000),
+                daily("2025-10-01", 400), daily("2025-10-02", 1800)));
+
+        Map<String, GoalProgressDto> progress = service().getAllProgress(" " + ANON + " ");
+
+        assertEquals(new GoalProgressDto(3600, 1800, 0.5), progress.get("daily"));
+        assertEquals(new GoalProgressDto(36_000, 5200, 5200 / 36_000.0), progress.get("weekly"));
+        assertEquals(new GoalProgressDto(360_000, 2200, 2200 / 360_000.0), progress.get("monthly"));
+    }
+
+    @Test
+    void firstOfMonthCountsOnlyTodayForMonth() {
+        today = LocalDate.of(2025, 10, 1); // 수요일
+        when(goalMapper.selectDailyTotalsBetween(ANON, LocalDate.of(2025, 9, 29), today)).thenReturn(List.of(
+                daily("2025-09-29", 600), daily("2025-09-30", 600), daily("2025-10-01", 60)));
+
+        Map<String, GoalProgressDto> progress = service().getAllProgress(ANON);
+
+        assertEquals(new GoalProgressDto(null, 60, null), progress.get("daily"));
+        assertEquals(new GoalProgressDto(null, 1260, null), progress.get("weekly"));
+        assertEquals(new GoalProgressDto(null, 60, null), progress.get("monthly"));
+    }
+
+    @Test
+    void monthStartedBeforeWeekScansFromFirstOfMonth() {
+        today = LocalDate.of(2025, 10, 8); // 수요일, 주는 10-06 시작
+        when(goalMapper.selectDailyTotalsBetween(ANON, LocalDate.of(2025, 10, 1), today)).thenReturn(List.of(
+                daily("2025-10-01", 100), daily("2025-10-05", 200), daily("2025-10-06", 300), daily("2025-10-08", 400)));
+
+        Map<String, GoalProgressDto> progress = service().getAllProgress(ANON);
+
+        verify(goalMapper).selectDailyTotalsBetween(ANON, LocalDate.of(2025, 10, 1), today);
+        assertEquals(400, progress.get("daily").getAchievedSeconds());
+        assertEquals(700, progress.get("weekly").getAchievedSeconds());
+        assertEquals(1000, progress.get("monthly").getAchievedSeconds());
+    }
+
+    @Test
+    void dailyRunEndingYesterdayIsCurrent() {
+        // 어제부터 거슬러 4일 연속 달성, 그 전날 미달성, 그 전 2일 달성
+        List<GoalResultDto> rows = new ArrayList<>();
+        LocalDate day = today.minusDays(7);
+        for (boolean achieved : new boolean[]{true, true, false, true, true, true, true}) {
+            rows.add(result(day, day, achieved));
+            day = day.plusDays(1);
+        }
+        given("DAILY", rows);
+
+        assertEquals(new GoalStreakDto("DAILY", 4, 4), service().getStreak(ANON, "daily"));
+    }
+
+    @Test
+    void missingPeriodBreaksRun() {
+        // 목표 미설정 등으로 하루 평가 행이 없으면 연속이 끊김
+        given("DAILY", List.of(
+                result(today.minusDays(5), today.minusDays(5), true),
+                result(today.minusDays(4), today.minusDays(4), true),
+                result(today.minusDays(3), today.minusDays(3), true),
+                result(today.minusDays(1), today.minusDays(1), true)));
+
+        assertEquals(new GoalStreakDto("DAILY", 1, 3), service().getStreak(ANON, "DAILY"));
+    }
+
+    @Test
+    void runNotReachingLastClosedPeriodIsNotCurrent() {
+        // 마지막 기록이 그저께 → 어제 평가가 없으므로 현재 연속 0, 최장은 유지
+        given("DAILY", List.of(
+                result(today.minusDays(3), today.minusDays(3), true),
+                result(today.minusDays(2), today.minusDays(2), true)));
+
+        assertEquals(new GoalStreakDto("DAILY", 0, 2), service().getStreak(ANON, "DAILY"));
+    }
+
+    @Test
+    void weeklyRunsAreContiguousAcrossMonthBoundary() {
+        LocalDate thisWeek = today.with(DayOfWeek.MONDAY);
+        List<GoalResultDto> rows = new ArrayList<>();
+        for (int w = 6; w >= 1; w--) {
+            LocalDate start = thisWeek.minusWeeks(w);
+            rows.add(result(start, start.plusDays(6), w != 4));
+        }
+        given("WEEKLY", rows);
+
+        assertEquals(new GoalStreakDto("WEEKLY", 3, 3), service().getStreak(ANON, "WEEKLY"));
+    }
+
+    @Test
+    void monthlyRunUsesCalendarMonths() {
+        LocalDate thisMonth = today.withDayOfMonth(1);
+        List<GoalResultDto> rows = new ArrayList<>();
+        for (int m = 3; m >= 1; m--) {
+            LocalDate start = thisMonth.minusMonths(m);
+            rows.add(result(start, start.plusMonths(1).minusDays(1), true));
+        }
+        given("MONTHLY", rows);
+
+        assertEquals(new GoalStreakDto("MONTHLY", 3, 3), service().getStreak(ANON, "MONTHLY"));
+    }
+
+    @Test
+    void noResultsMeansNoStreak() {
+        given("DAILY", List.of());
+
+        assertEquals(new GoalStreakDto("DAILY", 0, 0), service().getStreak(ANON, "DAILY"));
+    }
+
+    private static UserGoalDto goal(String periodType, int targetSeconds) {
+        UserGoalDto goal = new UserGoalDto();
+        goal.setPeriodType(periodType);
+        goal.setTargetSeconds(targetSeconds);
+        return goal;
+    }
+
+    private static DailySummaryDto daily(String date, long seconds) {
+        return new DailySummaryDto(date, seconds);
+    }
+
+    private void given(String periodType, List<GoalResultDto> rows) {
+        when(goalResultMapper.selectAchievements(eq(ANON), eq(periodType))).thenReturn(rows);
+    }
+
+    private static GoalResultDto result(LocalDate start, LocalDate end, boolean achieved) {
+        GoalResultDto r = new GoalResultDto();
+        r.setPeriodStart(start);
+        r.setPeriodEnd(end);
+        r.setAchieved(achieved);
+        return r;
+    }
+}
@@ -0,0 +1,140 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyj.focusbank.dao.IdempotencyMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.IdempotencyRecordDto;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 재시작 후(메모리 비어 있음)에도 같은 Idempotency-Key 재시도가 DB 기록으로 응답되는지,
+ * 보존 기간이 지난(아직 정리 전) 기록은 새 요청으로 대체되는지 확인 (임베디드 MariaDB, 실제 매퍼 XML).
+ */
+class IdempotencyGuardDbTest {
+
+    private static final String ANON = "01HJQ5X2Y7A3F3ZP4R1G9S7001";
+
+    private static EmbeddedMariaDb db;
+    private static IdempotencyMapper mapper;
+    private static TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+        DataSource dataSource = db.dataSource();
+        mapper = new SqlSessionTemplate(db.sqlSessionFactory(dataSource)).getMapper(IdempotencyMapper.class);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    private IdempotencyGuard newInstance() {
+        return new IdempotencyGuard(mapper, transactionTemplate, objectMapper, 600_000, 10_000, 5_000, 24);
+    }
+
+    @Test
+    void retryAfterRestartIsReplayedFromDatabase() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        FocusSessionDto opened = new FocusSessionDto();
+        opened.setSessionId(77L);
+        opened.setAnonId(ANON);
+        opened.setStartedAt(LocalDateTime.of(2025, 3, 3, 9, 0));
+
+        IdempotencyGuard.Result first = newInstance().execute("restart-1", "deposit", ANON, () -> {
+            runs.incrementAndGet();
+            return IdempotencyGuard.Result.of(201, opened);
+        });
+
+        // 새 인스턴스 = 재시작 (메모리 비어 있음)
+        IdempotencyGuard.Result retry = newInstance().execute("restart-1", "deposit", ANON, () -> {
+            runs.incrementAndGet();
+            return IdempotencyGuard.Result.of(201, new FocusSessionDto());
+        });
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(1, runs.get());
+        assertEquals(201, retry.status());
+        assertEquals(77L, retry.body().getSessionId());
+        assertEquals(opened.getStartedAt(), retry.body().getStartedAt());
+
+        assertThrows(IllegalStateException.class, () -> newInstance().execute("restart-1", "deposit",
+                "01HJQ5X2Y7A3F3ZP4R1G9S7002", () -> IdempotencyGuard.Result.of(201, opened)));
+    }
+
+    @Test
+    void failedActionLeavesNoRecord() throws Exception {
+        IdempotencyGuard guard = newInstance();
+
+        assertThrows(IllegalStateException.class, () -> guard.execute("restart-2", "settle", "5", () -> {
+            throw new IllegalStateException("already settled");
+        }));
+        IdempotencyGuard.Result notFound = guard.execute("restart-2", "settle", "5",
+                () -> IdempotencyGuard.Result.of(404, null));
+
+        assertEquals(404, notFound.status());
+        try (Connection c = db.connect(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM idempotency_key WHERE idem_key = 'restart-2'")) {
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void expiredRecordBeforePurgeIsReplaced() throws Exception {
+        // 보존 기간(24h)이 지났지만 매시 정리 작업이 아직 지우지 않은 기록 (다른 사용자가 쓴 같은 키)
+        LocalDateTime expired = LocalDateTime.now(ZoneId.of("Asia/Seoul")).minusHours(30).withNano(0);
+        mapper.insert(new IdempotencyRecordDto("reused-1", "deposit", "01HJQ5X2Y7A3F3ZP4R1G9S7002",
+                201, "{\"sessionId\":1}", expired));
+        AtomicInteger runs = new AtomicInteger();
+        FocusSessionDto opened = new FocusSessionDto();
+        opened.setSessionId(88L);
+
+        IdempotencyGuard.Result result = newInstance().execute("reused-1", "deposit", ANON, () -> {
+            runs.incrementAndGet();
+            return IdempotencyGuard.Result.of(201, opened);
+        });
+
+        assertEquals(1, runs.get());
+        assertEquals(201, result.status());
+        assertFalse(result.replayed());
+        try (Connection c = db.connect(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT fingerprint, created_at > NOW() - INTERVAL 1 HOUR"
+                     + " FROM idempotency_key WHERE idem_key = 'reused-1' AND operation = 'deposit'")) {
+            assertTrue(rs.next());
+            assertEquals(ANON, rs.getString(1));
+            assertTrue(rs.getBoolean(2));
+            assertFalse(rs.next());
+        }
+
+        // 새 기록은 재시작 후에도 그대로 재생
+        IdempotencyGuard.Result retry = newInstance().execute("reused-1", "deposit", ANON,
+                () -> IdempotencyGuard.Result.of(201, new FocusSessionDto()));
+        assertTrue(retry.replayed());
+        assertEquals(88L, retry.body().getSessionId());
+    }
+}
@@ -0,0 +1,274 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyj.focusbank.dao.IdempotencyMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.IdempotencyRecordDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Idempotency-Key 처리 (메모리 + 가짜 DB).
+ *
+ * <p>가짜 트랜잭션은 콜백이 예외 없이 끝나면 커밋, 예외면 롤백으로 기록한다.
+ * 가짜 매퍼는 PK(idem_key, operation) 중복 INSERT 에 DuplicateKeyException 을 던진다.</p>
+ */
+class IdempotencyGuardTest {
+
+    private static final String ANON = "01JTESTANON000000000000001";
+
+    private final FakeMapper mapper = new FakeMapper();
+    private final RecordingTransactions tx = new RecordingTransactions();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private IdempotencyGuard guard(int maxEntries) {
+        return new IdempotencyGuard(mapper, tx, objectMapper, 600_000, maxEntries, 5_000, 24);
+    }
+
+    @Test
+    void concurrentSameKeyWaitsForFirstAndGetsSameResponse() throws Exception {
+        IdempotencyGuard guard = guard(100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        Future<IdempotencyGuard.Result> first = pool.submit(() -> guard.execute("k1", "deposit", ANON, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return deposit();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<IdempotencyGuard.Result> second = pool.submit(() -> guard.execute("k1", "deposit", ANON, () -> {
+            runs.incrementAndGet();
+            return deposit();
+        }));
+
+        Thread.sleep(100);
+        assertFalse(second.isDone()); // 먼저 온 요청을 기다리는 중
+        release.countDown();
+
+        IdempotencyGuard.Result a = first.get(5, TimeUnit.SECONDS);
+        IdempotencyGuard.Result b = second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, runs.get());
+        assertFalse(a.replayed());
+        assertTrue(b.replayed());
+        assertEquals(a.body().getSessionId(), b.body().getSessionId());
+        assertEquals(1, mapper.rows.size());
+    }
+
+    @Test
+    void sameKeyForDifferentRequestIsRejected() {
+        IdempotencyGuard guard = guard(100);
+        guard.execute("k2", "deposit", ANON, this::deposit);
+
+        assertThrows(IllegalStateException.class,
+                () -> guard.execute("k2", "deposit", "01JOTHERANON00000000000001", this::deposit));
+
+        // 메모리에서 밀려난 뒤(재시작 등)에도 DB 기록으로 거부
+        IdempotencyGuard restarted = guard(100);
+        assertThrows(IllegalStateException.class,
+                () -> restarted.execute("k2", "deposit", "01JOTHERANON00000000000001", this::deposit));
+    }
+
+    @Test
+    void failuresAreNotRemembered() {
+        IdempotencyGuard guard = guard(100);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> guard.execute("k3", "settle", "42", () -> {
+            runs.incrementAndGet();
+            throw new IllegalArgumentException("bad request");
+        }));
+        IdempotencyGuard.Result conflict = guard.execute("k3", "settle", "42", () -> {
+            runs.incrementAndGet();
+            return IdempotencyGuard.Result.of(409, null);
+        });
+        IdempotencyGuard.Result ok = guard.execute("k3", "settle", "42", () -> {
+            runs.incrementAndGet();
+            return deposit();
+        });
+
+        assertEquals(409, conflict.status());
+        assertFalse(ok.replayed());
+        assertEquals(3, runs.get());
+        assertEquals(1, mapper.rows.size());
+        assertTrue(guard.execute("k3", "settle", "42", this::deposit).replayed());
+    }
+
+    /** 상한 때문에 처리 중인 항목이 메모리에서 밀려나도 DB PK 가 두 번째 커밋을 막는다 */
+    @Test
+    void evictionWhileInFlightStillCommitsOnce() throws Exception {
+        IdempotencyGuard guard = guard(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<IdempotencyGuard.Result> first = pool.submit(() -> guard.execute("k4", "deposit", ANON, () -> {
+            started.countDown();
+            await(release);
+            return deposit();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        guard.execute("other", "deposit", ANON, this::deposit); // 상한 1 → k4 항목 제거
+        IdempotencyGuard.Result second = guard.execute("k4", "deposit", ANON, this::deposit); // 새로 실행
+        release.countDown();
+        IdempotencyGuard.Result firstResult = first.get(5, TimeUnit.SECONDS);
+
+        // 늦게 끝난 첫 요청은 INSERT 충돌로 롤백되고 저장된 응답을 돌려받음
+        assertTrue(firstResult.replayed());
+        assertEquals(second.body().getSessionId(), firstResult.body().getSessionId());
+        assertEquals(1, tx.rolledBack.get());
+        assertEquals(1, tx.committed.stream().filter(r -> r.body().getSessionId().equals(second.body().getSessionId())).count());
+    }
+
+    /** 다른 인스턴스가 find 와 insert 사이에 같은 키를 커밋한 경우 */
+    @Test
+    void duplicateKeyFromAnotherInstanceReplaysStoredResponse() throws Exception {
+        IdempotencyGuard guard = guard(100);
+        FocusSessionDto theirs = new FocusSessionDto();
+        theirs.setSessionId(999L);
+        theirs.setAnonId(ANON);
+        mapper.beforeInsert = () -> mapper.put(new IdempotencyRecordDto("k5", "deposit", ANON, 200,
+                objectMapper.writeValueAsString(theirs), LocalDateTime.now()));
+
+        IdempotencyGuard.Result result = guard.execute("k5", "deposit", ANON, this::deposit);
+
+        assertTrue(result.replayed());
+        assertEquals(999L, result.body().getSessionId());
+        assertEquals(1, tx.rolledBack.get()); // 이 인스턴스의 작업은 롤백
+        assertTrue(tx.committed.isEmpty());
+
+        mapper.beforeInsert = null;
+        assertEquals(999L, guard.execute("k5", "deposit", ANON, this::deposit).body().getSessionId());
+    }
+
+    @Test
+    void noKeyRunsEveryTimeAndMalformedKeyIsRejected() {
+        IdempotencyGuard guard = guard(100);
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<IdempotencyGuard.Result> action = () -> {
+            runs.incrementAndGet();
+            return deposit();
+        };
+
+        guard.execute(null, "deposit", ANON, action);
+        guard.execute(" ", "deposit", ANON, action);
+
+        assertEquals(2, runs.get());
+        assertTrue(mapper.rows.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> guard.execute("bad key!", "deposit", ANON, action));
+    }
+
+    private IdempotencyGuard.Result deposit() {
+        FocusSessionDto s = new FocusSessionDto();
+        s.setSessionId(sessionIds.incrementAndGet());
+        s.setAnonId(ANON);
+        return IdempotencyGuard.Result.of(201, s);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 콜백을 바로 실행하고 커밋/롤백만 기록하는 트랜잭션 */
+    private static final class RecordingTransactions extends TransactionTemplate {
+        final List<IdempotencyGuard.Result> committed = new CopyOnWriteArrayList<>();
+        final AtomicInteger rolledBack = new AtomicInteger();
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            try {
+                T result = action.doInTransaction(new SimpleTransactionStatus());
+                if (result instanceof IdempotencyGuard.Result r && !r.replayed()) committed.add(r);
+                return result;
+            } catch (RuntimeException e) {
+                rolledBack.incrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /** idempotency_key 테이블 흉내 (PK 중복 시 DuplicateKeyException) */
+    private static final class FakeMapper implements IdempotencyMapper {
+        final Map<String, IdempotencyRecordDto> rows = new ConcurrentHashMap<>();
+        volatile ThrowingRunnable beforeInsert;
+
+        @Override
+        public IdempotencyRecordDto find(String idemKey, String operation, LocalDateTime since) {
+            IdempotencyRecordDto r = rows.get(operation + ':' + idemKey);
+            return r != null && !r.getCreatedAt().isBefore(since) ? r : null;
+        }
+
+        @Override
+        public int insert(IdempotencyRecordDto record) {
+            if (beforeInsert != null) {
+                try {
+                    beforeInsert.run();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            if (!put(record)) {
+                throw new DuplicateKeyException("Duplicate entry for idempotency_key");
+            }
+            return 1;
+        }
+
+        @Override
+        public int deleteExpired(String idemKey, String operation, LocalDateTime before) {
+            IdempotencyRecordDto r = rows.get(operation + ':' + idemKey);
+            return r != null && r.getCreatedAt().isBefore(before) && rows.remove(operation + ':' + idemKey, r) ? 1 : 0;
+        }
+
+        boolean put(IdempotencyRecordDto record) {
+            return rows.putIfAbsent(record.getOperation() + ':' + record.getIdemKey(), record) == null;
+        }
+
+        @Override
+        public int deleteOlderThan(LocalDateTime before, int limit) {
+            return 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
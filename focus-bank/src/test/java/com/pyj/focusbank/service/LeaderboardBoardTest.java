@@ -0,0 +1,106 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dto.RankingDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LeaderboardEngine.Board: (점수 DESC, anonId ASC) 순위, 동점 처리, 위/아래 이웃, 점수 변경 시 재정렬.
+ */
+class LeaderboardBoardTest {
+
+    private static final Function<String, String> NAMES = id -> "n-" + id;
+
+    @Test
+    void tiesAreOrderedByAnonId() {
+        LeaderboardEngine.Board board = new LeaderboardEngine.Board();
+        board.add("C", 100);
+        board.add("A", 100);
+        board.add("B", 100);
+        board.add("D", 200);
+
+        List<RankingDto> top = board.top(10, NAMES);
+
+        assertEquals(List.of("D", "A", "B", "C"), ids(top));
+        assertEquals(List.of(1, 2, 3, 4), top.stream().map(RankingDto::getRank).toList());
+        assertEquals("n-A", top.get(1).getDisplayName());
+    }
+
+    @Test
+    void updateMovesEntryAndKeepsSizeStable() {
+        LeaderboardEngine.Board board = new LeaderboardEngine.Board();
+        board.add("A", 300);
+        board.add("B", 200);
+        board.add("C", 100);
+
+        board.add("C", 250); // C: 350 → 1위
+
+        assertEquals(3, board.size());
+        assertEquals(350, board.score("C"));
+        assertEquals(List.of("C", "A", "B"), ids(board.top(10, NAMES)));
+    }
+
+    @Test
+    void scoreDecreaseReordersDownwards() {
+        LeaderboardEngine.Board board = new LeaderboardEngine.Board();
+        board.add("A", 300);
+        board.add("B", 200);
+        board.add("C", 100);
+
+        board.add("A", -250); // A: 50 → 꼴찌
+
+        assertEquals(List.of("B", "C", "A"), ids(board.top(10, NAMES)));
+        board.add("B", -100); // B: 100 → C 와 동점, anonId 순
+        assertEquals(List.of("B", "C", "A"), ids(board.top(10, NAMES)));
+        board.add("B", -1);
+        assertEquals(List.of("C", "B", "A"), ids(board.top(10, NAMES)));
+    }
+
+    @Test
+    void neighboursAtTopMiddleAndBottom() {
+        LeaderboardEngine.Board board = new LeaderboardEngine.Board();
+        for (int i = 0; i < 6; i++) {
+            board.add("U" + i, 600 - i * 100L); // U0(600) > U1 > ... > U5(100)
+        }
+
+        List<List<RankingDto>> first = board.around("U0", 2, NAMES);
+        assertEquals(List.of("U0"), ids(first.get(0)));
+        assertEquals(1, first.get(0).get(0).getRank());
+        assertTrue(first.get(1).isEmpty());
+        assertEquals(List.of("U1", "U2"), ids(first.get(2)));
+
+        List<List<RankingDto>> middle = board.around("U3", 2, NAMES);
+        assertEquals(4, middle.get(0).get(0).getRank());
+        assertEquals(List.of("U1", "U2"), ids(middle.get(1)));
+        assertEquals(List.of(2, 3), middle.get(1).stream().map(RankingDto::getRank).toList());
+        assertEquals(List.of("U4", "U5"), ids(middle.get(2)));
+
+        List<List<RankingDto>> last = board.around("U5", 2, NAMES);
+        assertEquals(6, last.get(0).get(0).getRank());
+        assertEquals(List.of("U3", "U4"), ids(last.get(1)));
+        assertTrue(last.get(2).isEmpty());
+
+        List<List<RankingDto>> unknown = board.around("nobody", 2, NAMES);
+        assertTrue(unknown.stream().allMatch(List::isEmpty));
+    }
+
+    @Test
+    void clearEmptiesBoard() {
+        LeaderboardEngine.Board board = new LeaderboardEngine.Board();
+        board.add("A", 10);
+        board.clear();
+
+        assertEquals(0, board.size());
+        assertEquals(0, board.score("A"));
+        assertTrue(board.top(10, NAMES).isEmpty());
+    }
+
+    private static List<String> ids(List<RankingDto> rows) {
+        return rows.stream().map(RankingDto::getAnonId).toList();
+    }
+}
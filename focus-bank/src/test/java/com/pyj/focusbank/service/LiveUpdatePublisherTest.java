@@ -0,0 +1,88 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.event.DailyAggregatesFlushedEvent;
+import com.pyj.focusbank.event.FocusSettledEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * SSE 본인 상태("today"/"goal") 푸시 시점: 동기 정산은 정산 커밋 직후,
+ * write-behind 모드는 flusher 가 daily_aggregate 에 반영한 뒤.
+ */
+class LiveUpdatePublisherTest {
+
+    private static final String USER = "01HJQ5X2Y7A3F3ZP4R1G9S7001";
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private final SseHub sseHub = mock(SseHub.class);
+    private final ReportService reportService = mock(ReportService.class);
+    private final GoalService goalService = mock(GoalService.class);
+    private final AggregateWriter aggregateWriter = mock(AggregateWriter.class);
+    private LiveUpdatePublisher publisher;
+    private DailyAggregateWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        when(sseHub.subscriberCount()).thenReturn(1);
+        when(sseHub.hasSubscribers(USER)).thenReturn(true);
+        publisher = new LiveUpdatePublisher(sseHub, mock(LeaderboardEngine.class), reportService, goalService);
+        ReflectionTestUtils.setField(publisher, "rankLimit", 100);
+        publisher.start();
+
+        // flusher 의 반영 이벤트를 그대로 퍼블리셔에 전달
+        writeBehind = new DailyAggregateWriteBehind(aggregateWriter, new SimpleMeterRegistry(),
+                event -> publisher.onFlushed((DailyAggregatesFlushedEvent) event));
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "capacity", 100);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 100);
+        ReflectionTestUtils.setField(writeBehind, "flushIntervalMs", 3_600_000L); // 주기 flush 없음
+        ReflectionTestUtils.setField(writeBehind, "enqueueWaitMs", 10L);
+        writeBehind.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(writeBehind, "shutdown");
+        publisher.stop();
+    }
+
+    @Test
+    void synchronousSettlePushesUserStateImmediately() {
+        publisher.onSettled(new FocusSettledEvent(USER, 1L, DAY, 600, true));
+
+        verify(reportService, timeout(2000)).getDailySummary(USER, DAY.toString());
+        verify(goalService, timeout(2000)).getAllProgress(USER);
+    }
+
+    @Test
+    void writeBehindSettlePushesUserStateAfterFlush() {
+        publisher.onSettled(new FocusSettledEvent(USER, 1L, DAY, 600, false));
+        writeBehind.enqueue(DAY, USER, 600);
+
+        // 아직 daily_aggregate 에 없으므로 리더보드만 보내고 본인 상태는 보내지 않음
+        verify(sseHub).broadcast(eq("leaderboard"), any());
+        verify(reportService, after(200).never()).getDailySummary(anyString(), anyString());
+        verify(goalService, never()).getAllProgress(anyString());
+
+        writeBehind.flush();
+
+        verify(reportService, timeout(2000)).getDailySummary(USER, DAY.toString());
+        verify(goalService, timeout(2000)).getAllProgress(USER);
+        verify(sseHub, timeout(2000)).sendTo(eq(USER), eq("today"), any());
+    }
+}
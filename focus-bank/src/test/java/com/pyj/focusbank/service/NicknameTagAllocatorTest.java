@@ -0,0 +1,107 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.UserProfileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 닉네임 태그 할당: 가장 작은 빈 태그, 9999개 소진, 커밋 후 반납, 롤백 시 반납.
+ */
+class NicknameTagAllocatorTest {
+
+    private final UserProfileMapper userProfileMapper = mock(UserProfileMapper.class);
+    private final NicknameTagAllocator allocator = new NicknameTagAllocator(userProfileMapper);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void claimsLowestFreeTagIgnoringCase() {
+        when(userProfileMapper.selectNicknameTags()).thenReturn(List.of(
+                row("Focus", "0001"), row("focus", "0002"), row("FOCUS", "0004"), row("other", "0003")));
+        allocator.load();
+
+        assertTrue(allocator.isReady());
+        assertEquals("0003", allocator.claim("focus", null));
+        assertEquals("0005", allocator.claim("Focus", null));
+        assertEquals("0001", allocator.claim("other", null));
+    }
+
+    @Test
+    void keepsPreferredTagWhenFree() {
+        allocator.load();
+
+        assertEquals("0042", allocator.claim("moon", "0042"));
+        assertEquals("0001", allocator.claim("moon", "0042")); // 이미 사용 중 → 가장 작은 빈 태그
+        assertEquals("0002", allocator.claim("moon", "abcd")); // 형식이 틀린 선호 태그는 무시
+    }
+
+    @Test
+    void failsFastWhenAllTagsAreUsed() {
+        allocator.load();
+        for (int i = 1; i <= NicknameTagAllocator.MAX_TAG; i++) {
+            assertEquals(NicknameTagAllocator.format(i), allocator.claim("busy", null));
+        }
+
+        assertThrows(IllegalStateException.class, () -> allocator.claim("busy", null));
+        assertEquals("0001", allocator.claim("quiet", null)); // 다른 닉네임은 영향 없음
+    }
+
+    @Test
+    void releaseHappensOnlyAfterCommit() {
+        allocator.load();
+        assertEquals("0001", allocator.claim("sun", null));
+        assertEquals("0002", allocator.claim("sun", null));
+
+        TransactionSynchronizationManager.initSynchronization();
+        allocator.releaseAfterCommit("SUN", "0001");
+        assertEquals("0003", allocator.claim("sun", null)); // 커밋 전에는 아직 사용 중
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals("0001", allocator.claim("sun", null));
+    }
+
+    @Test
+    void rolledBackClaimIsReturned() {
+        allocator.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals("0001", allocator.claim("star", null));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals("0001", allocator.claim("star", null)); // 반납된 태그 재사용
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals("0002", allocator.claim("star", null)); // 커밋된 선점은 유지
+    }
+
+    /** 등록된 동기화 콜백을 트랜잭션 종료 순서대로 실행 */
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization s : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) s.afterCommit();
+            s.afterCompletion(status);
+        }
+    }
+
+    private static Map<String, Object> row(String nickname, String tag) {
+        return Map.of("nickname", nickname, "nickname_tag", tag);
+    }
+}
@@ -0,0 +1,88 @@
+package com.pyj.focusbank.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RankedTree(treap) 삽입/삭제/순위/구간 조회 확인.
+ */
+class RankedTreeTest {
+
+    @Test
+    void addRemoveAndRank() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        for (int v : new int[]{50, 10, 40, 20, 30}) {
+            tree.add(v);
+        }
+        tree.add(30); // 중복은 무시
+
+        assertEquals(5, tree.size());
+        assertEquals(List.of(10, 20, 30, 40, 50), tree.range(0, 10));
+        assertEquals(0, tree.rankOf(10));
+        assertEquals(4, tree.rankOf(50));
+        assertEquals(-1, tree.rankOf(35));
+
+        tree.remove(30);
+        tree.remove(99); // 없으면 무시
+
+        assertEquals(4, tree.size());
+        assertEquals(-1, tree.rankOf(30));
+        assertEquals(2, tree.rankOf(40));
+        assertEquals(List.of(10, 20, 40, 50), tree.range(0, 4));
+    }
+
+    @Test
+    void rangeClampsAtBothEnds() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) {
+            tree.add(i);
+        }
+
+        assertEquals(List.of(0, 1, 2), tree.range(-5, 3));
+        assertEquals(List.of(8, 9), tree.range(8, 100));
+        assertEquals(List.of(), tree.range(10, 12));
+        assertEquals(List.of(), tree.range(5, 5));
+        assertEquals(List.of(), tree.range(6, 4));
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertEquals(List.of(), tree.range(0, 10));
+    }
+
+    /** 무작위 추가/삭제 후에도 정렬 목록과 순위/구간이 일치 */
+    @Test
+    void matchesSortedSetUnderRandomOperations() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        for (int op = 0; op < 20_000; op++) {
+            int v = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                tree.remove(v);
+                expected.remove(v);
+            } else {
+                tree.add(v);
+                expected.add(v);
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertEquals(sorted.size(), tree.size());
+        assertEquals(sorted, tree.range(0, sorted.size()));
+        for (int i = 0; i < sorted.size(); i += 37) {
+            assertEquals(i, tree.rankOf(sorted.get(i)));
+            int to = Math.min(sorted.size(), i + 25);
+            assertEquals(sorted.subList(i, to), tree.range(i, i + 25));
+        }
+        assertTrue(tree.rankOf(-1) < 0);
+    }
+}
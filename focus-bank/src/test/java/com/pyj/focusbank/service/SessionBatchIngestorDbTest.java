@@ -0,0 +1,213 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.controller.SessionController;
+import com.pyj.focusbank.dao.AggregateMapper;
+import com.pyj.focusbank.dto.DailyAggregateDeltaDto;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.OfflineSessionDto;
+import com.pyj.focusbank.event.FocusSettledEvent;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 오프라인 세션 일괄 등록 (임베디드 MariaDB, 실제 매퍼 XML, @Transactional 프록시).
+ * - BATCH 실행기 + useGeneratedKeys 로 생성 키가 회수되는지
+ * - 같은 트랜잭션 안의 집계 반영(선택 쿼리 포함)이 BATCH 매퍼로 끝까지 실행되는지
+ * - 겹침 거부 (요청 안 400, 기존 세션 409) 와 실행기 혼용 방지
+ */
+class SessionBatchIngestorDbTest {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final String USER = "01HJQ5X2Y7A3F3ZP4R1G9S7C01";
+
+    private static EmbeddedMariaDb db;
+    private static TransactionTemplate tx;
+    private static AggregateWriter writer;
+    private static KnownAnonUsers knownAnonUsers;
+    private static SessionBatchIngestor ingestor;
+    private static final List<FocusSettledEvent> events = new CopyOnWriteArrayList<>();
+
+    /** 사흘 전 09:00 (최근 30일, 미래 아님) */
+    private static final LocalDateTime BASE = LocalDate.now(KST).minusDays(3).atTime(9, 0);
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+        DataSource dataSource = db.dataSource();
+        SqlSessionFactory factory = db.sqlSessionFactory(dataSource);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(dataSource);
+        tx = new TransactionTemplate(tm);
+
+        writer = new AggregateWriter(new SqlSessionTemplate(factory).getMapper(AggregateMapper.class), mock(DataVersions.class));
+        knownAnonUsers = new KnownAnonUsers();
+        ReflectionTestUtils.setField(knownAnonUsers, "maxSize", 100);
+        SessionBatchIngestor target = new SessionBatchIngestor(factory, writer, knownAnonUsers,
+                event -> events.add((FocusSettledEvent) event), 500, 30);
+
+        // 운영과 같이 @Transactional 프록시를 통해 호출
+        ProxyFactory proxy = new ProxyFactory(target);
+        proxy.setProxyTargetClass(true);
+        TransactionInterceptor interceptor = new TransactionInterceptor();
+        interceptor.setTransactionManager(tm);
+        interceptor.setTransactionAttributeSource(new AnnotationTransactionAttributeSource());
+        proxy.addAdvice(interceptor);
+        ingestor = (SessionBatchIngestor) proxy.getProxy();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void ingestReturnsGeneratedKeysAndUpdatesAggregates() throws Exception {
+        String user = USER;
+        List<OfflineSessionDto> batch = List.of(
+                new OfflineSessionDto(BASE.plusDays(1), BASE.plusDays(1).plusMinutes(60)),           // 3600
+                new OfflineSessionDto(BASE, BASE.plusMinutes(30)),                                   // 1800
+                new OfflineSessionDto(BASE.plusHours(1), BASE.plusHours(1).plusMinutes(20).plusSeconds(5))); // 1205
+
+        List<FocusSessionDto> saved = ingestor.ingest(" " + user + " ", batch);
+
+        // 시작 시각 오름차순 + 생성 키가 DB 의 session_id 와 같음
+        assertEquals(List.of(BASE, BASE.plusHours(1), BASE.plusDays(1)),
+                saved.stream().map(FocusSessionDto::getStartedAt).toList());
+        List<Long> ids = saved.stream().map(FocusSessionDto::getSessionId).toList();
+        ids.forEach(id -> assertNotNull(id, "generated key"));
+        assertEquals(ids, longs("SELECT session_id FROM focus_session WHERE anon_id = ? ORDER BY started_at", user));
+        assertEquals(List.of(1800L, 1205L, 3600L),
+                longs("SELECT duration_sec FROM focus_session WHERE anon_id = ? ORDER BY started_at", user));
+
+        // 일별/누적/주간/월간 집계
+        LocalDate day1 = BASE.toLocalDate();
+        LocalDate day2 = day1.plusDays(1);
+        assertEquals(List.of(3005L, 3600L),
+                longs("SELECT total_seconds FROM daily_aggregate WHERE anon_id = ? ORDER BY target_date", user));
+        assertEquals(List.of(6605L), longs("SELECT total_seconds FROM user_total WHERE anon_id = ?", user));
+        assertEquals(rollup(day1, day2, d -> d.with(DayOfWeek.MONDAY)),
+                longs("SELECT total_seconds FROM weekly_aggregate WHERE anon_id = ? ORDER BY week_start", user));
+        assertEquals(rollup(day1, day2, d -> d.withDayOfMonth(1)),
+                longs("SELECT total_seconds FROM monthly_aggregate WHERE anon_id = ? ORDER BY month_start", user));
+        assertEquals(List.of(2L), longs("SELECT SUM(day_count) FROM weekly_aggregate WHERE anon_id = ?", user));
+
+        // 날짜별 정산 이벤트 1건씩 + 커밋 후 기존 사용자로 기억
+        List<FocusSettledEvent> mine = events.stream().filter(e -> e.getAnonId().equals(user)).toList();
+        assertEquals(List.of(day1 + "=3005", day2 + "=3600"),
+                mine.stream().map(e -> e.getTargetDate() + "=" + e.getSeconds()).toList());
+        assertTrue(knownAnonUsers.contains(user));
+
+        // 같은 배치 재전송 → 기존 세션과 겹침 (409), 아무것도 추가되지 않음
+        assertThrows(IllegalStateException.class, () -> ingestor.ingest(user, batch));
+        assertEquals(3L, longs("SELECT COUNT(*) FROM focus_session WHERE anon_id = ?", user).get(0));
+        assertEquals(List.of(6605L), longs("SELECT total_seconds FROM user_total WHERE anon_id = ?", user));
+    }
+
+    @Test
+    void overlapInsideBatchIsRejectedWithoutWriting() throws Exception {
+        String user = "01HJQ5X2Y7A3F3ZP4R1G9S7C02";
+        List<OfflineSessionDto> batch = List.of(
+                new OfflineSessionDto(BASE, BASE.plusMinutes(30)),
+                new OfflineSessionDto(BASE.plusMinutes(29), BASE.plusMinutes(40)));
+
+        assertThrows(IllegalArgumentException.class, () -> ingestor.ingest(user, batch));
+        assertEquals(0L, longs("SELECT COUNT(*) FROM focus_session WHERE anon_id = ?", user).get(0));
+    }
+
+    @Test
+    void controllerMapsOverlapsTo400And409() throws Exception {
+        String user = "01HJQ5X2Y7A3F3ZP4R1G9S7C03";
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new SessionController(null, null, ingestor, null)).build();
+        String first = "[{\"startedAt\":\"" + BASE + "\",\"endedAt\":\"" + BASE.plusMinutes(10) + "\"}]";
+        String overlapping = "[{\"startedAt\":\"" + BASE.plusMinutes(5) + "\",\"endedAt\":\"" + BASE.plusMinutes(15) + "\"}]";
+        String intraOverlap = "[{\"startedAt\":\"" + BASE.plusHours(2) + "\",\"endedAt\":\"" + BASE.plusHours(3) + "\"},"
+                + "{\"startedAt\":\"" + BASE.plusHours(2).plusMinutes(30) + "\",\"endedAt\":\"" + BASE.plusHours(4) + "\"}]";
+
+        mvc.perform(post("/api/sessions/batch").header("X-ANON-ID", user)
+                        .contentType(MediaType.APPLICATION_JSON).content(first))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].sessionId").isNumber())
+                .andExpect(jsonPath("$[0].durationSec").value(600));
+        mvc.perform(post("/api/sessions/batch").header("X-ANON-ID", user)
+                        .contentType(MediaType.APPLICATION_JSON).content(first))
+                .andExpect(status().isConflict());
+        mvc.perform(post("/api/sessions/batch").header("X-ANON-ID", user)
+                        .contentType(MediaType.APPLICATION_JSON).content(overlapping))
+                .andExpect(status().isConflict());
+        mvc.perform(post("/api/sessions/batch").header("X-ANON-ID", user)
+                        .contentType(MediaType.APPLICATION_JSON).content(intraOverlap))
+                .andExpect(status().isBadRequest());
+        assertEquals(1L, longs("SELECT COUNT(*) FROM focus_session WHERE anon_id = ?", user).get(0));
+    }
+
+    @Test
+    void simpleExecutorCannotJoinBatchTransaction() throws Exception {
+        String user = "01HJQ5X2Y7A3F3ZP4R1G9S7C04";
+        List<OfflineSessionDto> batch = List.of(new OfflineSessionDto(BASE, BASE.plusMinutes(5)));
+
+        // BATCH 로 시작한 트랜잭션에 기본(SIMPLE) 매퍼로 집계를 쓰면 MyBatis-Spring 이 거부 → 전체 롤백
+        assertThrows(TransientDataAccessResourceException.class, () -> tx.executeWithoutResult(status -> {
+            ingestor.ingest(user, batch);
+            writer.apply(List.of(new DailyAggregateDeltaDto(BASE.toLocalDate(), user, 1)));
+        }));
+        assertEquals(0L, longs("SELECT COUNT(*) FROM focus_session WHERE anon_id = ?", user).get(0));
+    }
+
+    /** day1, day2 의 기간 합계 (같은 기간이면 1행) */
+    private static List<Long> rollup(LocalDate day1, LocalDate day2, UnaryOperator<LocalDate> start) {
+        List<Long> expected = new ArrayList<>();
+        if (start.apply(day1).equals(start.apply(day2))) {
+            expected.add(6605L);
+        } else {
+            expected.add(3005L);
+            expected.add(3600L);
+        }
+        return expected;
+    }
+
+    private static List<Long> longs(String sql, String anonId) throws Exception {
+        try (Connection c = db.connect(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, anonId);
+            List<Long> values = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) values.add(rs.getLong(1));
+            }
+            return values;
+        }
+    }
+}
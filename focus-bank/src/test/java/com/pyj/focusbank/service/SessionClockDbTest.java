@@ -0,0 +1,114 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.dao.AggregateMapper;
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 세션 시각의 시계 일치 (임베디드 MariaDB, 실제 매퍼 XML).
+ * started_at 은 애플리케이션 시계(KST)로, anonymous_user.created_at 등은 DB 의 NOW() 로 기록되므로
+ * 커넥션의 세션 time_zone 이 +09:00 으로 고정돼 두 값이 어긋나지 않는지,
+ * 정산(ended_at, duration_sec)도 같은 시계로 계산되는지 본다.
+ */
+class SessionClockDbTest {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private static EmbeddedMariaDb db;
+    private static final Clock clock = mock(Clock.class);
+    private static SessionServiceImpl service;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+        SqlSessionFactory factory = db.sqlSessionFactory(db.dataSource());
+        SessionMapper mapper = new SqlSessionTemplate(factory).getMapper(SessionMapper.class);
+        AggregateWriter aggregateWriter = new AggregateWriter(
+                new SqlSessionTemplate(factory).getMapper(AggregateMapper.class), mock(DataVersions.class));
+        KnownAnonUsers knownAnonUsers = new KnownAnonUsers();
+        ReflectionTestUtils.setField(knownAnonUsers, "maxSize", 100);
+        when(clock.getZone()).thenReturn(KST);
+        when(clock.instant()).thenAnswer(inv -> Instant.now());
+        service = new SessionServiceImpl(mapper, aggregateWriter, new ActiveSessionRegistry(mapper),
+                new DailyAggregateWriteBehind(aggregateWriter, null, event -> { }), // write-behind 꺼짐
+                knownAnonUsers, event -> { }, clock);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void connectionTimeZoneIsPinnedToKst() throws Exception {
+        assertEquals("+09:00", string("SELECT @@session.time_zone", null));
+    }
+
+    @Test
+    void startedAtMatchesDatabaseNow() throws Exception {
+        String anonId = "01HJQ5X2Y7A3F3ZP4R1G9S7K01";
+        FocusSessionDto opened = service.startFocus(anonId);
+
+        LocalDateTime createdByDb = LocalDateTime.parse(
+                string("SELECT DATE_FORMAT(created_at, '%Y-%m-%dT%H:%i:%s') FROM anonymous_user WHERE anon_id = ?", anonId));
+        LocalDateTime startedAt = LocalDateTime.parse(
+                string("SELECT DATE_FORMAT(started_at, '%Y-%m-%dT%H:%i:%s') FROM focus_session WHERE session_id = ?",
+                        opened.getSessionId().toString()));
+        assertEquals(opened.getStartedAt(), startedAt);
+        assertTrue(Duration.between(createdByDb, startedAt).abs().getSeconds() <= 5,
+                "DB NOW() " + createdByDb + " vs app clock " + startedAt);
+    }
+
+    @Test
+    void settleUsesTheSameClockAsStart() throws Exception {
+        String anonId = "01HJQ5X2Y7A3F3ZP4R1G9S7K02";
+        Instant start = Instant.now();
+        when(clock.instant()).thenReturn(start);
+        FocusSessionDto opened = service.startFocus(anonId);
+
+        when(clock.instant()).thenReturn(start.plusSeconds(90));
+        try {
+            FocusSessionDto closed = service.endFocus(opened.getSessionId());
+            assertEquals(90, closed.getDurationSec());
+            assertEquals(opened.getStartedAt().plusSeconds(90), closed.getEndedAt());
+        } finally {
+            when(clock.instant()).thenAnswer(inv -> Instant.now());
+        }
+        String id = opened.getSessionId().toString();
+        assertEquals("90", string("SELECT duration_sec FROM focus_session WHERE session_id = ?", id));
+        assertEquals("90", string("SELECT total_seconds FROM daily_aggregate WHERE anon_id = ?", anonId));
+        assertEquals(opened.getStartedAt().plusSeconds(90), LocalDateTime.parse(string(
+                "SELECT DATE_FORMAT(ended_at, '%Y-%m-%dT%H:%i:%s') FROM focus_session WHERE session_id = ?", id)));
+    }
+
+    private static String string(String sql, String param) throws Exception {
+        try (Connection c = db.connect(); PreparedStatement ps = c.prepareStatement(sql)) {
+            if (param != null) ps.setString(1, param);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+}
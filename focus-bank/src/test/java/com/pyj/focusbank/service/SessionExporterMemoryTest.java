@@ -0,0 +1,188 @@
+package com.pyj.focusbank.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세션 내보내기가 이력 길이와 관계없이 일정한 메모리로 동작하는지 확인.
+ *
+ * <p>작은 힙(-Xmx32m)에서 임베디드 MariaDB 에 적재한 세션 100만 건(목록으로 만들면 100MB 이상)을
+ * 실제 경로({@link SessionExporter#export} → streamByAnon 커서, fetchSize, MariaDB 드라이버)로
+ * NDJSON/CSV 로 끝까지 쓰는지 본다. 드라이버가 결과를 한 번에 받거나 전체를 모으는 구현이면
+ * OutOfMemoryError 로 실패한다.</p>
+ *
+ * <p>보조로, 같은 건수를 커서처럼 흘려보내는 가짜 이력으로 출력부({@link SessionExporter#write})만 확인한다.</p>
+ *
+ * 실행: {@code ./gradlew exportMemoryTest [-PexportSessions=1000000]}
+ */
+@Tag("lowmemory")
+class SessionExporterMemoryTest {
+
+    private static final int SESSIONS = Integer.getInteger("export.sessions", 1_000_000);
+
+    /** 이 크기 이하 힙에서만 의미가 있음 (exportMemoryTest 태스크가 설정) */
+    private static final long MAX_HEAP_BYTES = 64L * 1024 * 1024;
+
+    private static final String ANON_ID = "01JPERFTEST000000000000001";
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static EmbeddedMariaDb db;
+    private static SqlSessionFactory sqlSessionFactory;
+
+    private final SessionExporter exporter = new SessionExporter(null, OBJECT_MAPPER);
+
+    @BeforeAll
+    static void seed() throws Exception {
+        db = EmbeddedMariaDb.start();
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            try (PreparedStatement ps = c.prepareStatement("INSERT INTO anonymous_user (anon_id) VALUES (?)")) {
+                ps.setString(1, ANON_ID);
+                ps.executeUpdate();
+            }
+            // 30분 간격 25분 세션 (시퀀스 엔진으로 서버 안에서 생성)
+            st.executeUpdate("INSERT INTO focus_session (anon_id, started_at, ended_at, duration_sec, created_at) "
+                    + "SELECT '" + ANON_ID + "', t, t + INTERVAL 25 MINUTE, 1500, t "
+                    + "  FROM (SELECT TIMESTAMP '2020-01-01 09:00:00' + INTERVAL (seq * 30) MINUTE AS t "
+                    + "          FROM seq_0_to_" + (SESSIONS - 1) + ") s");
+        }
+        sqlSessionFactory = db.sqlSessionFactory(db.dataSource());
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void ndjsonExportStreamsFromDatabaseInSmallHeap() throws Exception {
+        assertSmallHeap();
+        CountingSink sink = new CountingSink();
+
+        long written = exportFromDatabase(SessionExporter.Format.NDJSON, sink);
+
+        assertEquals(SESSIONS, written);
+        assertEquals(SESSIONS, sink.lines);
+        System.out.printf("db ndjson: %d sessions, %d bytes, max heap %d MB%n",
+                written, sink.bytes, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    @Test
+    void csvExportStreamsFromDatabaseInSmallHeap() throws Exception {
+        assertSmallHeap();
+        CountingSink sink = new CountingSink();
+
+        long written = exportFromDatabase(SessionExporter.Format.CSV, sink);
+
+        assertEquals(SESSIONS, written);
+        assertEquals(SESSIONS + 1, sink.lines); // 헤더 포함
+        System.out.printf("db csv: %d sessions, %d bytes, max heap %d MB%n",
+                written, sink.bytes, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    @Test
+    void ndjsonStreamsLargeHistoryInSmallHeap() throws Exception {
+        assertSmallHeap();
+        CountingSink sink = new CountingSink();
+
+        long written = exporter.write(syntheticHistory(SESSIONS), SessionExporter.Format.NDJSON, sink);
+
+        assertEquals(SESSIONS, written);
+        assertEquals(SESSIONS, sink.lines);
+        System.out.printf("ndjson: %d sessions, %d bytes, max heap %d MB%n",
+                written, sink.bytes, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    @Test
+    void csvStreamsLargeHistoryInSmallHeap() throws Exception {
+        assertSmallHeap();
+        CountingSink sink = new CountingSink();
+
+        long written = exporter.write(syntheticHistory(SESSIONS), SessionExporter.Format.CSV, sink);
+
+        assertEquals(SESSIONS, written);
+        assertEquals(SESSIONS + 1, sink.lines); // 헤더 포함
+        System.out.printf("csv: %d sessions, %d bytes, max heap %d MB%n",
+                written, sink.bytes, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    /** 운영과 같은 매퍼/커서로 export (커서는 열린 SqlSession 안에서만 순회 가능) */
+    private static long exportFromDatabase(SessionExporter.Format format, OutputStream out) throws Exception {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            SessionExporter dbExporter = new SessionExporter(session.getMapper(SessionMapper.class), OBJECT_MAPPER);
+            return dbExporter.export(ANON_ID, format, out);
+        }
+    }
+
+    private static void assertSmallHeap() {
+        assertTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP_BYTES,
+                "run with ./gradlew exportMemoryTest (small -Xmx), current max heap: "
+                        + (Runtime.getRuntime().maxMemory() >> 20) + " MB");
+    }
+
+    /** DB 커서처럼 요청할 때마다 한 건씩 만드는 가짜 이력 (이전 행은 곧바로 수거 대상) */
+    private static Iterable<FocusSessionDto> syntheticHistory(int size) {
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 9, 0);
+        return () -> new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            @Override
+            public FocusSessionDto next() {
+                FocusSessionDto s = new FocusSessionDto();
+                s.setSessionId((long) i + 1);
+                s.setAnonId(ANON_ID);
+                s.setStartedAt(base.plusMinutes(i * 30L));
+                s.setEndedAt(base.plusMinutes(i * 30L + 25));
+                s.setDurationSec(1500);
+                s.setCreatedAt(s.getStartedAt());
+                i++;
+                return s;
+            }
+        };
+    }
+
+    /** 받은 바이트/줄 수만 세고 버리는 출력 */
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+    }
+}
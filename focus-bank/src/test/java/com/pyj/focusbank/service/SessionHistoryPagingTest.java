@@ -0,0 +1,173 @@
+package com.pyj.focusbank.service;
+
+import com.pyj.focusbank.controller.SessionController;
+import com.pyj.focusbank.dao.SessionMapper;
+import com.pyj.focusbank.dto.FocusSessionDto;
+import com.pyj.focusbank.dto.SessionHistoryDto;
+import com.pyj.focusbank.support.EmbeddedMariaDb;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 세션 이력 커서 페이지 (getHistory) 확인 (임베디드 MariaDB, 실제 매퍼 XML).
+ * 같은 started_at 이 여러 건이어도 (startedAt, sessionId) 커서로 중복/누락 없이 넘어가는지 본다.
+ */
+class SessionHistoryPagingTest {
+
+    private static final String ANON = "01HJQ5X2Y7A3F3ZP4R1G9S7H01";
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 4, 1);
+
+    /** (startedAt 오름차순, sessionId 오름차순) 기대 순서 */
+    private static final long[] EXPECTED = {910, 903, 905, 907, 908, 912, 901, 902, 911};
+
+    private static EmbeddedMariaDb db;
+    private static SessionServiceImpl service;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedMariaDb.start();
+        try (Connection c = db.connect(); Statement st = c.createStatement()) {
+            st.execute("INSERT INTO anonymous_user (anon_id) VALUES ('" + ANON + "')");
+            // 같은 시각 5건 (09:00:00) 은 session_id 를 섞어서 넣음 → 삽입 순서가 아니라 키 순서로 읽혀야 함
+            st.execute("INSERT INTO focus_session (session_id, anon_id, started_at) VALUES "
+                    + "(910, '" + ANON + "', '2025-03-02 08:00:00'),"
+                    + "(908, '" + ANON + "', '2025-03-03 09:00:00'),"
+                    + "(903, '" + ANON + "', '2025-03-03 09:00:00'),"
+                    + "(912, '" + ANON + "', '2025-03-03 09:00:00'),"
+                    + "(905, '" + ANON + "', '2025-03-03 09:00:00'),"
+                    + "(907, '" + ANON + "', '2025-03-03 09:00:00'),"
+                    + "(902, '" + ANON + "', '2025-03-03 09:00:01'),"
+                    + "(901, '" + ANON + "', '2025-03-03 09:00:01'),"
+                    + "(911, '" + ANON + "', '2025-03-31 23:59:59'),"
+                    + "(913, '" + ANON + "', '2025-04-01 00:00:00')"); // to 는 제외
+        }
+        SessionMapper mapper = new SqlSessionTemplate(db.sqlSessionFactory(db.dataSource())).getMapper(SessionMapper.class);
+        // getHistory 는 매퍼만 사용
+        service = new SessionServiceImpl(mapper, null, null, null, null, null, Clock.system(ZoneId.of("Asia/Seoul")));
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void pagesThroughIdenticalStartTimesWithoutDuplicatesOrGaps() {
+        for (int limit = 1; limit <= EXPECTED.length + 1; limit++) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                SessionHistoryDto page = service.getHistory(ANON, FROM, TO, cursor, limit);
+                assertTrue(page.getItems().size() <= limit);
+                page.getItems().forEach(s -> seen.add(s.getSessionId()));
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null && pages <= EXPECTED.length);
+
+            assertEquals(toList(EXPECTED), seen, "limit=" + limit);
+            assertEquals(seen.size(), new HashSet<>(seen).size());
+        }
+    }
+
+    @Test
+    void cursorEncodesLastRowOfPage() {
+        SessionHistoryDto first = service.getHistory(ANON, FROM, TO, null, 3);
+        FocusSessionDto last = first.getItems().get(2);
+        assertEquals(905L, last.getSessionId());
+
+        assertNotNull(first.getNextCursor());
+        assertTrue(first.getNextCursor().matches("[A-Za-z0-9_-]+"), "URL-safe, no padding");
+        String raw = new String(Base64.getUrlDecoder().decode(first.getNextCursor()), StandardCharsets.UTF_8);
+        assertEquals("2025-03-03T09:00|905", raw);
+
+        // 직접 만든 같은 커서로도 같은 다음 페이지
+        String manual = cursor(LocalDateTime.of(2025, 3, 3, 9, 0) + "|905");
+        assertEquals(ids(service.getHistory(ANON, FROM, TO, first.getNextCursor(), 3)),
+                ids(service.getHistory(ANON, FROM, TO, manual, 3)));
+        assertEquals(List.of(907L, 908L, 912L), ids(service.getHistory(ANON, FROM, TO, manual, 3)));
+
+        // 마지막 페이지는 커서 없음
+        assertNull(service.getHistory(ANON, FROM, TO, cursor("2025-03-03T09:00:01|902"), 3).getNextCursor());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        for (String bad : badCursors()) {
+            assertThrows(IllegalArgumentException.class, () -> service.getHistory(ANON, FROM, TO, bad, 3), bad);
+        }
+    }
+
+    @Test
+    void malformedCursorIs400ThroughController() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new SessionController(service, null, null, null)).build();
+
+        for (String bad : badCursors()) {
+            mvc.perform(get("/api/sessions/history")
+                            .header("X-ANON-ID", ANON)
+                            .param("from", FROM.toString())
+                            .param("to", TO.toString())
+                            .param("cursor", bad))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.detail").value("cursor 형식이 올바르지 않습니다."));
+        }
+        mvc.perform(get("/api/sessions/history")
+                        .header("X-ANON-ID", ANON)
+                        .param("from", FROM.toString())
+                        .param("to", TO.toString())
+                        .param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(4))
+                .andExpect(jsonPath("$.nextCursor").value(cursor("2025-03-03T09:00|907")));
+    }
+
+    private static List<String> badCursors() {
+        return List.of(
+                "not base64!",                               // Base64 아님
+                cursor("2025-03-03T09:00"),                  // 구분자 없음
+                cursor("2025-03-03T09:00|905|1"),            // 필드 과다
+                cursor("yesterday|905"),                     // 시각 형식 오류
+                cursor("2025-03-03T09:00|abc"),              // sessionId 숫자 아님
+                cursor("2025-03-03T09:00|"));                // sessionId 없음
+    }
+
+    private static String cursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Long> ids(SessionHistoryDto page) {
+        return page.getItems().stream().map(FocusSessionDto::getSessionId).toList();
+    }
+
+    private static List<Long> toList(long[] values) {
+        List<Long> list = new ArrayList<>(values.length);
+        for (long v : values) list.add(v);
+        return list;
+    }
+}
@@ -0,0 +1,193 @@
+package com.pyj.focusbank.support;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.pyj.focusbank.dao.type.AnonIdTypeHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * 테스트/벤치마크용 임베디드 MariaDB (MariaDB4j).
+ *
+ * <p>빈 포트로 기동하고 focusbank 스키마(static/sql/focus.sql)를 적재한다.
+ * 운영과 같은 SQL 방언을 그대로 쓰기 위해 H2 대신 실제 MariaDB 바이너리를 사용한다.</p>
+ *
+ * <p>스크립트는 mariadb 클라이언트(libncurses 필요) 대신 JDBC 로 한 문장씩 실행한다.
+ * {@code DELIMITER} 지시어(저장 함수/복합문)도 클라이언트처럼 해석한다.</p>
+ */
+public final class EmbeddedMariaDb implements AutoCloseable {
+
+    public static final String DB_NAME = "focusbank";
+    public static final String USER = "root";
+    public static final String PASSWORD = "";
+
+    /** 운영 URL 과 같이 세션 time_zone 을 KST 로 고정 (NOW()/DEFAULT CURRENT_TIMESTAMP 가 애플리케이션 시계와 일치) */
+    public static final String URL_PARAMS = "?sessionVariables=time_zone='+09:00'";
+
+    private final DB db;
+    private final String url;
+
+    private EmbeddedMariaDb(DB db, String url) {
+        this.db = db;
+        this.url = url;
+    }
+
+    /**
+     * 임베디드 MariaDB 기동 + 스키마 적재.
+     *
+     * @return 기동된 DB 핸들 (close 시 종료)
+     */
+    public static EmbeddedMariaDb start() throws ManagedProcessException {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0); // 빈 포트 자동 선택
+        if ("root".equals(System.getProperty("user.name"))) {
+            config.addArg("--user=root"); // root 로 실행하는 CI/컨테이너에서는 명시해야 mariadbd 가 기동
+        }
+        DB db = DB.newEmbeddedDB(config.build());
+        db.start();
+        EmbeddedMariaDb embedded = new EmbeddedMariaDb(db, config.getURL(DB_NAME) + URL_PARAMS);
+        try (Connection c = DriverManager.getConnection(config.getURL(""), USER, PASSWORD);
+             Statement st = c.createStatement()) {
+            st.execute("CREATE DATABASE " + DB_NAME + " DEFAULT CHARACTER SET utf8mb4");
+        } catch (SQLException e) {
+            db.stop();
+            throw new ManagedProcessException("create database failed", e);
+        }
+        embedded.source("static/sql/focus.sql");
+        return embedded;
+    }
+
+    /** JDBC URL (jdbc:mariadb://localhost:port/focusbank?sessionVariables=...) */
+    public String url() {
+        return url;
+    }
+
+    /** 새 JDBC 커넥션 */
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, USER, PASSWORD);
+    }
+
+    /** 커넥션 풀 없는 DataSource (요청마다 새 커넥션) */
+    public DataSource dataSource() {
+        return new DriverManagerDataSource(url, USER, PASSWORD);
+    }
+
+    /**
+     * 운영과 같은 매퍼 XML/별칭 설정(application-dev.yml 의 mybatis.*)으로 만든 SqlSessionFactory (anon_id CHAR 저장).
+     * 트랜잭션은 Spring 관리 방식이라 같은 DataSource 의 DataSourceTransactionManager 와 함께 쓸 수 있다.
+     */
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+        return sqlSessionFactory(dataSource, new AnonIdTypeHandler(AnonIdTypeHandler.Storage.CHAR));
+    }
+
+    /** anon_id 저장 형식을 지정한 SqlSessionFactory (운영의 MyBatisTypeConfig 와 같이 핸들러 인스턴스를 등록) */
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource, AnonIdTypeHandler anonIdTypeHandler) throws Exception {
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        anonIdTypeHandler.registerTo(configuration);
+        SqlSessionFactoryBean factory = new SqlSessionFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setConfiguration(configuration);
+        factory.setTypeAliasesPackage("com.pyj.focusbank.dto");
+        factory.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath*:mapper/*.xml"));
+        return factory.getObject();
+    }
+
+    /** 추가 SQL 스크립트(classpath) 적재 */
+    public void source(String resource) throws ManagedProcessException {
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            for (String sql : splitScript(readResource(resource))) {
+                st.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new ManagedProcessException("failed to source " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        db.stop();
+    }
+
+    /** classpath SQL 스크립트의 문장 목록 (스크립트 일부만 실행할 때) */
+    public static List<String> statements(String resource) {
+        return splitScript(readResource(resource));
+    }
+
+    private static String readResource(String resource) {
+        try (InputStream in = EmbeddedMariaDb.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalArgumentException("resource not found: " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * SQL 스크립트 → 문장 목록 (mariadb 클라이언트와 같은 규칙).
+     * 따옴표/주석 안의 구분자는 무시하고, 줄 맨 앞의 {@code DELIMITER x} 로 구분자를 바꾼다.
+     */
+    static List<String> splitScript(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String delimiter = ";";
+        int i = 0;
+        int n = script.length();
+        while (i < n) {
+            // 줄 맨 앞 DELIMITER 지시어
+            if ((i == 0 || script.charAt(i - 1) == '\n') && current.toString().isBlank()
+                    && script.regionMatches(true, i, "DELIMITER ", 0, 10)) {
+                int eol = script.indexOf('\n', i);
+                if (eol < 0) eol = n;
+                delimiter = script.substring(i + 10, eol).trim();
+                current.setLength(0);
+                i = eol + 1;
+                continue;
+            }
+            char c = script.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < n && script.charAt(end) != c) {
+                    if (script.charAt(end) == '\\') end++;
+                    end++;
+                }
+                current.append(script, i, Math.min(end + 1, n));
+                i = end + 1;
+            } else if (script.startsWith("--", i) && (i + 2 >= n || Character.isWhitespace(script.charAt(i + 2)))
+                    || c == '#') {
+                int eol = script.indexOf('\n', i);
+                i = eol < 0 ? n : eol;
+            } else if (script.startsWith("/*", i)) {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                current.append(' ');
+            } else if (script.startsWith(delimiter, i)) {
+                String sql = current.toString().trim();
+                if (!sql.isEmpty()) statements.add(sql);
+                current.setLength(0);
+                i += delimiter.length();
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        String tail = current.toString().trim();
+        if (!tail.isEmpty()) statements.add(tail);
+        return statements;
+    }
+}
@@ -0,0 +1,93 @@
+package com.pyj.focusbank.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 지연시간(나노초) 기록 + 백분위 요약.
+ * 벤치마크 결과는 build/reports/benchmark/{name}.json 으로 남긴다.
+ */
+public final class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[1024];
+    private int size = 0;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** 한 번의 측정값(나노초) 기록 */
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    /** p(0~100) 백분위 값(마이크로초) */
+    public synchronized double percentileMicros(double p) {
+        if (size == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int idx = (int) Math.ceil(p / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(idx, size - 1))] / 1_000.0;
+    }
+
+    public synchronized double meanMicros() {
+        if (size == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < size; i++) sum += samples[i];
+        return sum / (double) size / 1_000.0;
+    }
+
+    /** 요약(count/mean/p50/p95/p99/max) */
+    public Map<String, Object> summary() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("name", name);
+        m.put("count", count());
+        m.put("meanUs", round(meanMicros()));
+        m.put("p50Us", round(percentileMicros(50)));
+        m.put("p95Us", round(percentileMicros(95)));
+        m.put("p99Us", round(percentileMicros(99)));
+        m.put("maxUs", round(percentileMicros(100)));
+        return m;
+    }
+
+    @Override
+    public String toString() {
+        return summary().toString();
+    }
+
+    /** 여러 측정 결과를 build/reports/benchmark/{file}.json 으로 저장 */
+    public static Path writeJson(String file, LatencyRecorder... recorders) throws IOException {
+        Path dir = Path.of("build", "reports", "benchmark");
+        Files.createDirectories(dir);
+        String json = Arrays.stream(recorders)
+                .map(r -> r.summary().entrySet().stream()
+                        .map(e -> "\"" + e.getKey() + "\":" + (e.getValue() instanceof String
+                                ? "\"" + e.getValue() + "\"" : e.getValue()))
+                        .collect(Collectors.joining(",", "{", "}")))
+                .collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n"));
+        Path out = dir.resolve(file + ".json");
+        Files.writeString(out, json);
+        return out;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+}